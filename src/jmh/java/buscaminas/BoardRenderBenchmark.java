@@ -0,0 +1,86 @@
+package buscaminas;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Repaint of {@link MinesweeperBoardPanel} into an offscreen image (headless): the visible
+ * part of the board, and a single cell through the clip as after a click that opens one cell.
+ * The image is at most a {@value #VIEW_WIDTH}x{@value #VIEW_HEIGHT} viewport centred on the
+ * board, so small boards are painted whole and the multi-million-cell ones (HUGE, just at the
+ * frame's switch to the chunked game, and CHUNKED, just past it) measure the clip-aware
+ * painting and the tile cache rather than the size of the image.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class BoardRenderBenchmark {
+    static final int VIEW_WIDTH = 1920;
+    static final int VIEW_HEIGHT = 1080;
+
+    @Param({"BEGINNER", "EXPERT", "LARGE", "HUGE", "CHUNKED"})
+    String board;
+
+    private MinesweeperBoardPanel panel;
+    private BufferedImage image;
+    private Graphics2D g;
+    private int viewX, viewY;
+
+    @Setup
+    public void setup() {
+        IMinesweeperGame game;
+        switch (board) {
+            case "BEGINNER": game = new MinesweeperGame(9, 9, 10, new Random(5)); break;
+            case "EXPERT": game = new MinesweeperGame(16, 30, 99, new Random(5)); break;
+            case "LARGE": game = new MinesweeperGame(200, 200, 6000, new Random(5)); break;
+            case "HUGE": game = new MinesweeperGame(2048, 2048, 2048 * 2048 / 7, new Random(5)); break;
+            default: game = new ChunkedMinesweeperGame(4096, 4096, 4096 * 4096 / 7, new Random(5)); break;
+        }
+        game.openCell(game.getRows() / 2, game.getCols() / 2);
+        panel = new MinesweeperBoardPanel(game, null);
+        int cell = 24;
+        panel.setSize(game.getCols() * cell, game.getRows() * cell);
+        int width = Math.min(VIEW_WIDTH, panel.getWidth()), height = Math.min(VIEW_HEIGHT, panel.getHeight());
+        viewX = (panel.getWidth() - width) / 2;
+        viewY = (panel.getHeight() - height) / 2;
+        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        g = image.createGraphics();
+        // Coordenadas del panel, como dentro de un JViewport desplazado al centro
+        g.translate(-viewX, -viewY);
+    }
+
+    @Benchmark
+    public BufferedImage paintSingleCellClip() {
+        g.setClip(panel.getWidth() / 2, panel.getHeight() / 2, 24, 24);
+        panel.paintComponent(g);
+        return image;
+    }
+
+    @TearDown
+    public void tearDown() { g.dispose(); }
+
+    @Benchmark
+    public BufferedImage paintComponent() {
+        g.setClip(viewX, viewY, image.getWidth(), image.getHeight());
+        panel.paintComponent(g);
+        return image;
+    }
+}
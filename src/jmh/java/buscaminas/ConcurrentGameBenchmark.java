@@ -0,0 +1,57 @@
+package buscaminas;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * Many players clearing one shared 2000x2000 {@link ConcurrentMinesweeperGame}. Each
+ * thread opens every safe cell of an interleaved share of the rows, so the zero regions
+ * that span shares are flooded cooperatively. Compare the time across thread counts:
+ * <pre>
+ * mvn -Pjmh verify -Djmh.args="ConcurrentGameBenchmark -t 1"   (then -t 2, -t 4, ...)
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConcurrentGameBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        ConcurrentMinesweeperGame game;
+        long seed;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            game = new ConcurrentMinesweeperGame(2000, 2000, 600_000, new Random(5));
+            game.reset(seed++);
+            game.openCell(0, 0);
+        }
+    }
+
+    @Benchmark
+    public long clearSharedBoard(Shared s, ThreadParams t) {
+        ConcurrentMinesweeperGame game = s.game;
+        for (int r = t.getThreadIndex(); r < game.getRows(); r += t.getThreadCount()) {
+            for (int c = 0; c < game.getCols(); c++) {
+                if (!game.isMine(r, c) && !game.isOpened(r, c)) game.openCell(r, c, (cells, offset, length) -> {});
+            }
+        }
+        return game.getOpenedSafeCells();
+    }
+}
@@ -0,0 +1,190 @@
+package buscaminas;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Engine hot paths of {@link MinesweeperGame}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+
+    /** Mine placement on a 300x300 board at increasing densities (of the cells outside the halo). */
+    @State(Scope.Thread)
+    public static class Placement {
+        @Param({"0.01", "0.2", "0.5", "0.9", "1.0"})
+        double density;
+        MinesweeperGame game;
+        long seed;
+
+        @Setup
+        public void setup() {
+            int mines = (int) ((300 * 300 - 9) * density);
+            game = new MinesweeperGame(300, 300, mines, new Random(1));
+        }
+    }
+
+    @Benchmark
+    public int placeMines(Placement s) {
+        s.game.reset(s.seed++);
+        s.game.placeMinesAvoiding(150, 150);
+        return s.game.countAdjacentMines(0, 0);
+    }
+
+    /** Boards dominated by one zero region, so a single open reveals most of the board. */
+    @State(Scope.Thread)
+    public static class ZeroRegion {
+        @Param({"100", "1000"})
+        int size;
+        MinesweeperGame game;
+        long seed;
+
+        @Setup
+        public void setup() { game = new MinesweeperGame(size, size, size * size / 400, new Random(2)); }
+    }
+
+    @Benchmark
+    public int openZeroRegion(ZeroRegion s) {
+        s.game.reset(s.seed++);
+        return s.game.revealCell(s.size / 2, s.size / 2);
+    }
+
+    /**
+     * Expert boards, each with a numbered cell whose mines are all flagged, ready to chord.
+     * They are prepared once as snapshots; every invocation restores and chords all of them,
+     * so the O(1) {@link MinesweeperGame#restore} is measured along with the chord instead
+     * of a per-invocation setup that costs more than the chord itself.
+     */
+    @State(Scope.Thread)
+    public static class Chord {
+        static final int TARGETS = 256;
+        MinesweeperGame game;
+        final MinesweeperGame.Snapshot[] boards = new MinesweeperGame.Snapshot[TARGETS];
+        final int[] r = new int[TARGETS], c = new int[TARGETS];
+
+        @Setup
+        public void setup() {
+            game = new MinesweeperGame(16, 30, 99, new Random(3));
+            long seed = 0;
+            for (int k = 0; k < TARGETS; k++) {
+                do {
+                    game.reset(seed++);
+                    game.openCell(8, 15);
+                } while (!findChordableCell(k));
+                boards[k] = game.snapshot();
+            }
+        }
+
+        private boolean findChordableCell(int k) {
+            for (int i = 0; i < 16 * 30; i++) {
+                int cr = i / 30, cc = i % 30;
+                if (!game.isOpened(cr, cc) || game.countAdjacentMines(cr, cc) == 0) continue;
+                boolean closedSafe = false;
+                for (int nr = Math.max(0, cr - 1); nr <= Math.min(15, cr + 1); nr++) {
+                    for (int nc = Math.max(0, cc - 1); nc <= Math.min(29, cc + 1); nc++) {
+                        if (game.isMine(nr, nc)) { if (!game.isFlagged(nr, nc)) game.toggleFlag(nr, nc); }
+                        else if (!game.isOpened(nr, nc)) closedSafe = true;
+                    }
+                }
+                if (closedSafe) { r[k] = cr; c[k] = cc; return true; }
+            }
+            return false;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Chord.TARGETS)
+    public int chordOpen(Chord s) {
+        int opened = 0;
+        for (int k = 0; k < Chord.TARGETS; k++) {
+            s.game.restore(s.boards[k]);
+            opened += s.game.revealChord(s.r[k], s.c[k]);
+        }
+        return opened;
+    }
+
+    /** A finished Expert board and a large one, for whole-board queries. */
+    @State(Scope.Benchmark)
+    public static class Board {
+        @Param({"EXPERT", "LARGE"})
+        String size;
+        MinesweeperGame game;
+
+        @Setup
+        public void setup() {
+            game = "EXPERT".equals(size) ? new MinesweeperGame(16, 30, 99, new Random(4))
+                                         : new MinesweeperGame(1000, 1000, 150_000, new Random(4));
+            game.openCell(game.getRows() / 2, game.getCols() / 2);
+        }
+    }
+
+    @Benchmark
+    public int countAdjacentMinesAllCells(Board s) {
+        int sum = 0;
+        for (int r = 0; r < s.game.getRows(); r++) {
+            for (int c = 0; c < s.game.getCols(); c++) sum += s.game.countAdjacentMines(r, c);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void getMinesAndOpened(Board s, Blackhole bh) {
+        bh.consume(s.game.getMines());
+        bh.consume(s.game.getOpened());
+    }
+
+    /**
+     * One branch of a tree search on a half-open board: fork the state, flag a closed cell,
+     * go back. {@code snapshot} uses {@link MinesweeperGame#snapshot()}; {@code copy} is the
+     * full copy through {@code captureState()}/{@code fromState()} that was needed before.
+     */
+    @State(Scope.Thread)
+    public static class Branch {
+        @Param({"EXPERT", "LARGE"})
+        String size;
+        MinesweeperGame game;
+        int closed;
+
+        @Setup
+        public void setup() {
+            game = "EXPERT".equals(size) ? new MinesweeperGame(16, 30, 99, new Random(5))
+                                         : new MinesweeperGame(1000, 1000, 150_000, new Random(5));
+            game.openCell(game.getRows() / 2, game.getCols() / 2);
+            while (game.isOpened(closed / game.getCols(), closed % game.getCols())) closed++;
+        }
+    }
+
+    @Benchmark
+    public int branchWithSnapshot(Branch s) {
+        MinesweeperGame.Snapshot before = s.game.snapshot();
+        s.game.toggleFlag(s.closed / s.game.getCols(), s.closed % s.game.getCols());
+        int flags = s.game.getFlagsCount();
+        s.game.restore(before);
+        return flags;
+    }
+
+    @Benchmark
+    public int branchWithCopy(Branch s) {
+        MinesweeperGame copy = MinesweeperGame.fromState(s.game.captureState(), new Random(0));
+        copy.toggleFlag(s.closed / s.game.getCols(), s.closed % s.game.getCols());
+        return copy.getFlagsCount();
+    }
+}
@@ -0,0 +1,69 @@
+package buscaminas;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.prefs.Preferences;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Polls an {@link IAppearanceProvider} on a daemon thread and tells listeners, on the
+ * EDT, when the appearance changes. {@link #isDark()} never blocks: it returns the last
+ * known value, which is also kept in {@link Preferences} so the next launch starts with
+ * the right theme before the first query finishes.
+ */
+final class AppearanceMonitor implements AutoCloseable {
+    private static final String PREF_DARK = "appearance.dark";
+
+    private final IAppearanceProvider provider;
+    private final long pollMillis;
+    private final Preferences prefs;
+    private final List<Consumer<Boolean>> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean dark;
+    private ScheduledExecutorService poller;
+
+    /** {@code prefs} may be null to skip the cache between launches. */
+    AppearanceMonitor(IAppearanceProvider provider, long pollMillis, Preferences prefs) {
+        this.provider = provider;
+        this.pollMillis = pollMillis;
+        this.prefs = prefs;
+        if (!provider.isLive()) dark = provider.queryDark();
+        else if (prefs != null) dark = prefs.getBoolean(PREF_DARK, false);
+    }
+
+    boolean isDark() { return dark; }
+
+    /** {@code listener} receives the new value on the EDT, only when it differs from the previous one. */
+    void addListener(Consumer<Boolean> listener) { listeners.add(listener); }
+
+    /** Queries the provider now and then every {@code pollMillis}, off the calling thread. Idempotent. */
+    synchronized void start() {
+        if (poller != null || !provider.isLive()) return;
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "appearance-monitor");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        poller.scheduleWithFixedDelay(this::poll, 0, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void poll() {
+        boolean now = provider.queryDark();
+        if (now == dark) return;
+        dark = now;
+        if (prefs != null) prefs.putBoolean(PREF_DARK, now);
+        SwingUtilities.invokeLater(() -> {
+            for (Consumer<Boolean> l : listeners) l.accept(now);
+        });
+    }
+
+    @Override
+    public synchronized void close() {
+        if (poller != null) poller.shutdownNow();
+    }
+}
@@ -0,0 +1,50 @@
+package buscaminas;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Built-in {@link IAppearanceProvider}s.
+ */
+public final class AppearanceProviders {
+    private AppearanceProviders() {}
+
+    /** Always the same appearance. */
+    public static IAppearanceProvider fixed(boolean dark) {
+        return new IAppearanceProvider() {
+            @Override public boolean queryDark() { return dark; }
+            @Override public boolean isLive() { return false; }
+        };
+    }
+
+    /** macOS: reads the global {@code AppleInterfaceStyle}, which is "Dark" in dark mode. */
+    public static IAppearanceProvider macDefaults() {
+        return () -> {
+            try {
+                Process p = new ProcessBuilder("defaults", "read", "-g", "AppleInterfaceStyle").redirectErrorStream(true).start();
+                try (InputStream in = p.getInputStream()) {
+                    String out = new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+                    return out.equalsIgnoreCase("Dark");
+                }
+            } catch (IOException | SecurityException e) {
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Provider for this platform: {@code -Dapp.theme=dark|light} forces a fixed theme,
+     * macOS follows the system setting and other platforms stay light.
+     */
+    public static IAppearanceProvider detect() {
+        String force = System.getProperty("app.theme", "");
+        if ("dark".equalsIgnoreCase(force)) return fixed(true);
+        if ("light".equalsIgnoreCase(force)) return fixed(false);
+        String prop = System.getProperty("apple.awt.application.appearance", "");
+        if (prop.toLowerCase(Locale.ROOT).contains("dark")) return fixed(true);
+        boolean mac = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).contains("mac");
+        return mac ? macDefaults() : fixed(false);
+    }
+}
@@ -0,0 +1,77 @@
+package buscaminas;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe counterpart of {@link BitPlane}: the words live in an {@link AtomicLongArray}
+ * and bits are set and cleared with CAS, so concurrent writers never lose each other's bits.
+ * Mutators are package-private.
+ */
+final class AtomicBitPlane implements IBoardPlane {
+    private final int size;
+    private final AtomicLongArray words;
+
+    AtomicBitPlane(int size) {
+        this.size = size;
+        this.words = new AtomicLongArray((size + 63) >>> 6);
+    }
+
+    @Override public int size() { return size; }
+    @Override public boolean get(int index) { return (words.get(index >>> 6) & (1L << index)) != 0; }
+    @Override public int wordCount() { return words.length(); }
+    @Override public long word(int w) { return words.get(w); }
+
+    /** Sets the bit; returns true only for the caller that changed it from 0 to 1. */
+    boolean claim(int index) {
+        int w = index >>> 6;
+        long bit = 1L << index;
+        long old;
+        do {
+            old = words.get(w);
+            if ((old & bit) != 0) return false;
+        } while (!words.compareAndSet(w, old, old | bit));
+        return true;
+    }
+
+    /** Clears the bit; returns true only for the caller that changed it from 1 to 0. */
+    boolean release(int index) {
+        int w = index >>> 6;
+        long bit = 1L << index;
+        long old;
+        do {
+            old = words.get(w);
+            if ((old & bit) == 0) return false;
+        } while (!words.compareAndSet(w, old, old & ~bit));
+        return true;
+    }
+
+    /** Not atomic as a whole; callers must not race it with writers. */
+    void clear() {
+        for (int w = 0; w < words.length(); w++) words.set(w, 0L);
+    }
+
+    void setWords(long[] src) {
+        if (src.length != words.length()) throw new IllegalArgumentException("Tamaño de plano incorrecto");
+        for (int w = 0; w < src.length; w++) words.set(w, src[w]);
+    }
+
+    @Override
+    public int nextSetBit(int from) {
+        if (from < 0) from = 0;
+        int w = from >>> 6;
+        if (w >= words.length()) return -1;
+        long word = words.get(w) & (-1L << from);
+        while (true) {
+            if (word != 0) return (w << 6) + Long.numberOfTrailingZeros(word);
+            if (++w == words.length()) return -1;
+            word = words.get(w);
+        }
+    }
+
+    @Override
+    public int cardinality() {
+        int n = 0;
+        for (int w = 0; w < words.length(); w++) n += Long.bitCount(words.get(w));
+        return n;
+    }
+}
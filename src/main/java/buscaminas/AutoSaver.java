@@ -0,0 +1,84 @@
+package buscaminas;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Saves games to one file from a background thread. {@link #save} only takes an O(1)
+ * {@link MinesweeperGame.Snapshot} and copies the move log on the calling thread; copying
+ * the bit planes, encoding and writing happen on the saver thread. Requests that arrive while a write is in progress are
+ * coalesced, so only the most recent state is written.
+ */
+final class AutoSaver implements AutoCloseable {
+    private static final class Pending {
+        final MinesweeperGame.Snapshot snapshot;
+        final MoveLog log;
+
+        Pending(MinesweeperGame.Snapshot snapshot, MoveLog log) {
+            this.snapshot = snapshot;
+            this.log = log;
+        }
+    }
+
+    // Marca de "borrar el fichero" en la cola de un solo elemento
+    private static final Pending DELETE = new Pending(null, null);
+
+    private final Path file;
+    private final AtomicReference<Pending> pending = new AtomicReference<>();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "autosave");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile IOException lastError;
+
+    AutoSaver(Path file) { this.file = file; }
+
+    Path file() { return file; }
+
+    /** Last write failure, if any; autosave keeps going after errors. */
+    IOException lastError() { return lastError; }
+
+    void save(MinesweeperGame game, MoveLog log) {
+        submit(new Pending(game.snapshot(), log == null ? null : log.copy()));
+    }
+
+    /** Removes the save file (after any pending write), e.g. when the game ends. */
+    void delete() { submit(DELETE); }
+
+    private void submit(Pending p) {
+        if (worker.isShutdown()) return;
+        if (pending.getAndSet(p) == null) worker.execute(this::drain);
+    }
+
+    private void drain() {
+        Pending p = pending.getAndSet(null);
+        if (p == null) return;
+        try {
+            if (p == DELETE) {
+                Files.deleteIfExists(file);
+            } else {
+                SavedGame.writeFile(SavedGame.encode(p.snapshot.toState(), p.log), file);
+            }
+            lastError = null;
+        } catch (IOException e) {
+            lastError = e;
+        }
+    }
+
+    /** Finishes the pending write, waiting at most a few seconds. */
+    @Override
+    public void close() {
+        worker.shutdown();
+        try {
+            worker.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package buscaminas;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Headless entry point that plays many games across all cores, without Swing.
+ * <p>
+ * Game {@code i} of a run uses seed {@code seed + i} for both the board and the
+ * player, and each worker owns its game and strategy instances, so results do not
+ * depend on the thread count.
+ * <pre>
+ * java -cp ... buscaminas.BatchSimulation [--difficulty all|BEGINNER|INTERMEDIATE|EXPERT]
+ *     [--rows R --cols C --mines M] [--games N] [--seed S] [--threads T] [--strategy solver|random]
+ * </pre>
+ */
+public final class BatchSimulation {
+    /** Aggregated outcome of one board configuration. */
+    public static final class Result {
+        public final String label;
+        public final long games;
+        public final long wins;
+        public final long elapsedNanos;
+        public final LatencyHistogram openLatency = new LatencyHistogram();
+        public final LatencyHistogram chordLatency = new LatencyHistogram();
+
+        Result(String label, long games, long wins, long elapsedNanos) {
+            this.label = label;
+            this.games = games;
+            this.wins = wins;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public double winRate() { return games == 0 ? 0 : wins / (double) games; }
+        public double gamesPerSecond() { return games / (elapsedNanos / 1e9); }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%-28s games=%d wins=%.2f%% games/s=%.0f open p50/p99/p99.9=%d/%d/%d ns chord p50/p99/p99.9=%d/%d/%d ns",
+                    label, games, 100 * winRate(), gamesPerSecond(),
+                    openLatency.percentile(0.5), openLatency.percentile(0.99), openLatency.percentile(0.999),
+                    chordLatency.percentile(0.5), chordLatency.percentile(0.99), chordLatency.percentile(0.999));
+        }
+    }
+
+    private BatchSimulation() {}
+
+    public static Result run(String label, int rows, int cols, int mines, long games, long seed,
+                             int threads, Supplier<IPlayerStrategy> strategy) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            long t0 = System.nanoTime();
+            List<Future<long[]>> futures = new ArrayList<>();
+            List<TimedGame> timed = new ArrayList<>();
+            for (int w = 0; w < threads; w++) {
+                int worker = w;
+                TimedGame game = new TimedGame(new MinesweeperGame(rows, cols, mines, new Random(0)));
+                timed.add(game);
+                futures.add(pool.submit(() -> {
+                    IPlayerStrategy player = strategy.get();
+                    MinesweeperGame inner = (MinesweeperGame) game.unwrap();
+                    long wins = 0, played = 0;
+                    for (long i = worker; i < games; i += threads) {
+                        long s = seed + i;
+                        inner.reset(s);
+                        player.play(game, new Random(s));
+                        if (game.isWin()) wins++;
+                        played++;
+                    }
+                    return new long[]{played, wins};
+                }));
+            }
+            long played = 0, wins = 0;
+            for (Future<long[]> f : futures) {
+                long[] r = f.get();
+                played += r[0];
+                wins += r[1];
+            }
+            Result result = new Result(label, played, wins, System.nanoTime() - t0);
+            for (TimedGame g : timed) {
+                result.openLatency.merge(g.openLatency);
+                result.chordLatency.merge(g.chordLatency);
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulación interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Fallo en la simulación", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    public static void main(String[] args) {
+        String difficulty = "all", strategyName = "solver";
+        int rows = -1, cols = -1, mines = -1;
+        long games = 100_000, seed = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : "";
+            switch (args[i]) {
+                case "--difficulty": difficulty = value; i++; break;
+                case "--rows": rows = Integer.parseInt(value); i++; break;
+                case "--cols": cols = Integer.parseInt(value); i++; break;
+                case "--mines": mines = Integer.parseInt(value); i++; break;
+                case "--games": games = Long.parseLong(value); i++; break;
+                case "--seed": seed = Long.parseLong(value); i++; break;
+                case "--threads": threads = Integer.parseInt(value); i++; break;
+                case "--strategy": strategyName = value; i++; break;
+                default: throw new IllegalArgumentException("Argumento desconocido: " + args[i]);
+            }
+        }
+        Supplier<IPlayerStrategy> strategy = PlayerStrategies.byName(strategyName);
+        System.out.printf(Locale.ROOT, "strategy=%s threads=%d games=%d seeds=[%d, %d)%n",
+                strategyName, threads, games, seed, seed + games);
+        if (rows > 0 && cols > 0 && mines >= 0) {
+            System.out.println(run(rows + "x" + cols + "/" + mines, rows, cols, mines, games, seed, threads, strategy));
+            return;
+        }
+        for (Difficulty d : Difficulty.values()) {
+            if (!"all".equalsIgnoreCase(difficulty) && !d.name().equalsIgnoreCase(difficulty)) continue;
+            System.out.println(run(d.name(), d.rows, d.cols, d.mines, games, seed, threads, strategy));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package buscaminas;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size bit set stored as copy-on-write pages of {@code long} words, so its words
+ * can be read directly through {@link IBoardPlane} and {@link #snapshot()} costs O(1).
+ * After a snapshot every page is shared; the first write to a page copies that page
+ * ({@value #PAGE_WORDS} words) and the page table, never the whole plane. Mutators are
+ * package-private and single-threaded.
+ */
+final class BitPlane implements IBoardPlane {
+    static final int PAGE_WORDS = 64;
+    private static final int PAGE_SHIFT = 12; // bits por página: 64 palabras de 64 bits
+
+    private final int size;
+    private final int wordCount;
+    private long[][] pages;
+    // Páginas escritas desde la última instantánea; las demás pueden estar compartidas
+    private final boolean[] owned;
+    // La tabla de páginas la comparte una instantánea: se copia en la próxima escritura
+    private boolean tableShared;
+
+    BitPlane(int size) {
+        this.size = size;
+        this.wordCount = (size + 63) >>> 6;
+        this.pages = new long[(wordCount + PAGE_WORDS - 1) / PAGE_WORDS][];
+        for (int p = 0; p < pages.length; p++) pages[p] = new long[Math.min(PAGE_WORDS, wordCount - p * PAGE_WORDS)];
+        this.owned = new boolean[pages.length];
+        Arrays.fill(owned, true);
+    }
+
+    @Override public int size() { return size; }
+    @Override public boolean get(int index) { return (pages[index >>> PAGE_SHIFT][(index >>> 6) & 63] & (1L << index)) != 0; }
+    @Override public int wordCount() { return wordCount; }
+    @Override public long word(int w) { return pages[w >>> 6][w & 63]; }
+
+    void set(int index) { writable(index >>> PAGE_SHIFT)[(index >>> 6) & 63] |= 1L << index; }
+    void clear(int index) { writable(index >>> PAGE_SHIFT)[(index >>> 6) & 63] &= ~(1L << index); }
+
+    /** Sets the bits {@code from + k} for every bit {@code k} of {@code bits}; they must all be below {@link #size()}. */
+    void orBits(int from, long bits) {
+        int w = from >>> 6, s = from & 63;
+        writable(w >>> 6)[w & 63] |= bits << s;
+        long high = s == 0 ? 0L : bits >>> (64 - s);
+        if (high != 0) writable((w + 1) >>> 6)[(w + 1) & 63] |= high;
+    }
+
+    void clear() {
+        if (tableShared) unshareTable();
+        for (int p = 0; p < pages.length; p++) {
+            if (owned[p]) {
+                Arrays.fill(pages[p], 0L);
+            } else {
+                pages[p] = new long[pages[p].length];
+                owned[p] = true;
+            }
+        }
+    }
+
+    /**
+     * Frozen view of the current contents, to hand back to {@link #restore(long[][])}.
+     * Only marks the pages as shared; the caller must not modify the returned arrays.
+     */
+    long[][] snapshot() {
+        tableShared = true;
+        return pages;
+    }
+
+    /** Makes the plane hold a {@link #snapshot()} of a plane of the same size again; O(1). */
+    void restore(long[][] frozen) {
+        if (frozen.length != pages.length) throw new IllegalArgumentException("Tamaño de plano incorrecto");
+        pages = frozen;
+        tableShared = true;
+    }
+
+    private long[] writable(int p) {
+        if (tableShared) unshareTable();
+        long[] page = pages[p];
+        if (!owned[p]) {
+            page = pages[p] = page.clone();
+            owned[p] = true;
+        }
+        return page;
+    }
+
+    private void unshareTable() {
+        pages = pages.clone();
+        Arrays.fill(owned, false);
+        tableShared = false;
+    }
+
+    long[] copyWords() { return copyWords(pages); }
+
+    /** Words of a {@link #snapshot()}; may run on any thread, since a snapshot is never written again. */
+    static long[] copyWords(long[][] frozen) {
+        int wordCount = 0;
+        for (long[] page : frozen) wordCount += page.length;
+        long[] words = new long[wordCount];
+        for (int p = 0; p < frozen.length; p++) System.arraycopy(frozen[p], 0, words, p * PAGE_WORDS, frozen[p].length);
+        return words;
+    }
+
+    /** Replaces the contents; bits past {@link #size()} must be clear. */
+    void setWords(long[] src) {
+        if (src.length != wordCount) throw new IllegalArgumentException("Tamaño de plano incorrecto");
+        if ((size & 63) != 0 && src.length > 0 && (src[src.length - 1] & (-1L << size)) != 0) {
+            throw new IllegalArgumentException("Bits fuera del plano");
+        }
+        for (int p = 0; p < pages.length; p++) {
+            long[] page = writable(p);
+            System.arraycopy(src, p * PAGE_WORDS, page, 0, page.length);
+        }
+    }
+
+    @Override
+    public int nextSetBit(int from) {
+        if (from < 0) from = 0;
+        int w = from >>> 6;
+        if (w >= wordCount) return -1;
+        long word = word(w) & (-1L << from);
+        while (true) {
+            if (word != 0) return (w << 6) + Long.numberOfTrailingZeros(word);
+            if (++w == wordCount) return -1;
+            word = word(w);
+        }
+    }
+
+    @Override
+    public int cardinality() {
+        int n = 0;
+        for (long[] page : pages) {
+            for (long word : page) n += Long.bitCount(word);
+        }
+        return n;
+    }
+}
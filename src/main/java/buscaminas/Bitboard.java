@@ -0,0 +1,280 @@
+package buscaminas;
+
+import java.util.Arrays;
+
+/**
+ * Bit-parallel helper for {@link MinesweeperGame}: keeps the board as rows of {@code long}
+ * words ({@code (cols + 63) / 64} words per row, bit = column within the word), so every
+ * operation below handles 64 cells per word operation.
+ * <ul>
+ * <li>{@link #loadMines} computes the mine count of every cell at once: the eight shifted
+ *     neighbour planes are summed with bit-sliced adders into a 4-bit count per cell, which
+ *     is written out and not kept; only the mask of zero cells stays.</li>
+ * <li>{@link #reveal} expands a zero region by dilating the newly opened zero cells, masked
+ *     by the cells that may still open, until nothing changes. Each row is saturated
+ *     horizontally in one pass, and only rows next to a changed row are revisited.</li>
+ * </ul>
+ * The reveal state is allocated by the first {@link #reveal}, so a game whose floods stay
+ * small only pays for the zero mask.
+ */
+final class Bitboard {
+    private final int rows;
+    private final int cols;
+    private final int wordsPerRow;
+    private final long lastWordMask;
+
+    // Celdas con recuento 0 que no son mina
+    private final long[] zero;
+    // Ventana de tres filas de minas de loadMines: la anterior, la actual y la siguiente
+    private long[] above, here, below;
+
+    // Estado de reveal(), creado en la primera: celdas abiertas en esta acción y celdas que aún pueden abrirse, por fila
+    private long[] newly;
+    private long[] allowed;
+    private int[] rowEpoch;
+    private int epoch;
+    private boolean[] dirty;
+    private int[] rowQueue;
+    private int[] batch;
+
+    Bitboard(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.wordsPerRow = (cols + 63) >>> 6;
+        this.lastWordMask = (cols & 63) == 0 ? -1L : (1L << cols) - 1;
+        this.zero = new long[rows * wordsPerRow];
+        this.above = new long[wordsPerRow];
+        this.here = new long[wordsPerRow];
+        this.below = new long[wordsPerRow];
+    }
+
+    private long validMask(int w) { return w == wordsPerRow - 1 ? lastWordMask : -1L; }
+
+    // 64 bits del plano contiguo a partir del bit 'from' (los que pasan del final valen 0)
+    private static long bitsAt(IBoardPlane plane, long from) {
+        int w = (int) (from >>> 6), s = (int) (from & 63);
+        if (w >= plane.wordCount()) return 0L;
+        long lo = plane.word(w) >>> s;
+        if (s != 0 && w + 1 < plane.wordCount()) lo |= plane.word(w + 1) << (64 - s);
+        return lo;
+    }
+
+    // Palabra w de la fila r del plano contiguo, recortada a las columnas válidas
+    private long rowWord(IBoardPlane plane, int r, int w) {
+        return bitsAt(plane, (long) r * cols + ((long) w << 6)) & validMask(w);
+    }
+
+    /**
+     * Recomputes the zero-cell mask from {@code mines} (row-major, as in {@link IBoardPlane})
+     * and, if {@code counts} is not null, writes every cell's neighbour count into it; cells
+     * with no neighbouring mine are left untouched.
+     */
+    void loadMines(IBoardPlane mines, byte[] counts) {
+        Arrays.fill(above, 0L);
+        for (int w = 0; w < wordsPerRow; w++) here[w] = rowWord(mines, 0, w);
+        for (int r = 0; r < rows; r++) {
+            for (int w = 0; w < wordsPerRow; w++) below[w] = r + 1 < rows ? rowWord(mines, r + 1, w) : 0L;
+            for (int w = 0; w < wordsPerRow; w++) {
+                // Contador de 4 bits por celda; cada vecino se suma con un semisumador en cadena
+                long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+                for (int k = 0; k < 8; k++) {
+                    long[] row = k < 3 ? above : k < 5 ? here : below;
+                    int dc = k < 3 ? k - 1 : k < 5 ? (k - 3) * 2 - 1 : k - 6;
+                    long a = shifted(row, w, dc);
+                    long c0 = s0 & a;
+                    s0 ^= a;
+                    long c1 = s1 & c0;
+                    s1 ^= c0;
+                    long c2 = s2 & c1;
+                    s2 ^= c1;
+                    s3 |= c2;
+                }
+                long valid = validMask(w);
+                long any = (s0 | s1 | s2 | s3) & valid;
+                zero[r * wordsPerRow + w] = ~any & ~here[w] & valid;
+                if (counts == null) continue;
+                int base = r * cols + (w << 6);
+                while (any != 0) {
+                    int k = Long.numberOfTrailingZeros(any);
+                    any &= any - 1;
+                    counts[base + k] = (byte) ((s0 >>> k & 1) | (s1 >>> k & 1) << 1 | (s2 >>> k & 1) << 2 | (s3 >>> k & 1) << 3);
+                }
+            }
+            long[] t = above;
+            above = here;
+            here = below;
+            below = t;
+        }
+    }
+
+    // Bit c = mina en la columna c + dc de la fila (dc entre -1 y 1)
+    private long shifted(long[] row, int w, int dc) {
+        long x = row[w];
+        if (dc < 0) return (x << 1) | (w > 0 ? row[w - 1] >>> 63 : 0L);
+        if (dc > 0) return (x >>> 1) | (w + 1 < wordsPerRow ? row[w + 1] << 63 : 0L);
+        return x;
+    }
+
+    /**
+     * Continues a zero-region reveal. {@code cells[from..to)} are the cells this action has
+     * opened so far (already set in {@code opened}). Every further cell reachable through
+     * newly opened zero cells that is not opened, flagged or a mine is set in
+     * {@code opened} and passed to {@code out}, in row order. Returns how many there were.
+     */
+    int reveal(int[] cells, int from, int to, BitPlane opened, IBoardPlane flagged, IBoardPlane mines, IOpenedCellsSink out) {
+        if (newly == null) {
+            newly = new long[zero.length];
+            allowed = new long[zero.length];
+            rowEpoch = new int[rows];
+            dirty = new boolean[rows];
+            rowQueue = new int[rows];
+            batch = new int[1024];
+        }
+        if (++epoch == 0) {
+            Arrays.fill(rowEpoch, 0);
+            epoch = 1;
+        }
+        int tail = 0, head = 0;
+        for (int k = from; k < to; k++) {
+            int r = cells[k] / cols, c = cells[k] % cols;
+            touch(r, opened, flagged, mines);
+            newly[r * wordsPerRow + (c >>> 6)] |= 1L << c;
+        }
+        for (int k = from; k < to; k++) {
+            int r = cells[k] / cols;
+            for (int nr = Math.max(0, r - 1); nr <= Math.min(rows - 1, r + 1); nr++) tail = enqueue(nr, tail);
+        }
+
+        while (head < tail) {
+            int r = rowQueue[head++ % rows];
+            dirty[r] = false;
+            int lo = Math.max(0, r - 1), hi = Math.min(rows - 1, r + 1);
+            for (int nr = lo; nr <= hi; nr++) touch(nr, opened, flagged, mines);
+            if (growFromNeighbours(r, lo, hi) | saturateRow(r * wordsPerRow)) {
+                if (r > 0) tail = enqueue(r - 1, tail);
+                if (r + 1 < rows) tail = enqueue(r + 1, tail);
+            }
+        }
+
+        // Emite las celdas nuevas: las de 'newly' que aún no están en 'opened'
+        int batchCount = 0, total = 0;
+        for (int r = 0; r < rows; r++) {
+            if (rowEpoch[r] != epoch) continue;
+            int base = r * wordsPerRow;
+            for (int w = 0; w < wordsPerRow; w++) {
+                long fresh = newly[base + w] & ~rowWord(opened, r, w);
+                if (fresh == 0) continue;
+                int cellBase = r * cols + (w << 6);
+                opened.orBits(cellBase, fresh);
+                while (fresh != 0) {
+                    int i = cellBase + Long.numberOfTrailingZeros(fresh);
+                    fresh &= fresh - 1;
+                    batch[batchCount++] = i;
+                    if (batchCount == batch.length) {
+                        out.accept(batch, 0, batchCount);
+                        total += batchCount;
+                        batchCount = 0;
+                    }
+                }
+            }
+        }
+        if (batchCount > 0) out.accept(batch, 0, batchCount);
+        return total + batchCount;
+    }
+
+    private int enqueue(int r, int tail) {
+        if (dirty[r]) return tail;
+        dirty[r] = true;
+        rowQueue[tail % rows] = r;
+        return tail + 1;
+    }
+
+    // Primera visita de la fila en esta apertura: celdas que aún pueden abrirse y ninguna nueva
+    private void touch(int r, IBoardPlane opened, IBoardPlane flagged, IBoardPlane mines) {
+        if (rowEpoch[r] == epoch) return;
+        rowEpoch[r] = epoch;
+        int base = r * wordsPerRow;
+        for (int w = 0; w < wordsPerRow; w++) {
+            allowed[base + w] = ~rowWord(opened, r, w) & ~rowWord(flagged, r, w) & ~rowWord(mines, r, w) & validMask(w);
+            newly[base + w] = 0;
+        }
+    }
+
+    // Dilata las celdas cero nuevas de las filas lo..hi sobre la fila r
+    private boolean growFromNeighbours(int r, int lo, int hi) {
+        int base = r * wordsPerRow;
+        boolean changed = false;
+        long src = sources(lo, hi, 0), prevTop = 0;
+        for (int w = 0; w < wordsPerRow; w++) {
+            long next = w + 1 < wordsPerRow ? sources(lo, hi, w + 1) : 0L;
+            long grow = (src | (src << 1) | prevTop | (src >>> 1) | (next << 63)) & allowed[base + w];
+            if (grow != 0) {
+                newly[base + w] |= grow;
+                allowed[base + w] &= ~grow;
+                changed = true;
+            }
+            prevTop = src >>> 63;
+            src = next;
+        }
+        return changed;
+    }
+
+    private long sources(int lo, int hi, int w) {
+        long src = 0;
+        for (int nr = lo; nr <= hi; nr++) {
+            int i = nr * wordsPerRow + w;
+            src |= newly[i] & zero[i];
+        }
+        return src;
+    }
+
+    /**
+     * Fills the row horizontally through its zero cells: one Kogge-Stone occluded fill per word
+     * towards higher columns and one towards lower columns, carrying across words. In one
+     * dimension one pass per direction reaches the fixed point.
+     */
+    private boolean saturateRow(int base) {
+        boolean changed = false;
+        long carry = 0;
+        for (int w = 0; w < wordsPerRow; w++) {
+            int i = base + w;
+            long a = allowed[i], z = zero[i];
+            long entered = carry & a;
+            long gen = (newly[i] | entered) & z, pro = a & z;
+            gen |= pro & (gen << 1); pro &= pro << 1;
+            gen |= pro & (gen << 2); pro &= pro << 2;
+            gen |= pro & (gen << 4); pro &= pro << 4;
+            gen |= pro & (gen << 8); pro &= pro << 8;
+            gen |= pro & (gen << 16); pro &= pro << 16;
+            gen |= pro & (gen << 32);
+            long grow = (gen | (gen << 1) | entered) & a;
+            if (grow != 0) {
+                newly[i] |= grow;
+                allowed[i] &= ~grow;
+                changed = true;
+            }
+            carry = gen >>> 63;
+        }
+        carry = 0;
+        for (int w = wordsPerRow - 1; w >= 0; w--) {
+            int i = base + w;
+            long a = allowed[i], z = zero[i];
+            long entered = carry & a;
+            long gen = (newly[i] | entered) & z, pro = a & z;
+            gen |= pro & (gen >>> 1); pro &= pro >>> 1;
+            gen |= pro & (gen >>> 2); pro &= pro >>> 2;
+            gen |= pro & (gen >>> 4); pro &= pro >>> 4;
+            gen |= pro & (gen >>> 8); pro &= pro >>> 8;
+            gen |= pro & (gen >>> 16); pro &= pro >>> 16;
+            gen |= pro & (gen >>> 32);
+            long grow = (gen | (gen >>> 1) | entered) & a;
+            if (grow != 0) {
+                newly[i] |= grow;
+                allowed[i] &= ~grow;
+                changed = true;
+            }
+            carry = (gen & 1L) << 63;
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,72 @@
+package buscaminas;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size array of small counters stored as copy-on-write pages, with the same
+ * sharing rules as {@link BitPlane}: {@link #snapshot()} costs O(1) and the first write
+ * to a page after it copies that page ({@value #PAGE_BYTES} bytes) and the page table,
+ * never the whole array. Single-threaded.
+ */
+final class BytePlane {
+    static final int PAGE_BYTES = 1 << 12;
+    private static final int PAGE_SHIFT = 12;
+
+    private byte[][] pages;
+    // Páginas escritas desde la última instantánea; las demás pueden estar compartidas
+    private final boolean[] owned;
+    // La tabla de páginas la comparte una instantánea: se copia en la próxima escritura
+    private boolean tableShared;
+
+    BytePlane(int size) {
+        this.pages = new byte[(size + PAGE_BYTES - 1) >>> PAGE_SHIFT][];
+        for (int p = 0; p < pages.length; p++) pages[p] = new byte[Math.min(PAGE_BYTES, size - (p << PAGE_SHIFT))];
+        this.owned = new boolean[pages.length];
+        Arrays.fill(owned, true);
+    }
+
+    int get(int index) { return pages[index >>> PAGE_SHIFT][index & (PAGE_BYTES - 1)]; }
+
+    void add(int index, int delta) { writable(index >>> PAGE_SHIFT)[index & (PAGE_BYTES - 1)] += delta; }
+
+    void clear() {
+        if (tableShared) unshareTable();
+        for (int p = 0; p < pages.length; p++) {
+            if (owned[p]) {
+                Arrays.fill(pages[p], (byte) 0);
+            } else {
+                pages[p] = new byte[pages[p].length];
+                owned[p] = true;
+            }
+        }
+    }
+
+    /** Frozen view of the current contents, for {@link #restore(byte[][])}; the caller must not modify it. */
+    byte[][] snapshot() {
+        tableShared = true;
+        return pages;
+    }
+
+    /** Makes the plane hold a {@link #snapshot()} of a plane of the same size again; O(1). */
+    void restore(byte[][] frozen) {
+        if (frozen.length != pages.length) throw new IllegalArgumentException("Tamaño de plano incorrecto");
+        pages = frozen;
+        tableShared = true;
+    }
+
+    private byte[] writable(int p) {
+        if (tableShared) unshareTable();
+        byte[] page = pages[p];
+        if (!owned[p]) {
+            page = pages[p] = page.clone();
+            owned[p] = true;
+        }
+        return page;
+    }
+
+    private void unshareTable() {
+        pages = pages.clone();
+        Arrays.fill(owned, false);
+        tableShared = false;
+    }
+}
@@ -0,0 +1,147 @@
+package buscaminas;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Polygon;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pre-rendered cell images for {@link MinesweeperBoardPanel}. Each cell size (and device
+ * scale) gets one atlas image holding every tile side by side, built on first use; painting
+ * a cell is then a single image blit. An instance belongs to one colour theme: the panel
+ * replaces it when the theme changes.
+ */
+final class CellTiles {
+    static final int CLOSED = 0;
+    static final int FLAG = 1;
+    static final int MINE = 2;
+    static final int EXPLODED = 3;
+    /** Opened cell with {@code n} adjacent mines is tile {@code OPEN + n}. */
+    static final int OPEN = 4;
+    private static final int COUNT = OPEN + 9;
+
+    // Tamaños de celda distintos que se conservan (al arrastrar el borde de la ventana pasan muchos)
+    private static final int MAX_ATLASES = 8;
+
+    private static final Color FLAG_POLE = new Color(80, 80, 80);
+    private static final Color FLAG_CLOTH = new Color(200, 30, 30);
+
+    private final Color cellBg, cellOpen, exploded, mineReveal;
+    private final Color[] numColors;
+    private final Font numberFont;
+    private final Map<Long, BufferedImage> atlases = new HashMap<>();
+
+    CellTiles(Color cellBg, Color cellOpen, Color exploded, Color mineReveal, Color[] numColors, Font numberFont) {
+        this.cellBg = cellBg;
+        this.cellOpen = cellOpen;
+        this.exploded = exploded;
+        this.mineReveal = mineReveal;
+        this.numColors = numColors.clone();
+        this.numberFont = numberFont;
+    }
+
+    /** Draws {@code tile} into the {@code w} x {@code h} cell at ({@code x}, {@code y}). */
+    void draw(Graphics2D g2, int tile, int x, int y, int w, int h) {
+        if (w <= 0 || h <= 0) return;
+        AffineTransform tx = g2.getTransform();
+        int pw = (int) Math.ceil(w * tx.getScaleX());
+        int ph = (int) Math.ceil(h * tx.getScaleY());
+        if (pw <= 0 || ph <= 0) return;
+        BufferedImage atlas = atlas(w, h, pw, ph);
+        g2.drawImage(atlas, x, y, x + w, y + h, tile * pw, 0, (tile + 1) * pw, ph, null);
+    }
+
+    private BufferedImage atlas(int w, int h, int pw, int ph) {
+        long key = ((long) w << 48) | ((long) h << 32) | ((long) pw << 16) | ph;
+        BufferedImage atlas = atlases.get(key);
+        if (atlas == null) {
+            if (atlases.size() >= MAX_ATLASES) atlases.clear();
+            atlas = render(w, h, pw, ph);
+            atlases.put(key, atlas);
+        }
+        return atlas;
+    }
+
+    private BufferedImage render(int w, int h, int pw, int ph) {
+        BufferedImage img = new BufferedImage(pw * COUNT, ph, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = img.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        float fontSize = Math.max(10f, Math.min(w, h) * 0.5f);
+        Font font = numberFont.deriveFont(Font.BOLD, fontSize);
+        for (int t = 0; t < COUNT; t++) {
+            Graphics2D tg = (Graphics2D) g2.create(t * pw, 0, pw, ph);
+            tg.scale(pw / (double) w, ph / (double) h);
+            paintTile(tg, t, w, h, font);
+            tg.dispose();
+        }
+        g2.dispose();
+        return img;
+    }
+
+    private void paintTile(Graphics2D g2, int tile, int w, int h, Font font) {
+        int size = Math.min(w, h);
+        int ix = (w - size) / 2;
+        int iy = (h - size) / 2;
+        switch (tile) {
+            case CLOSED:
+            case FLAG:
+                g2.setColor(cellBg);
+                g2.fillRect(0, 0, w, h);
+                if (tile == FLAG) paintFlag(g2, ix, iy, size);
+                break;
+            case MINE:
+            case EXPLODED:
+                g2.setColor(tile == EXPLODED ? exploded : mineReveal);
+                g2.fillRect(0, 0, w, h);
+                paintBomb(g2, ix, iy, size);
+                break;
+            default:
+                g2.setColor(cellOpen);
+                g2.fillRect(0, 0, w, h);
+                int adj = tile - OPEN;
+                if (adj > 0) {
+                    g2.setFont(font);
+                    g2.setColor(numColors[adj]);
+                    String s = Integer.toString(adj);
+                    FontMetrics fm = g2.getFontMetrics();
+                    int tx = (w - fm.stringWidth(s)) / 2;
+                    int ty = (h + fm.getAscent() - fm.getDescent()) / 2;
+                    g2.drawString(s, tx, ty);
+                }
+        }
+    }
+
+    private static void paintFlag(Graphics2D g2, int x, int y, int size) {
+        int poleX = x + size/5;
+        g2.setColor(FLAG_POLE);
+        g2.fillRect(poleX, y + size/6, Math.max(2, size/12), size - size/6 - 2);
+        int flagW = (int)(size * 0.6);
+        int flagH = (int)(size * 0.4);
+        int fx = poleX + Math.max(2, size/12);
+        int fy = y + size/6;
+        Polygon p = new Polygon();
+        p.addPoint(fx, fy);
+        p.addPoint(fx + flagW, fy + flagH/2);
+        p.addPoint(fx, fy + flagH);
+        g2.setColor(FLAG_CLOTH);
+        g2.fillPolygon(p);
+    }
+
+    private static void paintBomb(Graphics2D g2, int x, int y, int size) {
+        int d = size - 6;
+        int cx = x + (size - d)/2;
+        int cy = y + (size - d)/2;
+        g2.setColor(Color.BLACK);
+        g2.fillOval(cx, cy, d, d);
+        g2.setStroke(new BasicStroke(Math.max(2f, d/12f)));
+        g2.drawLine(cx + d/2, cy, cx + d, cy - d/3);
+    }
+}
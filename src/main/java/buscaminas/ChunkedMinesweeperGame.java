@@ -0,0 +1,615 @@
+package buscaminas;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Sparse {@link IMinesweeperGame} for very large custom boards.
+ * The grid is split into 64x64 chunks that are allocated on first touch, and cell
+ * positions are handled as 64-bit indices, so {@code rows * cols} may exceed
+ * {@code Integer.MAX_VALUE}. The mine layout is derived per chunk from the board
+ * seed: the number of mines in a chunk comes from a deterministic recursive split
+ * of the total, and the chunk's mines are only generated when it is first read.
+ * Only opening or flagging allocates a chunk: reads of an untouched chunk (the painter,
+ * a solver, plane scans) regenerate its mines into a reused scratch array, and plane
+ * scans skip chunks that were never created.
+ */
+public class ChunkedMinesweeperGame implements ISeededGame {
+    private static final int CHUNK_SHIFT = 6;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int SINK_BATCH = 1024;
+    // Por debajo de este número de minas el reparto entre mitades es exacto (hipergeométrico)
+    private static final long EXACT_SPLIT_LIMIT = 256;
+
+    private static final class Chunk {
+        // Una palabra por fila del chunk; bit = columna local
+        final long[] mines = new long[CHUNK_SIZE];
+        final long[] opened = new long[CHUNK_SIZE];
+        final long[] flagged = new long[CHUNK_SIZE];
+        boolean minesGenerated;
+    }
+
+    private final int rows;
+    private final int cols;
+    private final int totalMines;
+    private final long totalCells;
+    private final int chunkRows;
+    private final int chunkCols;
+    private final Random random;
+
+    private final Map<Long, Chunk> chunks = new HashMap<>();
+    // Último chunk buscado; lastChunk es null si no existe (las lecturas no lo crean)
+    private long lastChunkId = -1;
+    private Chunk lastChunk;
+    // Minas de chunks sin reservar, regeneradas al leerlas: una entrada por columna de chunks,
+    // para que recorrer el tablero por filas no regenere cada chunk 64 veces
+    private long[][] probeMines;
+    private int[] probeChunkRow;
+
+    private boolean minesPlaced = false;
+    private long boardSeed;
+    private boolean boardSeedPinned = false;
+    // Rectángulo sin minas alrededor del primer clic
+    private int safeR0, safeR1, safeC0, safeC1;
+    private long openedSafeCells = 0;
+    private int flagsCount = 0;
+
+    // Estado de la apertura en curso
+    private long[] queue = new long[256];
+    private IOpenedCellsSink sink;
+    private ILongOpenedCellsSink longSink;
+    private List<MinesweeperGame.Cell> collected;
+    private int[] batch;
+    private long[] longBatch;
+    private int batchSize;
+    private boolean exploded;
+    // Los oyentes reciben los mismos lotes que el sink, seguidos del resumen de la acción
+    private final GameChangeSupport changes = new GameChangeSupport();
+    private boolean notifying;
+    private long actionOpened;
+
+    public ChunkedMinesweeperGame(int rows, int cols, int totalMines) { this(rows, cols, totalMines, new Random()); }
+
+    public ChunkedMinesweeperGame(int rows, int cols, int totalMines, long seed) { this(rows, cols, totalMines, new Random(seed)); }
+
+    public ChunkedMinesweeperGame(int rows, int cols, int totalMines, Random random) {
+        if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("Dimensiones inválidas");
+        long cells = (long) rows * cols;
+        if (totalMines < 0 || totalMines >= cells) throw new IllegalArgumentException("Número de minas inválido");
+        this.rows = rows;
+        this.cols = cols;
+        this.totalMines = totalMines;
+        this.totalCells = cells;
+        this.chunkRows = (rows + CHUNK_MASK) >>> CHUNK_SHIFT;
+        this.chunkCols = (cols + CHUNK_MASK) >>> CHUNK_SHIFT;
+        this.random = Objects.requireNonNull(random);
+    }
+
+    @Override
+    public void reset() {
+        chunks.clear();
+        lastChunkId = -1;
+        lastChunk = null;
+        probeMines = null;
+        minesPlaced = false;
+        boardSeedPinned = false;
+        openedSafeCells = 0;
+        flagsCount = 0;
+        if (changes.isActive()) changes.fire(GameChange.reset());
+    }
+
+    /** Reinicia la partida y fija la semilla del próximo tablero para reproducirlo. */
+    @Override
+    public void reset(long boardSeed) {
+        reset();
+        this.boardSeed = boardSeed;
+        this.boardSeedPinned = true;
+    }
+
+    @Override public long getBoardSeed() { return boardSeed; }
+    @Override public boolean areMinesPlaced() { return minesPlaced; }
+    public long getTotalCells() { return totalCells; }
+
+    /** Número de chunks reservados hasta ahora. */
+    int allocatedChunks() { return chunks.size(); }
+
+    @Override public int getRows() { return rows; }
+    @Override public int getCols() { return cols; }
+    @Override public int getTotalMines() { return totalMines; }
+
+    private boolean inBounds(int r, int c) { return r >= 0 && r < rows && c >= 0 && c < cols; }
+
+    // ---- chunks ----
+
+    private long chunkId(int r, int c) { return (long) (r >>> CHUNK_SHIFT) * chunkCols + (c >>> CHUNK_SHIFT); }
+
+    private Chunk chunk(int r, int c, boolean create) {
+        long id = chunkId(r, c);
+        if (id == lastChunkId && (lastChunk != null || !create)) return lastChunk;
+        Chunk ch = chunks.get(id);
+        if (ch == null && create) {
+            ch = new Chunk();
+            chunks.put(id, ch);
+        }
+        lastChunkId = id;
+        lastChunk = ch;
+        return ch;
+    }
+
+    // Palabras de minas del chunk de (r, c), sin reservarlo si nadie lo ha escrito; requiere minesPlaced
+    private long[] mineWords(int r, int c) {
+        int cr = r >>> CHUNK_SHIFT, cc = c >>> CHUNK_SHIFT;
+        Chunk ch = chunk(r, c, false);
+        if (ch != null) {
+            if (!ch.minesGenerated) {
+                generateMines(ch.mines, cr, cc);
+                ch.minesGenerated = true;
+            }
+            return ch.mines;
+        }
+        if (probeMines == null) {
+            probeMines = new long[chunkCols][];
+            probeChunkRow = new int[chunkCols];
+        }
+        long[] words = probeMines[cc];
+        if (words == null) {
+            words = probeMines[cc] = new long[CHUNK_SIZE];
+        } else if (probeChunkRow[cc] == cr) {
+            return words;
+        } else {
+            Arrays.fill(words, 0L);
+        }
+        generateMines(words, cr, cc);
+        probeChunkRow[cc] = cr;
+        return words;
+    }
+
+    private static long bit(int c) { return 1L << (c & CHUNK_MASK); }
+
+    // ---- generación de minas ----
+
+    private void placeMinesAvoiding(int safeR, int safeC) {
+        if (!boardSeedPinned) boardSeed = random.nextLong();
+        boardSeedPinned = false;
+        int r0 = Math.max(0, safeR - 1), r1 = Math.min(rows - 1, safeR + 1);
+        int c0 = Math.max(0, safeC - 1), c1 = Math.min(cols - 1, safeC + 1);
+        long halo = (long) (r1 - r0 + 1) * (c1 - c0 + 1);
+        if (totalMines > totalCells - halo) {
+            r0 = r1 = safeR;
+            c0 = c1 = safeC;
+        }
+        safeR0 = r0; safeR1 = r1; safeC0 = c0; safeC1 = c1;
+        probeMines = null;
+        minesPlaced = true;
+    }
+
+    // Celdas de los chunks [0, p) en orden de chunk por filas
+    private long cellsBefore(long p) {
+        long q = p / chunkCols, rem = p % chunkCols;
+        long fullRows = Math.min(q << CHUNK_SHIFT, rows);
+        long h = q < chunkRows ? Math.min(CHUNK_SIZE, rows - (q << CHUNK_SHIFT)) : 0;
+        return fullRows * cols + h * Math.min(rem << CHUNK_SHIFT, cols);
+    }
+
+    private long safeCellsIn(long lo, long hi) {
+        long n = 0;
+        for (int r = safeR0; r <= safeR1; r++) {
+            for (int c = safeC0; c <= safeC1; c++) {
+                long id = chunkId(r, c);
+                if (id >= lo && id < hi) n++;
+            }
+        }
+        return n;
+    }
+
+    private long capacity(long lo, long hi) { return cellsBefore(hi) - cellsBefore(lo) - safeCellsIn(lo, hi); }
+
+    /**
+     * Minas del chunk {@code id}: se baja por la bisección del rango de chunks
+     * repartiendo en cada nodo las minas del padre entre sus dos mitades.
+     * Cada reparto depende solo de la semilla y del nodo, así que es estable.
+     */
+    private int minesInChunk(long id) {
+        long lo = 0, hi = (long) chunkRows * chunkCols;
+        long m = totalMines;
+        long cap = capacity(lo, hi);
+        while (hi - lo > 1) {
+            long mid = (lo + hi) >>> 1;
+            long capL = capacity(lo, mid);
+            long left = splitMines(m, capL, cap - capL, mix(lo, hi));
+            if (id < mid) {
+                hi = mid; m = left; cap = capL;
+            } else {
+                lo = mid; m -= left; cap -= capL;
+            }
+        }
+        return (int) m;
+    }
+
+    private static long splitMines(long m, long capL, long capR, long seed) {
+        if (m == 0 || capL == 0) return 0;
+        if (capR == 0) return m;
+        SplittableRandom rnd = new SplittableRandom(seed);
+        long n = capL + capR;
+        long left;
+        if (m <= EXACT_SPLIT_LIMIT) {
+            left = 0;
+            for (long i = 0; i < m; i++) {
+                if (rnd.nextLong(n - i) < capL - left) left++;
+            }
+        } else {
+            // Aproximación normal de la hipergeométrica para repartos grandes
+            double p = capL / (double) n;
+            double var = m * p * (1 - p) * (n - m) / (double) (n - 1);
+            left = Math.round(m * p + Math.sqrt(var) * rnd.nextGaussian());
+        }
+        return Math.max(Math.max(0, m - capR), Math.min(Math.min(m, capL), left));
+    }
+
+    private long mix(long a, long b) {
+        long z = boardSeed ^ (a * 0x9e3779b97f4a7c15L) ^ (b * 0xc2b2ae3d27d4eb4fL);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private void generateMines(long[] mines, int cr, int cc) {
+        long id = (long) cr * chunkCols + cc;
+        int baseR = cr << CHUNK_SHIFT, baseC = cc << CHUNK_SHIFT;
+        int h = Math.min(CHUNK_SIZE, rows - baseR), w = Math.min(CHUNK_SIZE, cols - baseC);
+
+        int[] excluded = new int[9];
+        int nExcluded = 0;
+        for (int r = safeR0; r <= safeR1; r++) {
+            for (int c = safeC0; c <= safeC1; c++) {
+                if (chunkId(r, c) == id) excluded[nExcluded++] = (r - baseR) * w + (c - baseC);
+            }
+        }
+
+        // Floyd sobre las celdas locales libres, igual que MinesweeperGame
+        int count = minesInChunk(id);
+        int free = h * w - nExcluded;
+        SplittableRandom rnd = new SplittableRandom(mix(id, -1));
+        for (int j = free - count; j < free; j++) {
+            int k = freeCellAt(rnd.nextInt(j + 1), excluded, nExcluded);
+            if ((mines[k / w] & (1L << (k % w))) != 0) k = freeCellAt(j, excluded, nExcluded);
+            mines[k / w] |= 1L << (k % w);
+        }
+    }
+
+    private static int freeCellAt(int k, int[] excluded, int n) {
+        for (int e = 0; e < n && excluded[e] <= k; e++) k++;
+        return k;
+    }
+
+    // ---- consultas ----
+
+    @Override
+    public boolean isMine(int r, int c) {
+        if (!minesPlaced) return false;
+        return (mineWords(r, c)[r & CHUNK_MASK] & bit(c)) != 0;
+    }
+
+    @Override
+    public boolean isOpened(int r, int c) {
+        Chunk ch = chunk(r, c, false);
+        return ch != null && (ch.opened[r & CHUNK_MASK] & bit(c)) != 0;
+    }
+
+    @Override
+    public boolean isFlagged(int r, int c) {
+        Chunk ch = chunk(r, c, false);
+        return ch != null && (ch.flagged[r & CHUNK_MASK] & bit(c)) != 0;
+    }
+
+    @Override
+    public int countAdjacentMines(int r, int c) {
+        if (!minesPlaced) return 0;
+        int count = 0;
+        int r0 = Math.max(0, r - 1), r1 = Math.min(rows - 1, r + 1);
+        int c0 = Math.max(0, c - 1), c1 = Math.min(cols - 1, c + 1);
+        for (int nr = r0; nr <= r1; nr++) {
+            for (int nc = c0; nc <= c1; nc++) {
+                if ((nr != r || nc != c) && isMine(nr, nc)) count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int countAdjacentFlags(int r, int c) {
+        int count = 0;
+        int r0 = Math.max(0, r - 1), r1 = Math.min(rows - 1, r + 1);
+        int c0 = Math.max(0, c - 1), c1 = Math.min(cols - 1, c + 1);
+        for (int nr = r0; nr <= r1; nr++) {
+            for (int nc = c0; nc <= c1; nc++) {
+                if ((nr != r || nc != c) && isFlagged(nr, nc)) count++;
+            }
+        }
+        return count;
+    }
+
+    @Override public int getFlagsCount() { return flagsCount; }
+
+    @Override
+    public void toggleFlag(int r, int c) {
+        if (!inBounds(r, c) || isOpened(r, c)) return;
+        Chunk ch = chunk(r, c, true);
+        ch.flagged[r & CHUNK_MASK] ^= bit(c);
+        boolean nowFlagged = (ch.flagged[r & CHUNK_MASK] & bit(c)) != 0;
+        flagsCount += nowFlagged ? 1 : -1;
+        if (changes.isActive()) changes.fire(GameChange.flag(r, c, nowFlagged, flagsCount));
+    }
+
+    @Override public void addChangeListener(IGameChangeListener listener) { changes.add(listener); }
+    @Override public void removeChangeListener(IGameChangeListener listener) { changes.remove(listener); }
+
+    @Override public boolean isWin() { return openedSafeCells >= totalCells - totalMines; }
+
+    // ---- vistas ----
+
+    @Override public IBoardPlane minesPlane() { return new PlaneView(0); }
+    @Override public IBoardPlane openedPlane() { return new PlaneView(1); }
+    @Override public IBoardPlane flaggedPlane() { return new PlaneView(2); }
+
+    @Override public boolean[][] getMines() { return copyPlane(minesPlane()); }
+    @Override public boolean[][] getOpened() { return copyPlane(openedPlane()); }
+
+    private boolean[][] copyPlane(IBoardPlane plane) {
+        boolean[][] copy = new boolean[rows][cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) copy[r][c] = plane.get(r * cols + c);
+        }
+        return copy;
+    }
+
+    /** Vista por índices {@code int}: solo disponible si el tablero cabe en ese rango. */
+    private final class PlaneView implements IBoardPlane {
+        private final int kind;
+
+        PlaneView(int kind) {
+            if (totalCells > Integer.MAX_VALUE) throw new UnsupportedOperationException("Tablero demasiado grande para índices int");
+            this.kind = kind;
+        }
+
+        @Override public int size() { return (int) totalCells; }
+
+        @Override
+        public boolean get(int index) {
+            int r = index / cols, c = index % cols;
+            switch (kind) {
+                case 0: return isMine(r, c);
+                case 1: return isOpened(r, c);
+                default: return isFlagged(r, c);
+            }
+        }
+
+        @Override public int wordCount() { return (int) ((totalCells + 63) >>> 6); }
+
+        @Override
+        public long word(int w) {
+            long word = 0;
+            int base = w << 6, end = (int) Math.min(totalCells, base + 64L);
+            for (int i = base; i < end; ) {
+                int len = Math.min(segmentLength(i), end - i);
+                word |= segment(i, len) << (i - base);
+                i += len;
+            }
+            return word;
+        }
+
+        @Override
+        public int nextSetBit(int from) {
+            if (kind == 0 ? !minesPlaced : chunks.isEmpty()) return -1;
+            for (int i = Math.max(0, from); i < totalCells; ) {
+                int len = segmentLength(i);
+                long bits = segment(i, len);
+                if (bits != 0) return i + Long.numberOfTrailingZeros(bits);
+                i += len;
+            }
+            return -1;
+        }
+
+        // Celdas desde 'index' hasta el final de su fila dentro del chunk (o del tablero)
+        private int segmentLength(int index) {
+            int c = index % cols;
+            return Math.min(CHUNK_SIZE - (c & CHUNK_MASK), cols - c);
+        }
+
+        // Bits de las 'len' celdas que empiezan en 'index', sin crear chunks: los que no existen valen 0
+        private long segment(int index, int len) {
+            int r = index / cols, c = index % cols;
+            long[] words;
+            if (kind == 0) {
+                if (!minesPlaced) return 0L;
+                words = mineWords(r, c);
+            } else {
+                Chunk ch = chunk(r, c, false);
+                if (ch == null) return 0L;
+                words = kind == 1 ? ch.opened : ch.flagged;
+            }
+            long bits = words[r & CHUNK_MASK] >>> (c & CHUNK_MASK);
+            return len == 64 ? bits : bits & ((1L << len) - 1);
+        }
+
+        @Override
+        public int cardinality() {
+            if (kind == 0) return minesPlaced ? totalMines : 0;
+            long n = 0;
+            for (Chunk ch : chunks.values()) {
+                for (long word : kind == 1 ? ch.opened : ch.flagged) n += Long.bitCount(word);
+            }
+            return (int) n;
+        }
+    }
+
+    // ---- apertura ----
+
+    @Override
+    public MinesweeperGame.OpenResult openCell(int r, int c) {
+        collected = new ArrayList<>();
+        try {
+            reveal(r, c, false);
+            return new MinesweeperGame.OpenResult(exploded, collected.isEmpty() ? Collections.emptyList() : collected);
+        } finally {
+            collected = null;
+        }
+    }
+
+    @Override
+    public MinesweeperGame.OpenResult chordOpen(int r, int c) {
+        collected = new ArrayList<>();
+        try {
+            reveal(r, c, true);
+            return new MinesweeperGame.OpenResult(exploded, collected.isEmpty() ? Collections.emptyList() : collected);
+        } finally {
+            collected = null;
+        }
+    }
+
+    @Override public boolean openCell(int r, int c, IOpenedCellsSink sink) { return streamReveal(r, c, false, sink); }
+    @Override public boolean chordOpen(int r, int c, IOpenedCellsSink sink) { return streamReveal(r, c, true, sink); }
+
+    private boolean streamReveal(int r, int c, boolean chord, IOpenedCellsSink sink) {
+        Objects.requireNonNull(sink);
+        if (totalCells > Integer.MAX_VALUE) {
+            // Se comprueba antes de abrir nada: a mitad de la expansión ya no se puede deshacer
+            if (!(sink instanceof ILongOpenedCellsSink)) {
+                throw new IllegalArgumentException("El tablero necesita un ILongOpenedCellsSink");
+            }
+            longSink = (ILongOpenedCellsSink) sink;
+        }
+        this.sink = sink;
+        try {
+            reveal(r, c, chord);
+        } finally {
+            this.sink = null;
+            longSink = null;
+        }
+        return exploded;
+    }
+
+    private void reveal(int r, int c, boolean chord) {
+        notifying = changes.isActive();
+        if (sink == null && !notifying) {
+            revealCells(r, c, chord);
+            return;
+        }
+        if (totalCells <= Integer.MAX_VALUE) {
+            if (batch == null) batch = new int[SINK_BATCH];
+        } else if (longBatch == null) {
+            longBatch = new long[SINK_BATCH];
+        }
+        batchSize = 0;
+        actionOpened = 0;
+        try {
+            revealCells(r, c, chord);
+            flushBatch();
+            if (notifying) changes.fire(GameChange.action(chord, r, c, actionOpened, flagsCount, exploded, isWin()));
+        } finally {
+            notifying = false;
+        }
+    }
+
+    private void revealCells(int r, int c, boolean chord) {
+        exploded = false;
+        if (!inBounds(r, c)) return;
+        if (chord) {
+            if (!isOpened(r, c)) return;
+            int adjMines = countAdjacentMines(r, c);
+            if (adjMines == 0 || countAdjacentFlags(r, c) < adjMines) return;
+            int r0 = Math.max(0, r - 1), r1 = Math.min(rows - 1, r + 1);
+            int c0 = Math.max(0, c - 1), c1 = Math.min(cols - 1, c + 1);
+            for (int nr = r0; nr <= r1; nr++) {
+                for (int nc = c0; nc <= c1; nc++) {
+                    if ((nr == r && nc == c) || isFlagged(nr, nc) || isOpened(nr, nc)) continue;
+                    if (isMine(nr, nc)) openMine(nr, nc); else flood(nr, nc);
+                }
+            }
+            return;
+        }
+        if (isFlagged(r, c)) return;
+        if (!minesPlaced) placeMinesAvoiding(r, c);
+        if (isMine(r, c)) openMine(r, c); else flood(r, c);
+    }
+
+    private void openMine(int r, int c) {
+        Chunk ch = chunk(r, c, true);
+        ch.opened[r & CHUNK_MASK] |= bit(c);
+        exploded = true;
+        emit(r, c);
+    }
+
+    // BFS con cola circular de celdas empaquetadas (fila << 32 | columna); se abre al encolar
+    private void flood(int r, int c) {
+        if (isOpened(r, c)) return;
+        openSafe(r, c);
+        queue[0] = pack(r, c);
+        int head = 0, size = 1;
+        while (size > 0) {
+            long cell = queue[head];
+            head = (head + 1) & (queue.length - 1);
+            size--;
+            int cr = (int) (cell >>> 32), cc = (int) cell;
+            if (countAdjacentMines(cr, cc) != 0) continue;
+            int r0 = Math.max(0, cr - 1), r1 = Math.min(rows - 1, cr + 1);
+            int c0 = Math.max(0, cc - 1), c1 = Math.min(cols - 1, cc + 1);
+            for (int nr = r0; nr <= r1; nr++) {
+                for (int nc = c0; nc <= c1; nc++) {
+                    if (isOpened(nr, nc) || isFlagged(nr, nc) || isMine(nr, nc)) continue;
+                    openSafe(nr, nc);
+                    if (size == queue.length) {
+                        queue = growQueue(queue, head, size);
+                        head = 0;
+                    }
+                    queue[(head + size) & (queue.length - 1)] = pack(nr, nc);
+                    size++;
+                }
+            }
+        }
+    }
+
+    private static long[] growQueue(long[] q, int head, int size) {
+        long[] grown = new long[q.length << 1];
+        for (int k = 0; k < size; k++) grown[k] = q[(head + k) & (q.length - 1)];
+        return grown;
+    }
+
+    private static long pack(int r, int c) { return ((long) r << 32) | (c & 0xffffffffL); }
+
+    private void openSafe(int r, int c) {
+        Chunk ch = chunk(r, c, true);
+        ch.opened[r & CHUNK_MASK] |= bit(c);
+        openedSafeCells++;
+        emit(r, c);
+    }
+
+    private void emit(int r, int c) {
+        if (collected != null) collected.add(new MinesweeperGame.Cell(r, c));
+        if (sink == null && !notifying) return;
+        if (totalCells <= Integer.MAX_VALUE) batch[batchSize++] = r * cols + c;
+        else longBatch[batchSize++] = (long) r * cols + c;
+        if (batchSize == SINK_BATCH) flushBatch();
+    }
+
+    private void flushBatch() {
+        if (batchSize == 0) return;
+        if (totalCells <= Integer.MAX_VALUE) {
+            if (sink != null) sink.accept(batch, 0, batchSize);
+            if (notifying) changes.fire(GameChange.opened(batch, 0, batchSize, flagsCount));
+        } else {
+            if (sink != null) longSink.acceptLong(longBatch, 0, batchSize);
+            if (notifying) changes.fire(GameChange.opened(longBatch, 0, batchSize, flagsCount));
+        }
+        actionOpened += batchSize;
+        batchSize = 0;
+    }
+}
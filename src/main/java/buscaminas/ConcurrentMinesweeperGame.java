@@ -0,0 +1,326 @@
+package buscaminas;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link IMinesweeperGame} that many threads can play at the same time, e.g. cooperative
+ * multiplayer on one shared board. Produces the same boards as {@link MinesweeperGame}
+ * for the same {@link Random} and {@link IMinePlacement}.
+ * <p>
+ * The opened and flagged planes are {@link AtomicBitPlane}s. A cell is revealed by the one
+ * thread whose CAS claims its opened bit, and only that thread expands it, so overlapping
+ * flood fills split the region between them instead of opening cells twice. The mine plane
+ * and the mine counts are written once, under a lock, by the first open, and never change
+ * after that. Opened and flag totals are kept in {@link LongAdder}s.
+ * <p>
+ * An open and a flag racing on the same cell resolve in favour of the open: the flag is
+ * withdrawn. {@link #reset()} must not run concurrently with moves.
+ */
+public class ConcurrentMinesweeperGame implements ISeededGame {
+    private static final int SINK_BATCH = 1024;
+
+    private final int rows;
+    private final int cols;
+    private final int totalMines;
+    private final Random random;
+    private final IMinePlacement placement;
+
+    private final AtomicBitPlane mines;
+    private final AtomicBitPlane opened;
+    private final AtomicBitPlane flagged;
+    // Fijo tras colocar las minas; la escritura volátil de minesPlaced lo publica
+    private final byte[] adjacentMines;
+
+    private volatile boolean minesPlaced = false;
+    private long boardSeed;
+    private boolean boardSeedPinned = false;
+    private final LongAdder openedSafeCells = new LongAdder();
+    private final LongAdder flagsCount = new LongAdder();
+    private final GameChangeSupport changes = new GameChangeSupport();
+
+    // Búfer de reveladas por hilo; hace de cola de la BFS igual que en MinesweeperGame
+    private final ThreadLocal<int[]> scratch = ThreadLocal.withInitial(() -> new int[256]);
+
+    public ConcurrentMinesweeperGame(int rows, int cols, int totalMines) { this(rows, cols, totalMines, new Random()); }
+
+    public ConcurrentMinesweeperGame(int rows, int cols, int totalMines, Random random) {
+        this(rows, cols, totalMines, random, MinePlacement.SAFE_HALO);
+    }
+
+    public ConcurrentMinesweeperGame(int rows, int cols, int totalMines, Random random, IMinePlacement placement) {
+        if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("Dimensiones inválidas");
+        if (totalMines < 0 || totalMines >= rows * cols) throw new IllegalArgumentException("Número de minas inválido");
+        this.rows = rows;
+        this.cols = cols;
+        this.totalMines = totalMines;
+        this.random = Objects.requireNonNull(random);
+        this.placement = Objects.requireNonNull(placement);
+        this.mines = new AtomicBitPlane(rows * cols);
+        this.opened = new AtomicBitPlane(rows * cols);
+        this.flagged = new AtomicBitPlane(rows * cols);
+        this.adjacentMines = new byte[rows * cols];
+    }
+
+    @Override
+    public synchronized void reset() {
+        minesPlaced = false;
+        mines.clear();
+        opened.clear();
+        flagged.clear();
+        boardSeedPinned = false;
+        openedSafeCells.reset();
+        flagsCount.reset();
+        if (changes.isActive()) changes.fire(GameChange.reset());
+    }
+
+    /** Reinicia la partida y fija la semilla del próximo tablero para reproducirlo. */
+    @Override
+    public synchronized void reset(long boardSeed) {
+        reset();
+        this.boardSeed = boardSeed;
+        this.boardSeedPinned = true;
+    }
+
+    @Override public synchronized long getBoardSeed() { return boardSeed; }
+    @Override public boolean areMinesPlaced() { return minesPlaced; }
+
+    // Solo el primer hilo coloca las minas; el resto espera en el monitor y ve el tablero ya hecho
+    private void ensureMinesPlaced(int safeR, int safeC) {
+        if (minesPlaced) return;
+        synchronized (this) {
+            if (minesPlaced) return;
+            // Misma colocación (Floyd + SplitMix64) que el juego de un solo hilo
+            MinesweeperGame layout = new MinesweeperGame(rows, cols, totalMines, random, placement);
+            if (boardSeedPinned) layout.reset(boardSeed);
+            layout.placeMinesAvoiding(safeR, safeC);
+            boardSeed = layout.getBoardSeed();
+            boardSeedPinned = false;
+            mines.setWords(layout.captureState().mines());
+            for (int i = 0; i < adjacentMines.length; i++) {
+                adjacentMines[i] = (byte) layout.countAdjacentMines(i / cols, i % cols);
+            }
+            minesPlaced = true;
+        }
+    }
+
+    private int idx(int r, int c) { return r * cols + c; }
+    private boolean inBounds(int r, int c) { return r >= 0 && r < rows && c >= 0 && c < cols; }
+
+    @Override public int getRows() { return rows; }
+    @Override public int getCols() { return cols; }
+    @Override public int getTotalMines() { return totalMines; }
+    @Override public boolean isMine(int r, int c) { return mines.get(idx(r, c)); }
+    @Override public boolean isOpened(int r, int c) { return opened.get(idx(r, c)); }
+    @Override public boolean isFlagged(int r, int c) { return flagged.get(idx(r, c)); }
+
+    @Override public IBoardPlane minesPlane() { return mines; }
+    @Override public IBoardPlane openedPlane() { return opened; }
+    @Override public IBoardPlane flaggedPlane() { return flagged; }
+
+    @Override
+    public boolean[][] getMines() {
+        boolean[][] copy = new boolean[rows][cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) copy[r][c] = mines.get(idx(r, c));
+        }
+        return copy;
+    }
+    @Override
+    public boolean[][] getOpened() {
+        boolean[][] copy = new boolean[rows][cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) copy[r][c] = opened.get(idx(r, c));
+        }
+        return copy;
+    }
+
+    @Override public int countAdjacentMines(int r, int c) { return minesPlaced ? adjacentMines[idx(r, c)] : 0; }
+
+    // Se cuenta al vuelo: un array de recuentos no se puede mantener coherente sin bloquear
+    @Override
+    public int countAdjacentFlags(int r, int c) {
+        int n = 0;
+        int r0 = Math.max(0, r - 1), r1 = Math.min(rows - 1, r + 1);
+        int c0 = Math.max(0, c - 1), c1 = Math.min(cols - 1, c + 1);
+        for (int nr = r0; nr <= r1; nr++) {
+            for (int nc = c0; nc <= c1; nc++) {
+                if ((nr != r || nc != c) && flagged.get(idx(nr, nc))) n++;
+            }
+        }
+        return n;
+    }
+
+    @Override public int getFlagsCount() { return flagsCount.intValue(); }
+
+    /** Cells opened so far that are not mines. */
+    public long getOpenedSafeCells() { return openedSafeCells.sum(); }
+
+    @Override
+    public void toggleFlag(int r, int c) {
+        if (!inBounds(r, c)) return;
+        int i = idx(r, c);
+        if (opened.get(i)) return;
+        if (flagged.release(i)) {
+            flagsCount.decrement();
+        } else if (flagged.claim(i)) {
+            flagsCount.increment();
+            // Si una apertura ganó la carrera, la bandera se retira (lo haga este hilo o el que abrió)
+            if (opened.get(i)) withdrawFlag(i);
+        } else {
+            return;
+        }
+        if (changes.isActive()) changes.fire(GameChange.flag(r, c, flagged.get(i), getFlagsCount()));
+    }
+
+    /** Listeners run on the thread that made the move, so they may be called concurrently. */
+    @Override public void addChangeListener(IGameChangeListener listener) { changes.add(listener); }
+    @Override public void removeChangeListener(IGameChangeListener listener) { changes.remove(listener); }
+
+    private void withdrawFlag(int i) {
+        if (flagged.release(i)) flagsCount.decrement();
+    }
+
+    /** Estado de una acción en curso; vive en la pila del hilo que la ejecuta. */
+    private final class Reveal {
+        int[] revealed = scratch.get();
+        int count;
+        int flushed;
+        boolean exploded;
+        final IOpenedCellsSink sink;
+
+        Reveal(IOpenedCellsSink sink) { this.sink = sink; }
+
+        void append(int i) {
+            if (count == revealed.length) {
+                revealed = Arrays.copyOf(revealed, Math.min(Math.max(count * 2, 256), rows * cols));
+                scratch.set(revealed);
+            }
+            revealed[count++] = i;
+            if (sink != null && count - flushed >= SINK_BATCH) flush();
+        }
+
+        void flush() {
+            if (count > flushed) sink.accept(revealed, flushed, count - flushed);
+            flushed = count;
+        }
+
+        // Abre la celda si este hilo gana el CAS; devuelve si la ganó
+        boolean claim(int i) {
+            if (!opened.claim(i)) return false;
+            if (flagged.get(i)) withdrawFlag(i);
+            if (mines.get(i)) {
+                exploded = true;
+            } else {
+                openedSafeCells.increment();
+            }
+            append(i);
+            return true;
+        }
+
+        // BFS desde start; las celdas que otro hilo ya reclamó las expande ese hilo
+        void flood(int start) {
+            int head = count;
+            if (!claim(start)) return;
+            while (head < count) {
+                int ci = revealed[head++];
+                if (adjacentMines[ci] != 0) continue;
+                int cr = ci / cols, cc = ci % cols;
+                int r0 = Math.max(0, cr - 1), r1 = Math.min(rows - 1, cr + 1);
+                int c0 = Math.max(0, cc - 1), c1 = Math.min(cols - 1, cc + 1);
+                for (int nr = r0; nr <= r1; nr++) {
+                    int base = nr * cols;
+                    for (int nc = c0; nc <= c1; nc++) {
+                        int ni = base + nc;
+                        if (!opened.get(ni) && !flagged.get(ni) && !mines.get(ni)) claim(ni);
+                    }
+                }
+            }
+        }
+
+        void open(int r, int c) {
+            if (!inBounds(r, c)) return;
+            int i = idx(r, c);
+            if (flagged.get(i)) return;
+            ensureMinesPlaced(r, c);
+            if (mines.get(i)) {
+                claim(i);
+                exploded = true;
+            } else {
+                flood(i);
+            }
+        }
+
+        void chord(int r, int c) {
+            if (!inBounds(r, c) || !minesPlaced) return;
+            int i = idx(r, c);
+            if (!opened.get(i)) return;
+            int adjMines = adjacentMines[i];
+            if (adjMines == 0 || countAdjacentFlags(r, c) < adjMines) return;
+            int r0 = Math.max(0, r - 1), r1 = Math.min(rows - 1, r + 1);
+            int c0 = Math.max(0, c - 1), c1 = Math.min(cols - 1, c + 1);
+            for (int nr = r0; nr <= r1; nr++) {
+                for (int nc = c0; nc <= c1; nc++) {
+                    int ni = idx(nr, nc);
+                    if (ni == i || flagged.get(ni) || opened.get(ni)) continue;
+                    if (mines.get(ni)) claim(ni); else flood(ni);
+                }
+            }
+        }
+
+        void fire(boolean chord, int r, int c) {
+            if (!changes.isActive()) return;
+            int flags = getFlagsCount();
+            changes.fireOpened(revealed, 0, count, SINK_BATCH, flags);
+            changes.fire(GameChange.action(chord, r, c, count, flags, exploded, isWin()));
+        }
+
+        MinesweeperGame.OpenResult result() {
+            if (count == 0) return new MinesweeperGame.OpenResult(exploded, Collections.emptyList());
+            List<MinesweeperGame.Cell> cells = new ArrayList<>(count);
+            for (int k = 0; k < count; k++) cells.add(new MinesweeperGame.Cell(revealed[k] / cols, revealed[k] % cols));
+            return new MinesweeperGame.OpenResult(exploded, cells);
+        }
+    }
+
+    @Override
+    public MinesweeperGame.OpenResult openCell(int r, int c) {
+        Reveal rv = new Reveal(null);
+        rv.open(r, c);
+        rv.fire(false, r, c);
+        return rv.result();
+    }
+
+    @Override
+    public MinesweeperGame.OpenResult chordOpen(int r, int c) {
+        Reveal rv = new Reveal(null);
+        rv.chord(r, c);
+        rv.fire(true, r, c);
+        return rv.result();
+    }
+
+    @Override
+    public boolean openCell(int r, int c, IOpenedCellsSink sink) {
+        Reveal rv = new Reveal(Objects.requireNonNull(sink));
+        rv.open(r, c);
+        rv.flush();
+        rv.fire(false, r, c);
+        return rv.exploded;
+    }
+
+    @Override
+    public boolean chordOpen(int r, int c, IOpenedCellsSink sink) {
+        Reveal rv = new Reveal(Objects.requireNonNull(sink));
+        rv.chord(r, c);
+        rv.flush();
+        rv.fire(true, r, c);
+        return rv.exploded;
+    }
+
+    @Override public boolean isWin() { return openedSafeCells.sum() >= (long) rows * cols - totalMines; }
+}
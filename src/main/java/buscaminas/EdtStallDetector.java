@@ -0,0 +1,50 @@
+package buscaminas;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Event queue that times every AWT event dispatch. All dispatches go to the
+ * {@code ui.edtDispatch} timer of {@link Metrics}. Dispatches longer than the threshold
+ * (a process fork or file I/O on the EDT, a huge reveal...) also increment
+ * {@code ui.edtStalls} and emit a {@link JfrEvents.EdtStall} event naming the event class.
+ */
+final class EdtStallDetector extends EventQueue {
+    private static final Metrics.Timer DISPATCH_TIMER = Metrics.timer("ui.edtDispatch");
+    private static final LongAdder STALLS = Metrics.counter("ui.edtStalls");
+
+    private final long thresholdNanos;
+
+    EdtStallDetector(long thresholdMillis) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    /** Replaces the system event queue; events already queued are moved over. */
+    static void install(long thresholdMillis) {
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(new EdtStallDetector(thresholdMillis));
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent e) {
+        JfrEvents.EdtStall event = JfrEvents.EDT_STALL.isEnabled() ? new JfrEvents.EdtStall() : null;
+        if (event != null) event.begin();
+        long t0 = System.nanoTime();
+        try {
+            super.dispatchEvent(e);
+        } finally {
+            long elapsed = System.nanoTime() - t0;
+            DISPATCH_TIMER.record(elapsed, 1);
+            if (elapsed > thresholdNanos) {
+                STALLS.increment();
+                if (event != null && event.shouldCommit()) {
+                    event.eventClass = e.getClass().getName();
+                    event.eventId = e.getID();
+                    event.commit();
+                }
+            }
+        }
+    }
+}
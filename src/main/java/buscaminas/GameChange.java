@@ -0,0 +1,92 @@
+package buscaminas;
+
+/**
+ * Everything one action changed on an {@link IMinesweeperGame}, so that views can keep
+ * their own state up to date instead of re-reading the whole model.
+ * <p>
+ * An open or chord action is published as zero or more {@link Kind#OPENED} batches of at
+ * most 1024 cells, followed by one {@link Kind#OPEN} or {@link Kind#CHORD} summary. The
+ * batches are slices of a buffer the game reuses, so the cost per opened cell is the same
+ * as for an {@link IOpenedCellsSink}.
+ */
+public final class GameChange {
+    /**
+     * {@link #OPENED} is one batch of cells opened by the open or chord action in progress;
+     * it may arrive while that action is still running, so listeners must not act on the game
+     * from it. {@link #RESET} also covers {@link MinesweeperGame#restore}: the whole board
+     * may have changed.
+     */
+    public enum Kind { OPENED, OPEN, CHORD, FLAG, RESET }
+
+    public final Kind kind;
+    /** Cell the action targeted; -1 for {@link Kind#OPENED} and {@link Kind#RESET}. */
+    public final int row, col;
+    /**
+     * For {@link Kind#OPENED}: cells in this batch, see {@link #openedCell(int)}. For
+     * {@link Kind#OPEN} and {@link Kind#CHORD}: cells the whole action opened, mines included.
+     */
+    public final long openedCount;
+    /** For {@link Kind#FLAG}: whether the cell is flagged after the action. */
+    public final boolean flagged;
+    public final int flagsCount;
+    public final boolean exploded;
+    public final boolean win;
+
+    // Lote de OPENED: uno de los dos arrays, según el tablero quepa o no en índices int
+    private final int[] cells;
+    private final long[] longCells;
+    private final int offset;
+
+    private GameChange(Kind kind, int row, int col, int[] cells, long[] longCells, int offset, long openedCount,
+                       boolean flagged, int flagsCount, boolean exploded, boolean win) {
+        this.kind = kind;
+        this.row = row;
+        this.col = col;
+        this.cells = cells;
+        this.longCells = longCells;
+        this.offset = offset;
+        this.openedCount = openedCount;
+        this.flagged = flagged;
+        this.flagsCount = flagsCount;
+        this.exploded = exploded;
+        this.win = win;
+    }
+
+    static GameChange reset() { return new GameChange(Kind.RESET, -1, -1, null, null, 0, 0, false, 0, false, false); }
+
+    static GameChange flag(int row, int col, boolean flagged, int flagsCount) {
+        return new GameChange(Kind.FLAG, row, col, null, null, 0, 0, flagged, flagsCount, false, false);
+    }
+
+    static GameChange opened(int[] cells, int offset, int length, int flagsCount) {
+        return new GameChange(Kind.OPENED, -1, -1, cells, null, offset, length, false, flagsCount, false, false);
+    }
+
+    static GameChange opened(long[] cells, int offset, int length, int flagsCount) {
+        return new GameChange(Kind.OPENED, -1, -1, null, cells, offset, length, false, flagsCount, false, false);
+    }
+
+    static GameChange action(boolean chord, int row, int col, long openedCount, int flagsCount, boolean exploded, boolean win) {
+        return new GameChange(chord ? Kind.CHORD : Kind.OPEN, row, col, null, null, 0, openedCount, false, flagsCount, exploded, win);
+    }
+
+    /**
+     * Row-major index ({@code r * cols + c}) of the {@code k}-th cell of an {@link Kind#OPENED}
+     * batch. Only valid during {@link IGameChangeListener#gameChanged}; use {@link #detached()}
+     * to keep the batch for later.
+     */
+    public long openedCell(int k) {
+        if (k < 0 || k >= openedCount || kind != Kind.OPENED) throw new IndexOutOfBoundsException(k);
+        return cells != null ? cells[offset + k] : longCells[offset + k];
+    }
+
+    /** This change with its own copy of the batch, safe to read after the listener returns. */
+    public GameChange detached() {
+        if (kind != Kind.OPENED) return this;
+        long[] copy = new long[(int) openedCount];
+        for (int k = 0; k < copy.length; k++) copy[k] = openedCell(k);
+        return opened(copy, 0, copy.length, flagsCount);
+    }
+
+    public boolean isGameOver() { return exploded || win; }
+}
@@ -0,0 +1,28 @@
+package buscaminas;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Listener list shared by the {@link IMinesweeperGame} implementations. Games only build
+ * a {@link GameChange} when {@link #isActive()}, so unobserved games pay nothing.
+ */
+final class GameChangeSupport {
+    private final List<IGameChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    void add(IGameChangeListener listener) { listeners.add(Objects.requireNonNull(listener)); }
+
+    void remove(IGameChangeListener listener) { listeners.remove(listener); }
+
+    boolean isActive() { return !listeners.isEmpty(); }
+
+    void fire(GameChange change) {
+        for (IGameChangeListener l : listeners) l.gameChanged(change);
+    }
+
+    /** Fires {@code cells[from..to)} as {@link GameChange.Kind#OPENED} batches of at most {@code batch} cells. */
+    void fireOpened(int[] cells, int from, int to, int batch, int flagsCount) {
+        for (int k = from; k < to; k += batch) fire(GameChange.opened(cells, k, Math.min(batch, to - k), flagsCount));
+    }
+}
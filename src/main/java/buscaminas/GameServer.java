@@ -0,0 +1,341 @@
+package buscaminas;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Headless HTTP service hosting many independent {@link MinesweeperGame} sessions.
+ * <pre>
+ * POST   /games?rows=R&amp;cols=C&amp;mines=M[&amp;seed=S]  -&gt; {"id":...,"rows":...,"cols":...,"mines":...}
+ * POST   /games/{id}/open?r=R&amp;c=C               -&gt; {"exploded":...,"win":...,"opened":[cell,...]}
+ * POST   /games/{id}/chord?r=R&amp;c=C              -&gt; same as open
+ * POST   /games/{id}/flag?r=R&amp;c=C               -&gt; {"flagged":...,"flags":...}
+ * GET    /games/{id}                            -&gt; dimensions, counters and "board" (one char per cell:
+ *                                                   '.' covered, 'F' flag, '0'-'8' opened, '*' exploded mine)
+ * DELETE /games/{id}
+ * GET    /metrics                               -&gt; {@link Metrics#snapshot()}
+ * </pre>
+ * Cells are row-major indices. Requests run on one virtual thread each when the runtime
+ * provides them (Java 21+), otherwise on a cached pool. Sessions live in a concurrent map
+ * and moves on one session are serialized by that session's own lock, so sessions never
+ * contend with each other. Sessions idle for longer than the timeout are evicted.
+ * A new game first reserves its session slot and its cells against the limits on
+ * sessions and on total cells, and is only built once both reservations hold.
+ * <pre>
+ * java -cp ... buscaminas.GameServer [--port P] [--idle-seconds S] [--max-sessions N] [--max-cells N]
+ * </pre>
+ */
+public final class GameServer implements AutoCloseable {
+    /** Default cap on the cells of all sessions together (about 1.5 bytes of state per cell). */
+    public static final long DEFAULT_MAX_CELLS = 1L << 28;
+
+    static {
+        // Sin TCP_NODELAY, Nagle y el ACK retardado añaden ~40 ms a cada respuesta pequeña
+        System.getProperties().putIfAbsent("sun.net.httpserver.nodelay", "true");
+    }
+
+    /** One game plus the lock that serializes its moves. */
+    static final class Session {
+        final MinesweeperGame game;
+        final ReentrantLock lock = new ReentrantLock();
+        volatile long lastAccessNanos = System.nanoTime();
+        boolean exploded;
+
+        Session(MinesweeperGame game) { this.game = game; }
+
+        long cells() { return (long) game.getRows() * game.getCols(); }
+    }
+
+    private final HttpServer http;
+    private final ExecutorService handlers;
+    private final ScheduledExecutorService evictor;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private final AtomicLong cellCount = new AtomicLong();
+    private final long idleTimeoutNanos;
+    private final int maxSessions;
+    private final long maxCells;
+
+    /** {@code port} 0 picks a free port; see {@link #port()}. */
+    public GameServer(int port, long idleTimeoutMillis, int maxSessions) throws IOException {
+        this(port, idleTimeoutMillis, maxSessions, DEFAULT_MAX_CELLS);
+    }
+
+    /** Same as {@link #GameServer(int, long, int)}, with at most {@code maxCells} cells across all sessions. */
+    public GameServer(int port, long idleTimeoutMillis, int maxSessions, long maxCells) throws IOException {
+        if (idleTimeoutMillis <= 0 || maxSessions <= 0 || maxCells <= 0) throw new IllegalArgumentException("Parámetros inválidos");
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.maxSessions = maxSessions;
+        this.maxCells = maxCells;
+        this.http = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        this.handlers = newPerTaskExecutor("game-server");
+        this.http.setExecutor(handlers);
+        this.http.createContext("/games", this::handle);
+        this.http.createContext("/metrics", ex -> {
+            try {
+                if ("GET".equals(ex.getRequestMethod())) reply(ex, 200, Metrics.snapshot());
+                else reply(ex, 405, error("Método no permitido"));
+            } finally {
+                ex.close();
+            }
+        });
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "game-server-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1, idleTimeoutMillis / 4);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public void start() { http.start(); }
+
+    public int port() { return http.getAddress().getPort(); }
+
+    public int sessionCount() { return sessionCount.get(); }
+
+    /** Cells of all live sessions. */
+    public long cellCount() { return cellCount.get(); }
+
+    @Override
+    public void close() {
+        http.stop(0);
+        evictor.shutdownNow();
+        handlers.shutdownNow();
+    }
+
+    /**
+     * A virtual thread per task when {@code Executors.newVirtualThreadPerTaskExecutor} exists
+     * (looked up reflectively so the code still targets Java 17), else a cached pool of daemon threads.
+     */
+    static ExecutorService newPerTaskExecutor(String name) {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger n = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, name + "-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    void evictIdle() {
+        long now = System.nanoTime();
+        for (Map.Entry<String, Session> e : sessions.entrySet()) {
+            Session s = e.getValue();
+            // Solo libera quien la quita del mapa: un DELETE a la vez no la descuenta dos veces
+            if (now - s.lastAccessNanos > idleTimeoutNanos && sessions.remove(e.getKey(), s)) release(s.cells());
+        }
+    }
+
+    // Reserva plaza y celdas antes de construir la partida; false si se supera algún límite
+    private boolean reserve(long cells) {
+        if (sessionCount.incrementAndGet() > maxSessions) {
+            sessionCount.decrementAndGet();
+            return false;
+        }
+        if (cellCount.addAndGet(cells) > maxCells) {
+            release(cells);
+            return false;
+        }
+        return true;
+    }
+
+    private void release(long cells) {
+        cellCount.addAndGet(-cells);
+        sessionCount.decrementAndGet();
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        try {
+            String[] path = ex.getRequestURI().getPath().split("/");
+            // path = ["", "games", id?, action?]
+            String method = ex.getRequestMethod();
+            Map<String, String> q = query(ex.getRequestURI());
+            if (path.length == 2) {
+                if (!"POST".equals(method)) { reply(ex, 405, error("Método no permitido")); return; }
+                create(ex, q);
+                return;
+            }
+            Session s = sessions.get(path[2]);
+            if (s == null) { reply(ex, 404, error("Partida desconocida")); return; }
+            if (path.length == 3) {
+                if ("GET".equals(method)) { reply(ex, 200, state(s)); return; }
+                if ("DELETE".equals(method)) {
+                    Session removed = sessions.remove(path[2]);
+                    if (removed != null) release(removed.cells());
+                    reply(ex, 200, "{}");
+                    return;
+                }
+                reply(ex, 405, error("Método no permitido"));
+                return;
+            }
+            if (path.length != 4 || !"POST".equals(method)) { reply(ex, 404, error("Ruta desconocida")); return; }
+            int r = Integer.parseInt(required(q, "r")), c = Integer.parseInt(required(q, "c"));
+            if (r < 0 || c < 0 || r >= s.game.getRows() || c >= s.game.getCols()) {
+                reply(ex, 400, error("Celda fuera del tablero"));
+                return;
+            }
+            String body;
+            s.lock.lock();
+            try {
+                // La sesión pudo expirar o borrarse entre el get y el lock
+                if (sessions.get(path[2]) != s) {
+                    reply(ex, 404, error("Partida desconocida"));
+                    return;
+                }
+                s.lastAccessNanos = System.nanoTime();
+                switch (path[3]) {
+                    case "open": body = open(s, r, c, false); break;
+                    case "chord": body = open(s, r, c, true); break;
+                    case "flag":
+                        s.game.toggleFlag(r, c);
+                        body = "{\"flagged\":" + s.game.isFlagged(r, c) + ",\"flags\":" + s.game.getFlagsCount() + "}";
+                        break;
+                    default: body = null;
+                }
+            } finally {
+                s.lock.unlock();
+            }
+            if (body == null) reply(ex, 404, error("Acción desconocida"));
+            else reply(ex, 200, body);
+        } catch (IllegalArgumentException e) {
+            reply(ex, 400, error(e.getMessage()));
+        } catch (RuntimeException e) {
+            reply(ex, 500, error(e.toString()));
+        } finally {
+            ex.close();
+        }
+    }
+
+    private void create(HttpExchange ex, Map<String, String> q) throws IOException {
+        int rows = Integer.parseInt(required(q, "rows"));
+        int cols = Integer.parseInt(required(q, "cols"));
+        int mines = Integer.parseInt(required(q, "mines"));
+        if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("Dimensiones inválidas");
+        long cells = (long) rows * cols;
+        if (cells > 1 << 24) throw new IllegalArgumentException("Tablero demasiado grande");
+        Random random = q.containsKey("seed") ? new Random(Long.parseLong(q.get("seed"))) : new Random();
+        if (!reserve(cells)) {
+            reply(ex, 503, error("Demasiadas partidas"));
+            return;
+        }
+        MinesweeperGame game;
+        try {
+            game = new MinesweeperGame(rows, cols, mines, random);
+        } catch (RuntimeException e) {
+            release(cells);
+            throw e;
+        }
+        String id;
+        do {
+            id = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        } while (sessions.putIfAbsent(id, new Session(game)) != null);
+        reply(ex, 201, "{\"id\":\"" + id + "\",\"rows\":" + rows + ",\"cols\":" + cols + ",\"mines\":" + mines + "}");
+    }
+
+    // Se llama con el lock de la sesión
+    private static String open(Session s, int r, int c, boolean chord) {
+        StringBuilder sb = new StringBuilder(64).append("{\"opened\":[");
+        int[] count = {0};
+        IOpenedCellsSink sink = (cells, offset, length) -> {
+            for (int k = offset; k < offset + length; k++) {
+                if (count[0]++ > 0) sb.append(',');
+                sb.append(cells[k]);
+            }
+        };
+        boolean exploded = !s.exploded && (chord ? s.game.chordOpen(r, c, sink) : s.game.openCell(r, c, sink));
+        s.exploded |= exploded;
+        return sb.append("],\"exploded\":").append(exploded).append(",\"win\":").append(s.game.isWin()).append('}').toString();
+    }
+
+    private static String state(Session s) {
+        s.lock.lock();
+        try {
+            s.lastAccessNanos = System.nanoTime();
+            MinesweeperGame g = s.game;
+            StringBuilder board = new StringBuilder(g.getRows() * g.getCols());
+            for (int r = 0; r < g.getRows(); r++) {
+                for (int c = 0; c < g.getCols(); c++) {
+                    if (g.isOpened(r, c)) board.append(g.isMine(r, c) ? '*' : (char) ('0' + g.countAdjacentMines(r, c)));
+                    else board.append(g.isFlagged(r, c) ? 'F' : '.');
+                }
+            }
+            return "{\"rows\":" + g.getRows() + ",\"cols\":" + g.getCols() + ",\"mines\":" + g.getTotalMines()
+                    + ",\"flags\":" + g.getFlagsCount() + ",\"exploded\":" + s.exploded + ",\"win\":" + g.isWin()
+                    + ",\"board\":\"" + board + "\"}";
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    private static String required(Map<String, String> q, String key) {
+        String v = q.get(key);
+        if (v == null) throw new IllegalArgumentException("Falta el parámetro " + key);
+        return v;
+    }
+
+    private static Map<String, String> query(URI uri) {
+        Map<String, String> q = new HashMap<>();
+        String raw = uri.getRawQuery();
+        if (raw == null) return q;
+        for (String kv : raw.split("&")) {
+            int eq = kv.indexOf('=');
+            if (eq > 0) q.put(kv.substring(0, eq), kv.substring(eq + 1));
+        }
+        return q;
+    }
+
+    private static String error(String message) {
+        return "{\"error\":\"" + String.valueOf(message).replace("\\", "\\\\").replace("\"", "\\\"") + "\"}";
+    }
+
+    private static void reply(HttpExchange ex, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = 8080, maxSessions = 100_000;
+        long idleSeconds = 600, maxCells = DEFAULT_MAX_CELLS;
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : "";
+            switch (args[i]) {
+                case "--port": port = Integer.parseInt(value); i++; break;
+                case "--idle-seconds": idleSeconds = Long.parseLong(value); i++; break;
+                case "--max-sessions": maxSessions = Integer.parseInt(value); i++; break;
+                case "--max-cells": maxCells = Long.parseLong(value); i++; break;
+                default: throw new IllegalArgumentException("Argumento desconocido: " + args[i]);
+            }
+        }
+        GameServer server = new GameServer(port, idleSeconds * 1000, maxSessions, maxCells);
+        server.start();
+        System.out.println("Servidor de partidas en http://127.0.0.1:" + server.port() + "/games");
+    }
+}
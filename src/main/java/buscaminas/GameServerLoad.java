@@ -0,0 +1,176 @@
+package buscaminas;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Load generator for {@link GameServer}: many concurrent clients, each playing games
+ * with random opens over HTTP, for a fixed duration. Reports sustained moves per second
+ * and the move latency seen by the clients.
+ * <pre>
+ * java -cp ... buscaminas.GameServerLoad [--url http://127.0.0.1:8080] [--clients N] [--seconds S] [--difficulty D]
+ * </pre>
+ * Without {@code --url} it starts an in-process server on a free port.
+ */
+public final class GameServerLoad {
+    /** Aggregated outcome of a run. */
+    public static final class Result {
+        public final long moves;
+        public final long games;
+        public final long elapsedNanos;
+        public final LatencyHistogram latency;
+
+        Result(long moves, long games, long elapsedNanos, LatencyHistogram latency) {
+            this.moves = moves;
+            this.games = games;
+            this.elapsedNanos = elapsedNanos;
+            this.latency = latency;
+        }
+
+        public double movesPerSecond() { return moves / (elapsedNanos / 1e9); }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "moves=%d games=%d moves/s=%.0f latency p50/p99/p99.9/max=%d/%d/%d/%d us",
+                    moves, games, movesPerSecond(), latency.percentile(0.5) / 1000, latency.percentile(0.99) / 1000,
+                    latency.percentile(0.999) / 1000, latency.max() / 1000);
+        }
+    }
+
+    private GameServerLoad() {}
+
+    public static Result run(URI base, int clients, long durationMillis, Difficulty d, long seed) {
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5)).build();
+        ExecutorService pool = GameServer.newPerTaskExecutor("load-client");
+        try {
+            long t0 = System.nanoTime();
+            long deadline = t0 + durationMillis * 1_000_000L;
+            List<Future<long[]>> futures = new ArrayList<>();
+            List<LatencyHistogram> histograms = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                LatencyHistogram h = new LatencyHistogram();
+                histograms.add(h);
+                SplittableRandom rnd = new SplittableRandom(seed + i);
+                futures.add(pool.submit(() -> playUntil(http, base, d, rnd, deadline, h)));
+            }
+            long moves = 0, games = 0;
+            for (Future<long[]> f : futures) {
+                long[] r = f.get();
+                moves += r[0];
+                games += r[1];
+            }
+            LatencyHistogram all = new LatencyHistogram();
+            for (LatencyHistogram h : histograms) all.merge(h);
+            return new Result(moves, games, System.nanoTime() - t0, all);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Prueba de carga interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Fallo en la prueba de carga", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static long[] playUntil(HttpClient http, URI base, Difficulty d, SplittableRandom rnd, long deadline,
+                                    LatencyHistogram latency) throws IOException, InterruptedException {
+        long moves = 0, games = 0;
+        int cells = d.rows * d.cols;
+        boolean[] opened = new boolean[cells];
+        while (System.nanoTime() < deadline) {
+            String created = send(http, base.resolve("/games?rows=" + d.rows + "&cols=" + d.cols + "&mines=" + d.mines
+                    + "&seed=" + rnd.nextLong()), "POST");
+            String id = field(created, "id");
+            Arrays.fill(opened, false);
+            boolean over = false;
+            while (!over && System.nanoTime() < deadline) {
+                int cell = rnd.nextInt(cells);
+                if (opened[cell]) continue;
+                long t0 = System.nanoTime();
+                String res = send(http, base.resolve("/games/" + id + "/open?r=" + cell / d.cols + "&c=" + cell % d.cols), "POST");
+                latency.record(System.nanoTime() - t0);
+                moves++;
+                markOpened(res, opened);
+                over = res.contains("\"exploded\":true") || res.contains("\"win\":true");
+            }
+            send(http, base.resolve("/games/" + id), "DELETE");
+            games++;
+        }
+        return new long[]{moves, games};
+    }
+
+    private static String send(HttpClient http, URI uri, String method) throws IOException, InterruptedException {
+        HttpRequest req = HttpRequest.newBuilder(uri).method(method, HttpRequest.BodyPublishers.noBody()).build();
+        HttpResponse<String> res = http.send(req, HttpResponse.BodyHandlers.ofString());
+        if (res.statusCode() >= 300) throw new IOException("HTTP " + res.statusCode() + ": " + res.body());
+        return res.body();
+    }
+
+    // Valor de texto de un campo JSON plano ("id":"...")
+    static String field(String json, String name) {
+        String key = "\"" + name + "\":\"";
+        int i = json.indexOf(key);
+        if (i < 0) throw new IllegalStateException("Respuesta sin " + name + ": " + json);
+        int start = i + key.length();
+        return json.substring(start, json.indexOf('"', start));
+    }
+
+    // Marca las celdas de "opened":[...]
+    static void markOpened(String json, boolean[] opened) {
+        int start = json.indexOf("\"opened\":[") + 10;
+        int end = json.indexOf(']', start);
+        int v = -1;
+        for (int i = start; i < end; i++) {
+            char ch = json.charAt(i);
+            if (ch == ',') {
+                opened[v] = true;
+                v = -1;
+            } else {
+                v = (v < 0 ? 0 : v * 10) + (ch - '0');
+            }
+        }
+        if (v >= 0) opened[v] = true;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String url = null;
+        int clients = 64;
+        long seconds = 10;
+        Difficulty d = Difficulty.EXPERT;
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : "";
+            switch (args[i]) {
+                case "--url": url = value; i++; break;
+                case "--clients": clients = Integer.parseInt(value); i++; break;
+                case "--seconds": seconds = Long.parseLong(value); i++; break;
+                case "--difficulty": d = Difficulty.valueOf(value.toUpperCase(Locale.ROOT)); i++; break;
+                default: throw new IllegalArgumentException("Argumento desconocido: " + args[i]);
+            }
+        }
+        GameServer local = null;
+        if (url == null) {
+            local = new GameServer(0, 60_000, 100_000);
+            local.start();
+            url = "http://127.0.0.1:" + local.port();
+        }
+        try {
+            System.out.printf(Locale.ROOT, "url=%s clients=%d seconds=%d board=%s%n", url, clients, seconds, d.name());
+            System.out.println(run(URI.create(url), clients, seconds * 1000, d, 1));
+        } finally {
+            if (local != null) local.close();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package buscaminas;
+
+/**
+ * Source of the operating system's light/dark appearance.
+ * {@link #queryDark()} may be slow (it can fork a process), so {@link AppearanceMonitor}
+ * only calls it from its own thread, never on the EDT.
+ */
+public interface IAppearanceProvider {
+    boolean queryDark();
+
+    /**
+     * Whether the answer can change while the application runs. Fixed providers are not
+     * polled and must answer {@link #queryDark()} immediately.
+     */
+    default boolean isLive() { return true; }
+}
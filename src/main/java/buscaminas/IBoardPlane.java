@@ -0,0 +1,20 @@
+package buscaminas;
+
+/**
+ * Read-only, zero-copy view of one bit plane of the board (mines, opened or flagged cells).
+ * Bits are row-major cell indices ({@code r * cols + c}) packed 64 per word, least
+ * significant bit first, the same layout as {@link java.util.BitSet#toLongArray()}.
+ * Views are live: they reflect later moves on the game that produced them.
+ */
+public interface IBoardPlane {
+    /** Number of cells covered by the plane. */
+    int size();
+    boolean get(int index);
+
+    int wordCount();
+    long word(int w);
+
+    /** Index of the first set bit at or after {@code from}, or -1 if none. */
+    int nextSetBit(int from);
+    int cardinality();
+}
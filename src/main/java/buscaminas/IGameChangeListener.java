@@ -0,0 +1,11 @@
+package buscaminas;
+
+/**
+ * Receives the {@link GameChange}s of an {@link IMinesweeperGame} on the thread that made
+ * the move: one per action after the model has been updated, preceded for opens and chords
+ * by the {@link GameChange.Kind#OPENED} batches of that action.
+ */
+@FunctionalInterface
+public interface IGameChangeListener {
+    void gameChanged(GameChange change);
+}
@@ -0,0 +1,34 @@
+package buscaminas;
+
+/**
+ * Unbounded Minesweeper board addressed with {@code long} coordinates.
+ * Mirrors {@link IMinesweeperGame} where it makes sense; there are no board
+ * dimensions, total mine count or win condition.
+ */
+public interface IInfiniteMinesweeperGame {
+    /** Receives each cell revealed by an open/chord action. */
+    @FunctionalInterface
+    interface CellSink {
+        void accept(long r, long c);
+    }
+
+    long getSeed();
+    double getMineDensity();
+
+    boolean isMine(long r, long c);
+    boolean isOpened(long r, long c);
+    boolean isFlagged(long r, long c);
+
+    int countAdjacentMines(long r, long c);
+    int countAdjacentFlags(long r, long c);
+
+    long getFlagsCount();
+    long getOpenedCount();
+    void toggleFlag(long r, long c);
+
+    /** Returns whether a mine exploded. */
+    boolean openCell(long r, long c, CellSink sink);
+    boolean chordOpen(long r, long c, CellSink sink);
+
+    void reset();
+}
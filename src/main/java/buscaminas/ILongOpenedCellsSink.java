@@ -0,0 +1,10 @@
+package buscaminas;
+
+/**
+ * {@link IOpenedCellsSink} that also takes 64-bit cell indices, for boards whose
+ * cell count does not fit in an {@code int} (see {@link ChunkedMinesweeperGame}).
+ * Such boards only ever call {@link #acceptLong(long[], int, int)}.
+ */
+public interface ILongOpenedCellsSink extends IOpenedCellsSink {
+    void acceptLong(long[] cells, int offset, int length);
+}
@@ -0,0 +1,14 @@
+package buscaminas;
+
+/**
+ * Mine placement strategy: decides which cells around the first click must stay
+ * mine-free. The game then samples the mines uniformly, without replacement,
+ * from the remaining cells.
+ */
+public interface IMinePlacement {
+    /**
+     * Writes the row-major indices of the cells that must not hold a mine into
+     * {@code out} (length 9) in ascending order and returns how many were written.
+     */
+    int safeCells(int rows, int cols, int mines, int safeR, int safeC, int[] out);
+}
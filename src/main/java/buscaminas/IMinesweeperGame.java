@@ -13,6 +13,12 @@ public interface IMinesweeperGame {
     boolean isOpened(int r, int c);
     boolean isFlagged(int r, int c);
 
+    /** Live read-only views of the board state; prefer these to the copying accessors below. */
+    IBoardPlane minesPlane();
+    IBoardPlane openedPlane();
+    IBoardPlane flaggedPlane();
+
+    /** Compatibility shims: full {@code boolean[rows][cols]} copies built on every call. */
     boolean[][] getMines();
     boolean[][] getOpened();
 
@@ -25,8 +31,26 @@ public interface IMinesweeperGame {
     IOpenResult openCell(int r, int c);
     IOpenResult chordOpen(int r, int c);
 
+    /**
+     * Streaming variants of {@link #openCell(int, int)} and {@link #chordOpen(int, int)}:
+     * revealed cells are pushed to {@code sink} in batches instead of being collected in a list.
+     * Return whether a mine exploded. Boards with more than {@code Integer.MAX_VALUE} cells
+     * reject a sink that is not an {@link ILongOpenedCellsSink} before opening anything.
+     */
+    boolean openCell(int r, int c, IOpenedCellsSink sink);
+    boolean chordOpen(int r, int c, IOpenedCellsSink sink);
+
     boolean isWin();
 
     void reset();
+
+    /**
+     * Registers a listener that receives one {@link GameChange} per open, chord, flag change
+     * or reset; opens and chords first deliver the cells they opened in bounded
+     * {@link GameChange.Kind#OPENED} batches. Views can redraw from these deltas instead of
+     * polling the whole board.
+     */
+    void addChangeListener(IGameChangeListener listener);
+    void removeChangeListener(IGameChangeListener listener);
 }
 
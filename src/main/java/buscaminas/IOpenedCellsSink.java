@@ -0,0 +1,12 @@
+package buscaminas;
+
+/**
+ * Receives the cells revealed by an open/chord action in bounded batches,
+ * as soon as they are revealed. Cell indices are row-major ({@code r * cols + c}).
+ * The array is owned by the game and reused, so copy what you need before returning.
+ * Boards whose cell count does not fit in an {@code int} need an {@link ILongOpenedCellsSink}.
+ */
+@FunctionalInterface
+public interface IOpenedCellsSink {
+    void accept(int[] cells, int offset, int length);
+}
@@ -0,0 +1,12 @@
+package buscaminas;
+
+import java.util.Random;
+
+/**
+ * Automatic player used by {@link BatchSimulation}. Instances are created per worker
+ * thread, so they may keep state between games.
+ */
+public interface IPlayerStrategy {
+    /** Plays a fresh game (no cell opened yet) until it is won or a mine explodes. */
+    void play(IMinesweeperGame game, Random random);
+}
@@ -0,0 +1,15 @@
+package buscaminas;
+
+/**
+ * Game whose mine layout is fully determined by a board seed chosen when the mines are
+ * placed, so a {@link MoveLog} can record the seed and replay the game.
+ */
+public interface ISeededGame extends IMinesweeperGame {
+    /** Seed of the current board; only meaningful once {@link #areMinesPlaced()}. */
+    long getBoardSeed();
+
+    boolean areMinesPlaced();
+
+    /** Resets the game and pins the seed of the next board, to reproduce it. */
+    void reset(long boardSeed);
+}
@@ -0,0 +1,288 @@
+package buscaminas;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Procedurally generated unbounded board. The mines of each 64x64 chunk are derived
+ * from the seed and the chunk coordinates, materialised on demand and kept in a
+ * bounded LRU cache, so scrolling over the board never grows memory. Only what the
+ * player changes (opened and flagged cells) is stored durably.
+ * <p>
+ * A single open stops expanding once {@code maxRevealPerAction} cells are revealed; zero cells left
+ * unexpanded at the cap keep expanding when chorded.
+ */
+public class InfiniteMinesweeperGame implements IInfiniteMinesweeperGame {
+    /** Coordinates must satisfy {@code |r|, |c| < LIMIT} (chunk coordinates fit in an int). */
+    public static final long LIMIT = 1L << 37;
+
+    private static final int CHUNK_SHIFT = 6;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final class PlayerChunk {
+        final long[] opened = new long[CHUNK_SIZE];
+        final long[] flagged = new long[CHUNK_SIZE];
+    }
+
+    private final long seed;
+    private final double density;
+    private final int maxRevealPerAction;
+
+    private final Map<Long, long[]> mineCache;
+    private long lastMineKey = Long.MIN_VALUE;
+    private long[] lastMines;
+
+    private final Map<Long, PlayerChunk> player = new HashMap<>();
+    private long lastPlayerKey = Long.MIN_VALUE;
+    private PlayerChunk lastPlayer;
+
+    private boolean started = false;
+    private long firstR, firstC;
+    private long openedCount = 0;
+    private long flagsCount = 0;
+
+    // Cola circular de la expansión en curso
+    private long[] queueR = new long[256];
+    private long[] queueC = new long[256];
+
+    public InfiniteMinesweeperGame(long seed, double density) { this(seed, density, 256, 1 << 20); }
+
+    public InfiniteMinesweeperGame(long seed, double density, int maxCachedChunks, int maxRevealPerAction) {
+        if (!(density > 0 && density < 1)) throw new IllegalArgumentException("Densidad inválida");
+        if (maxCachedChunks <= 0 || maxRevealPerAction <= 0) throw new IllegalArgumentException("Límites inválidos");
+        this.seed = seed;
+        this.density = density;
+        this.maxRevealPerAction = maxRevealPerAction;
+        this.mineCache = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            @Override protected boolean removeEldestEntry(Map.Entry<Long, long[]> eldest) { return size() > maxCachedChunks; }
+        };
+    }
+
+    @Override
+    public void reset() {
+        player.clear();
+        lastPlayerKey = Long.MIN_VALUE;
+        lastPlayer = null;
+        started = false;
+        openedCount = 0;
+        flagsCount = 0;
+    }
+
+    @Override public long getSeed() { return seed; }
+    @Override public double getMineDensity() { return density; }
+    @Override public long getFlagsCount() { return flagsCount; }
+    @Override public long getOpenedCount() { return openedCount; }
+
+    /** Chunks de minas en caché en este momento. */
+    int cachedMineChunks() { return mineCache.size(); }
+    /** Chunks con estado del jugador. */
+    int playerChunks() { return player.size(); }
+
+    private static void checkRange(long r, long c) {
+        if (r <= -LIMIT || r >= LIMIT || c <= -LIMIT || c >= LIMIT) throw new IllegalArgumentException("Coordenadas fuera de rango");
+    }
+
+    private static long chunkKey(long r, long c) { return ((r >> CHUNK_SHIFT) << 32) | ((c >> CHUNK_SHIFT) & 0xffffffffL); }
+    private static long bit(long c) { return 1L << (c & CHUNK_MASK); }
+
+    // ---- minas ----
+
+    private long[] mines(long r, long c) {
+        long key = chunkKey(r, c);
+        if (key == lastMineKey) return lastMines;
+        long[] m = mineCache.get(key);
+        if (m == null) {
+            m = generate(key);
+            mineCache.put(key, m);
+        }
+        lastMineKey = key;
+        lastMines = m;
+        return m;
+    }
+
+    // Bernoulli(density) por celda mediante saltos geométricos sobre las 4096 celdas del chunk
+    private long[] generate(long key) {
+        long z = seed ^ (key * 0x9e3779b97f4a7c15L);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        SplittableRandom rnd = new SplittableRandom(z ^ (z >>> 31));
+        long[] m = new long[CHUNK_SIZE];
+        double logq = Math.log1p(-density);
+        long k = -1;
+        while (true) {
+            k += 1 + (long) (Math.log(1.0 - rnd.nextDouble()) / logq);
+            if (k >= CHUNK_SIZE * CHUNK_SIZE) break;
+            m[(int) (k >>> CHUNK_SHIFT)] |= 1L << k;
+        }
+        return m;
+    }
+
+    private boolean inFirstHalo(long r, long c) { return started && Math.abs(r - firstR) <= 1 && Math.abs(c - firstC) <= 1; }
+
+    @Override
+    public boolean isMine(long r, long c) {
+        checkRange(r, c);
+        if (inFirstHalo(r, c)) return false;
+        return (mines(r, c)[(int) (r & CHUNK_MASK)] & bit(c)) != 0;
+    }
+
+    // ---- estado del jugador ----
+
+    private PlayerChunk playerChunk(long r, long c, boolean create) {
+        long key = chunkKey(r, c);
+        if (key == lastPlayerKey) return lastPlayer;
+        PlayerChunk pc = player.get(key);
+        if (pc == null) {
+            if (!create) return null;
+            pc = new PlayerChunk();
+            player.put(key, pc);
+        }
+        lastPlayerKey = key;
+        lastPlayer = pc;
+        return pc;
+    }
+
+    @Override
+    public boolean isOpened(long r, long c) {
+        checkRange(r, c);
+        PlayerChunk pc = playerChunk(r, c, false);
+        return pc != null && (pc.opened[(int) (r & CHUNK_MASK)] & bit(c)) != 0;
+    }
+
+    @Override
+    public boolean isFlagged(long r, long c) {
+        checkRange(r, c);
+        PlayerChunk pc = playerChunk(r, c, false);
+        return pc != null && (pc.flagged[(int) (r & CHUNK_MASK)] & bit(c)) != 0;
+    }
+
+    @Override
+    public int countAdjacentMines(long r, long c) {
+        int count = 0;
+        for (long nr = r - 1; nr <= r + 1; nr++) {
+            for (long nc = c - 1; nc <= c + 1; nc++) {
+                if ((nr != r || nc != c) && isMine(nr, nc)) count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int countAdjacentFlags(long r, long c) {
+        int count = 0;
+        for (long nr = r - 1; nr <= r + 1; nr++) {
+            for (long nc = c - 1; nc <= c + 1; nc++) {
+                if ((nr != r || nc != c) && isFlagged(nr, nc)) count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void toggleFlag(long r, long c) {
+        if (isOpened(r, c)) return;
+        PlayerChunk pc = playerChunk(r, c, true);
+        int row = (int) (r & CHUNK_MASK);
+        pc.flagged[row] ^= bit(c);
+        flagsCount += (pc.flagged[row] & bit(c)) != 0 ? 1 : -1;
+    }
+
+    // ---- apertura ----
+
+    @Override
+    public boolean openCell(long r, long c, CellSink sink) {
+        Objects.requireNonNull(sink);
+        checkRange(r, c);
+        if (isFlagged(r, c)) return false;
+        if (!started) {
+            started = true;
+            firstR = r;
+            firstC = c;
+        }
+        if (isMine(r, c)) {
+            markOpened(r, c);
+            sink.accept(r, c);
+            return true;
+        }
+        if (isOpened(r, c)) return false;
+        markOpened(r, c);
+        openedCount++;
+        sink.accept(r, c);
+        flood(r, c, sink);
+        return false;
+    }
+
+    @Override
+    public boolean chordOpen(long r, long c, CellSink sink) {
+        Objects.requireNonNull(sink);
+        if (!isOpened(r, c)) return false;
+        int adjMines = countAdjacentMines(r, c);
+        if (adjMines == 0) {
+            // Retoma una expansión que se cortó por el límite de celdas
+            flood(r, c, sink);
+            return false;
+        }
+        if (countAdjacentFlags(r, c) < adjMines) return false;
+        boolean exploded = false;
+        for (long nr = r - 1; nr <= r + 1; nr++) {
+            for (long nc = c - 1; nc <= c + 1; nc++) {
+                if ((nr == r && nc == c) || isFlagged(nr, nc) || isOpened(nr, nc)) continue;
+                exploded |= openCell(nr, nc, sink);
+            }
+        }
+        return exploded;
+    }
+
+    private void markOpened(long r, long c) {
+        playerChunk(r, c, true).opened[(int) (r & CHUNK_MASK)] |= bit(c);
+    }
+
+    // BFS desde una celda ya abierta; se abre al encolar y se deja de expandir al llegar al límite
+    private void flood(long r, long c, CellSink sink) {
+        int mask = queueR.length - 1;
+        queueR[0] = r;
+        queueC[0] = c;
+        int head = 0, size = 1, revealed = 0;
+        while (size > 0 && revealed < maxRevealPerAction) {
+            long cr = queueR[head], cc = queueC[head];
+            head = (head + 1) & mask;
+            size--;
+            if (countAdjacentMines(cr, cc) != 0) continue;
+            for (long nr = cr - 1; nr <= cr + 1; nr++) {
+                for (long nc = cc - 1; nc <= cc + 1; nc++) {
+                    if (isOpened(nr, nc) || isFlagged(nr, nc) || isMine(nr, nc)) continue;
+                    markOpened(nr, nc);
+                    openedCount++;
+                    revealed++;
+                    sink.accept(nr, nc);
+                    if (size == queueR.length) {
+                        growQueue(head, size);
+                        head = 0;
+                        mask = queueR.length - 1;
+                    }
+                    int tail = (head + size) & mask;
+                    queueR[tail] = nr;
+                    queueC[tail] = nc;
+                    size++;
+                }
+            }
+        }
+    }
+
+    private void growQueue(int head, int size) {
+        long[] r = new long[queueR.length << 1];
+        long[] c = new long[queueC.length << 1];
+        int mask = queueR.length - 1;
+        for (int k = 0; k < size; k++) {
+            r[k] = queueR[(head + k) & mask];
+            c[k] = queueC[(head + k) & mask];
+        }
+        queueR = r;
+        queueC = c;
+    }
+}
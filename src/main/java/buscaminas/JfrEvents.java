@@ -0,0 +1,63 @@
+package buscaminas;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Custom Flight Recorder events, recorded with e.g.
+ * {@code java -XX:StartFlightRecording:filename=rec.jfr ...}. Callers only allocate an
+ * event when the matching shared instance's {@code isEnabled()} says a recording wants it,
+ * so they cost nothing otherwise; the {@link Metrics} registry keeps always-on aggregates
+ * of the same measurements.
+ */
+final class JfrEvents {
+    // Instancias que solo se consultan con isEnabled(): no se reservan eventos mientras nadie graba,
+    // sin depender de que el JIT elimine la reserva (las acciones de una vez por tablero siguen en C1)
+    static final Reveal REVEAL = new Reveal();
+    static final PlaceMines PLACE_MINES = new PlaceMines();
+    static final Paint PAINT = new Paint();
+    static final EdtStall EDT_STALL = new EdtStall();
+
+    private JfrEvents() {}
+
+    @Name("buscaminas.Reveal")
+    @Label("Reveal")
+    @Category({"Buscaminas", "Engine"})
+    @Description("One open or chord action of MinesweeperGame")
+    static final class Reveal extends Event {
+        @Label("Chord") boolean chord;
+        @Label("Cells Revealed") int cellsRevealed;
+        @Label("Queue Peak") @Description("Largest BFS queue seen during the action") int queuePeak;
+        @Label("Exploded") boolean exploded;
+    }
+
+    @Name("buscaminas.PlaceMines")
+    @Label("Place Mines")
+    @Category({"Buscaminas", "Engine"})
+    static final class PlaceMines extends Event {
+        @Label("Rows") int rows;
+        @Label("Columns") int cols;
+        @Label("Mines") int mines;
+    }
+
+    @Name("buscaminas.Paint")
+    @Label("Board Paint")
+    @Category({"Buscaminas", "UI"})
+    static final class Paint extends Event {
+        @Label("Cells Painted") int cellsPainted;
+    }
+
+    @Name("buscaminas.EdtStall")
+    @Label("EDT Stall")
+    @Category({"Buscaminas", "UI"})
+    @Description("An AWT event whose dispatch took longer than the stall threshold")
+    @Threshold("0 ms")
+    static final class EdtStall extends Event {
+        @Label("Event Class") String eventClass;
+        @Label("Event Id") int eventId;
+    }
+}
@@ -0,0 +1,80 @@
+package buscaminas;
+
+/**
+ * Mergeable latency histogram with log-linear buckets (16 sub-buckets per power of
+ * two, about 6% relative error). Recording is a couple of bit operations and an
+ * array increment; not thread-safe, so keep one per thread and {@link #merge} them.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB = 1 << SUB_BITS;
+    static final int BUCKETS = (64 - SUB_BITS) * SUB + SUB;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+    private long max;
+    private long sum;
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts[bucket(nanos)]++;
+        total++;
+        sum += nanos;
+        if (nanos > max) max = nanos;
+    }
+
+    /** Histogram over per-bucket counts gathered elsewhere (see {@link Metrics.Timer}). */
+    static LatencyHistogram of(long[] bucketCounts, long sum, long max) {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 0; i < BUCKETS; i++) {
+            h.counts[i] = bucketCounts[i];
+            h.total += bucketCounts[i];
+        }
+        h.sum = sum;
+        h.max = max;
+        return h;
+    }
+
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) counts[i] += other.counts[i];
+        total += other.total;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    public long count() { return total; }
+    public long max() { return max; }
+    public double mean() { return total == 0 ? 0 : sum / (double) total; }
+
+    /** Upper bound of the bucket holding the given quantile ({@code 0..1}), in nanoseconds. */
+    public long percentile(double q) {
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(q * total);
+        if (rank < 1) rank = 1;
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(max, upperBound(i));
+        }
+        return max;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(counts, 0);
+        total = sum = max = 0;
+    }
+
+    static int bucket(long v) {
+        if (v < SUB) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v);          // >= SUB_BITS
+        int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB - 1);
+        return (exp - SUB_BITS + 1) * SUB + sub;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB) return bucket;
+        int exp = bucket / SUB + SUB_BITS - 1;
+        long sub = bucket % SUB;
+        return ((SUB + sub + 1) << (exp - SUB_BITS)) - 1;
+    }
+}
@@ -6,9 +6,13 @@ import com.formdev.flatlaf.themes.FlatMacDarkLaf;
 import com.formdev.flatlaf.themes.FlatMacLightLaf;
 // no external OS detector; we do a lightweight macOS check
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.prefs.Preferences;
+
 import javax.swing.JFrame;
 import javax.swing.SwingUtilities;
-import javax.swing.Timer;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
 
@@ -17,7 +21,7 @@ public class Main {
         return System.getProperty("os.name", "").toLowerCase().contains("mac");
     }
 
-    private static void setupModernMacLook() {
+    private static void setupModernMacLook(boolean dark) {
         // macOS: move menu bar to the top and set app name
         System.setProperty("apple.laf.useScreenMenuBar", "true");
         System.setProperty("apple.awt.application.name", "Buscaminas");
@@ -25,11 +29,7 @@ public class Main {
 
         // Use FlatLaf macOS theme (Big Sur/Monterey style)
         try {
-            boolean dark = prefersDark();
-            FlatAnimatedLafChange.showSnapshot();
             if (dark) FlatMacDarkLaf.setup(); else FlatMacLightLaf.setup();
-            FlatLaf.updateUI();
-            FlatAnimatedLafChange.hideSnapshotWithAnimation();
         } catch (Throwable t) {
             // Fallback to the system LAF if FlatLaf is not present
             try {
@@ -40,31 +40,16 @@ public class Main {
         }
     }
 
-    private static boolean prefersDark() {
-        String force = System.getProperty("app.theme", "");
-        if ("dark".equalsIgnoreCase(force)) return true;
-        if ("light".equalsIgnoreCase(force)) return false;
-        // macOS detection
-        String prop = System.getProperty("apple.awt.application.appearance", "");
-        if (prop != null && prop.toLowerCase().contains("dark")) return true;
-        // Try reading global AppleInterfaceStyle; returns "Dark" when dark mode is enabled
-        try {
-            Process p = new ProcessBuilder("defaults", "read", "-g", "AppleInterfaceStyle").redirectErrorStream(true).start();
-            try (java.io.InputStream in = p.getInputStream(); java.util.Scanner s = new java.util.Scanner(in).useDelimiter("\\A")) {
-                String out = s.hasNext() ? s.next().trim() : "";
-                return out.equalsIgnoreCase("Dark");
-            }
-        } catch (java.io.IOException | SecurityException ignored) {
-            return false;
-        }
+    // Cambio de tema en caliente (en el EDT), con la animación de FlatLaf
+    private static void applyMacTheme(boolean dark) {
+        if (dark == FlatLaf.isLafDark()) return;
+        FlatAnimatedLafChange.showSnapshot();
+        if (dark) FlatMacDarkLaf.setup(); else FlatMacLightLaf.setup();
+        FlatLaf.updateUI();
+        FlatAnimatedLafChange.hideSnapshotWithAnimation();
     }
 
     private static void setNativeLookAndFeel() {
-        if (isMac()) {
-            setupModernMacLook();
-            return;
-        }
-
         // Non-macOS: use the system LAF with fallback
         JFrame.setDefaultLookAndFeelDecorated(false);
         try {
@@ -78,35 +63,57 @@ public class Main {
         }
     }
 
+    /**
+     * {@code -Dapp.edtStallMillis=N} sets the EDT stall threshold (default 100 ms);
+     * {@code -Dapp.metricsFile=path} writes a {@link Metrics} snapshot there on exit.
+     */
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> {
-            setNativeLookAndFeel();
-            startThemeWatcher();
-            MinesweeperFrame frame = new MinesweeperFrame();
-            frame.setVisible(true);
-        });
+        EdtStallDetector.install(Long.getLong("app.edtStallMillis", 100));
+        String metricsFile = System.getProperty("app.metricsFile");
+        if (metricsFile != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    Metrics.writeSnapshot(Path.of(metricsFile));
+                } catch (IOException e) {
+                    System.err.println("No se pudieron guardar las métricas: " + e.getMessage());
+                }
+            }, "metrics-snapshot"));
+        }
+        if (isMac()) {
+            // La consulta del tema del sistema lanza un proceso: va en su propio hilo y la ventana
+            // arranca con el último tema conocido
+            AppearanceMonitor appearance = new AppearanceMonitor(AppearanceProviders.detect(), 2000,
+                    Preferences.userNodeForPackage(Main.class));
+            appearance.addListener(Main::applyMacTheme);
+            SwingUtilities.invokeLater(() -> {
+                setupModernMacLook(appearance.isDark());
+                showFrame();
+            });
+            appearance.start();
+        } else {
+            SwingUtilities.invokeLater(() -> {
+                setNativeLookAndFeel();
+                showFrame();
+            });
+        }
     }
 
-    private static void startThemeWatcher() {
-        // Allow forcing theme; skip watching if explicitly set
-        String force = System.getProperty("app.theme", "");
-        if (!force.isEmpty()) return;
-
-        // Only macOS is supported for live OS theme detection here
-        if (!isMac()) return;
-
-        final boolean[] lastDark = { FlatLaf.isLafDark() };
-        Timer t = new Timer(2000, e -> {
-            boolean nowDark = prefersDark();
-            if (nowDark != lastDark[0]) {
-                lastDark[0] = nowDark;
-                FlatAnimatedLafChange.showSnapshot();
-                if (nowDark) FlatMacDarkLaf.setup(); else FlatMacLightLaf.setup();
-                FlatLaf.updateUI();
-                FlatAnimatedLafChange.hideSnapshotWithAnimation();
+    /**
+     * {@code -Dapp.startupTiming=true} prints the time from JVM start until the frame is shown;
+     * {@code -Dapp.exitAfterStartup=true} then exits (startup measurements and CDS training runs).
+     */
+    private static void showFrame() {
+        MinesweeperFrame frame = new MinesweeperFrame();
+        frame.setVisible(true);
+        SwingUtilities.invokeLater(() -> {
+            if (Boolean.getBoolean("app.startupTiming")) {
+                long ms = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+                System.out.println("startup: " + ms + " ms hasta mostrar la ventana");
+            }
+            if (Boolean.getBoolean("app.exitAfterStartup")) {
+                frame.dispose();
+                System.exit(0);
             }
         });
-        t.setRepeats(true);
-        t.start();
     }
 }
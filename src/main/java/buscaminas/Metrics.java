@@ -0,0 +1,109 @@
+package buscaminas;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide registry of always-on counters and timers. A timer is a latency
+ * histogram plus a running total of the items each sample handled (cells revealed,
+ * cells painted...). Timers are shared by every game in the process, so they hold no
+ * lock: each bucket is a {@link LongAdder}, which spreads concurrent updates over
+ * striped cells. Recording costs a {@code nanoTime} pair and a few adds, so it can stay
+ * enabled in production. {@link #snapshot()} exports everything as one JSON object.
+ */
+public final class Metrics {
+    /** Latency histogram plus item total; thread-safe and lock-free. */
+    public static final class Timer {
+        private final LongAdder[] buckets = new LongAdder[LatencyHistogram.BUCKETS];
+        private final LongAdder sum = new LongAdder();
+        private final LongAdder items = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        Timer() {
+            for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+        }
+
+        public void record(long nanos, long itemCount) {
+            if (nanos < 0) nanos = 0;
+            buckets[LatencyHistogram.bucket(nanos)].increment();
+            sum.add(nanos);
+            items.add(itemCount);
+            max.accumulate(nanos);
+        }
+
+        public long count() {
+            long n = 0;
+            for (LongAdder b : buckets) n += b.sum();
+            return n;
+        }
+
+        public long items() { return items.sum(); }
+
+        /** Copy of the samples so far; updates that race with it may be partly included. */
+        LatencyHistogram histogram() {
+            long[] counts = new long[buckets.length];
+            for (int i = 0; i < counts.length; i++) counts[i] = buckets[i].sum();
+            return LatencyHistogram.of(counts, sum.sum(), max.get());
+        }
+
+        String toJson() {
+            LatencyHistogram h = histogram();
+            return String.format(Locale.ROOT,
+                    "{\"count\":%d,\"items\":%d,\"meanUs\":%.1f,\"p50Us\":%.1f,\"p99Us\":%.1f,\"maxUs\":%.1f}",
+                    h.count(), items(), h.mean() / 1e3, h.percentile(0.5) / 1e3,
+                    h.percentile(0.99) / 1e3, h.max() / 1e3);
+        }
+
+        void clear() {
+            for (LongAdder b : buckets) b.reset();
+            sum.reset();
+            items.reset();
+            max.reset();
+        }
+    }
+
+    private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+
+    private Metrics() {}
+
+    /** The timer with this name, created on first use; keep it in a static field on hot paths. */
+    public static Timer timer(String name) { return TIMERS.computeIfAbsent(name, k -> new Timer()); }
+
+    public static LongAdder counter(String name) { return COUNTERS.computeIfAbsent(name, k -> new LongAdder()); }
+
+    /** All timers and counters, sorted by name, as a JSON object. */
+    public static String snapshot() {
+        StringBuilder sb = new StringBuilder("{\"timers\":{");
+        String sep = "";
+        for (Map.Entry<String, Timer> e : new TreeMap<>(TIMERS).entrySet()) {
+            sb.append(sep).append('"').append(e.getKey()).append("\":").append(e.getValue().toJson());
+            sep = ",";
+        }
+        sb.append("},\"counters\":{");
+        sep = "";
+        for (Map.Entry<String, LongAdder> e : new TreeMap<>(COUNTERS).entrySet()) {
+            sb.append(sep).append('"').append(e.getKey()).append("\":").append(e.getValue().sum());
+            sep = ",";
+        }
+        return sb.append("}}").toString();
+    }
+
+    public static void writeSnapshot(Path file) throws IOException {
+        Files.writeString(file, snapshot() + System.lineSeparator(), StandardCharsets.UTF_8);
+    }
+
+    /** Zeroes every timer and counter; registered instances stay valid. */
+    public static void reset() {
+        TIMERS.values().forEach(Timer::clear);
+        COUNTERS.values().forEach(LongAdder::reset);
+    }
+}
@@ -0,0 +1,35 @@
+package buscaminas;
+
+/**
+ * Built-in mine placement strategies.
+ */
+public enum MinePlacement implements IMinePlacement {
+    /** Mines anywhere, including under the first click. */
+    UNIFORM {
+        @Override public int safeCells(int rows, int cols, int mines, int safeR, int safeC, int[] out) { return 0; }
+    },
+    /** The first clicked cell is never a mine. */
+    SAFE_CELL {
+        @Override public int safeCells(int rows, int cols, int mines, int safeR, int safeC, int[] out) {
+            out[0] = safeR * cols + safeC;
+            return 1;
+        }
+    },
+    /**
+     * The first click and its neighbours are mine-free, so the first click opens a zero
+     * region. Falls back to {@link #SAFE_CELL} when the board is too dense for that.
+     */
+    SAFE_HALO {
+        @Override public int safeCells(int rows, int cols, int mines, int safeR, int safeC, int[] out) {
+            int r0 = Math.max(0, safeR - 1), r1 = Math.min(rows - 1, safeR + 1);
+            int c0 = Math.max(0, safeC - 1), c1 = Math.min(cols - 1, safeC + 1);
+            int halo = (r1 - r0 + 1) * (c1 - c0 + 1);
+            if (mines > rows * cols - halo) return SAFE_CELL.safeCells(rows, cols, mines, safeR, safeC, out);
+            int n = 0;
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) out[n++] = r * cols + c;
+            }
+            return n;
+        }
+    }
+}
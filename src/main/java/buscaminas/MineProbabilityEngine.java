@@ -0,0 +1,478 @@
+package buscaminas;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Exact mine probability of every covered cell, given the opened numbers and the
+ * total mine count. Player flags are ignored because they may be wrong.
+ * <p>
+ * Covered cells next to a number (the frontier) are split into independent
+ * components of linked constraints. Each component is counted by branching on one
+ * cell at a time; once a branch disconnects the remaining cells, the pieces are
+ * counted separately and memoised by their signature for the rest of the enumeration.
+ * This yields, for every possible mine count, the number of solutions and how many of
+ * them put a mine on each cell. Whole components are also memoised across calls by
+ * their constraint signature, so unchanged parts of the frontier are not enumerated
+ * again on the next move. Components are solved in parallel on a {@link ForkJoinPool} and then
+ * combined with the binomial weight of the cells away from the frontier.
+ */
+public class MineProbabilityEngine {
+    private static final int MEMO_LIMIT = 4096;
+    private static final int CHECK_EVERY = 1 << 8;
+    private static final int SUB_MEMO_LIMIT = 1 << 16;
+
+    private final ForkJoinPool pool;
+    private final Map<ComponentKey, ComponentResult> memo = new ConcurrentHashMap<>();
+    private final AtomicLong cancelRequests = new AtomicLong();
+
+    public MineProbabilityEngine() { this(ForkJoinPool.commonPool()); }
+
+    public MineProbabilityEngine(ForkJoinPool pool) { this.pool = Objects.requireNonNull(pool); }
+
+    /**
+     * Cancels every computation started by {@link #compute(IMinesweeperGame, long)} that is
+     * still in progress; each ends with {@link CancellationException}. Later calls are not affected.
+     */
+    public void cancel() { cancelRequests.incrementAndGet(); }
+
+    /**
+     * Returns the mine probability of every cell, row-major. Opened cells report 0
+     * (1 for an opened mine).
+     *
+     * @throws CancellationException if the time budget runs out or {@link #cancel()} is called
+     * @throws IllegalStateException if the opened numbers admit no mine layout
+     */
+    public double[] compute(IMinesweeperGame game, long budgetNanos) {
+        long seen = cancelRequests.get();
+        return compute(game, budgetNanos, () -> cancelRequests.get() != seen);
+    }
+
+    /**
+     * Same as {@link #compute(IMinesweeperGame, long)}, cancelled when {@code cancelled}
+     * returns {@code true}. The token belongs to this call only, so concurrent
+     * computations on the same engine do not affect each other.
+     */
+    public double[] compute(IMinesweeperGame game, long budgetNanos, BooleanSupplier cancelled) {
+        Objects.requireNonNull(cancelled);
+        long deadline = System.nanoTime() + budgetNanos;
+        int rows = game.getRows(), cols = game.getCols(), n = rows * cols;
+        double[] prob = new double[n];
+
+        // Variables: celdas cubiertas junto a un número; las minas ya abiertas cuentan como fijas
+        int[] varOf = new int[n];
+        Arrays.fill(varOf, -1);
+        int[] varCell = new int[n];
+        int vars = 0, openedMines = 0, covered = 0;
+        List<int[]> constraints = new ArrayList<>(); // {celda, minas restantes, variables...}
+        IBoardPlane opened = game.openedPlane();
+        int[] scratch = new int[8];
+        for (int i = 0; i < n; i++) {
+            int r = i / cols, c = i % cols;
+            if (!opened.get(i)) { covered++; continue; }
+            if (game.isMine(r, c)) { openedMines++; prob[i] = 1; continue; }
+            int need = game.countAdjacentMines(r, c), k = 0;
+            for (int nr = Math.max(0, r - 1); nr <= Math.min(rows - 1, r + 1); nr++) {
+                for (int nc = Math.max(0, c - 1); nc <= Math.min(cols - 1, c + 1); nc++) {
+                    int ni = nr * cols + nc;
+                    if (ni == i) continue;
+                    if (!opened.get(ni)) scratch[k++] = ni;
+                    else if (game.isMine(nr, nc)) need--;
+                }
+            }
+            if (k == 0) continue;
+            int[] con = new int[2 + k];
+            con[0] = i;
+            con[1] = need;
+            for (int j = 0; j < k; j++) {
+                int ni = scratch[j];
+                if (varOf[ni] < 0) { varOf[ni] = vars; varCell[vars++] = ni; }
+                con[2 + j] = varOf[ni];
+            }
+            constraints.add(con);
+        }
+
+        // Componentes: unión-búsqueda sobre variables que comparten restricción
+        int[] parent = new int[vars];
+        for (int v = 0; v < vars; v++) parent[v] = v;
+        for (int[] con : constraints) {
+            for (int j = 3; j < con.length; j++) union(parent, con[2], con[j]);
+        }
+        Map<Integer, List<int[]>> byRoot = new LinkedHashMap<>();
+        for (int[] con : constraints) byRoot.computeIfAbsent(find(parent, con[2]), root -> new ArrayList<>()).add(con);
+
+        List<Component> components = new ArrayList<>();
+        for (List<int[]> cons : byRoot.values()) components.add(new Component(cons, varCell));
+        ComponentResult[] results = solveAll(components, cancelled, deadline);
+
+        // Combinación: distribución conjunta de minas en la frontera por el peso binomial del resto
+        int free = covered - vars;
+        int mines = game.getTotalMines() - openedMines;
+        double[] logFact = new double[n + 2];
+        for (int k = 1; k < logFact.length; k++) logFact[k] = logFact[k - 1] + Math.log(k);
+        int maxFrontier = 0;
+        for (ComponentResult res : results) maxFrontier += res.ways.length - 1;
+        double[] weight = new double[maxFrontier + 1];
+        double maxLog = Double.NEGATIVE_INFINITY;
+        for (int s = 0; s <= maxFrontier; s++) {
+            int rest = mines - s;
+            weight[s] = (rest < 0 || rest > free) ? Double.NEGATIVE_INFINITY
+                    : logFact[free] - logFact[rest] - logFact[free - rest];
+            maxLog = Math.max(maxLog, weight[s]);
+        }
+        if (maxLog == Double.NEGATIVE_INFINITY) throw new IllegalStateException("Estado inconsistente");
+        for (int s = 0; s <= maxFrontier; s++) weight[s] = Math.exp(weight[s] - maxLog);
+
+        int k = results.length;
+        double[][] prefix = new double[k + 1][];
+        double[][] suffix = new double[k + 1][];
+        prefix[0] = new double[]{1};
+        suffix[k] = new double[]{1};
+        for (int j = 0; j < k; j++) prefix[j + 1] = convolve(prefix[j], results[j].ways);
+        for (int j = k - 1; j >= 0; j--) suffix[j] = convolve(results[j].ways, suffix[j + 1]);
+        double[] all = prefix[k];
+
+        double total = 0, freeMines = 0;
+        for (int s = 0; s < all.length; s++) {
+            total += all[s] * weight[s];
+            freeMines += all[s] * weight[s] * (mines - s);
+        }
+        if (!(total > 0)) throw new IllegalStateException("Estado inconsistente");
+
+        for (int j = 0; j < k; j++) {
+            ComponentResult res = results[j];
+            double[] others = convolve(prefix[j], suffix[j + 1]);
+            double[] g = new double[res.ways.length];
+            for (int m = 0; m < g.length; m++) {
+                for (int t = 0; t < others.length; t++) g[m] += others[t] * weight[m + t];
+            }
+            int[] cells = components.get(j).cells;
+            for (int v = 0; v < cells.length; v++) {
+                double p = 0;
+                for (int m = 0; m < g.length; m++) p += res.minesAt[v][m] * g[m];
+                prob[cells[v]] = p / total;
+            }
+        }
+        double freeProb = free == 0 ? 0 : freeMines / total / free;
+        for (int i = 0; i < n; i++) {
+            if (!opened.get(i) && varOf[i] < 0) prob[i] = freeProb;
+        }
+        return prob;
+    }
+
+    private ComponentResult[] solveAll(List<Component> components, BooleanSupplier cancelled, long deadline) {
+        ComponentResult[] results = new ComponentResult[components.size()];
+        List<Callable<ComponentResult>> tasks = new ArrayList<>();
+        List<Integer> pending = new ArrayList<>();
+        for (int j = 0; j < results.length; j++) {
+            Component comp = components.get(j);
+            ComponentResult cached = memo.get(comp.key);
+            if (cached != null) { results[j] = cached; continue; }
+            pending.add(j);
+            tasks.add(() -> comp.enumerate(cancelled, deadline));
+        }
+        if (tasks.size() == 1) {
+            results[pending.get(0)] = call(tasks.get(0));
+        } else if (!tasks.isEmpty()) {
+            List<Future<ComponentResult>> futures = pool.invokeAll(tasks);
+            for (int t = 0; t < futures.size(); t++) {
+                try {
+                    results[pending.get(t)] = futures.get(t).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("Interrumpido");
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        }
+        if (memo.size() > MEMO_LIMIT) memo.clear();
+        for (int j : pending) memo.put(components.get(j).key, results[j]);
+        return results;
+    }
+
+    private static ComponentResult call(Callable<ComponentResult> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double[] convolve(double[] a, double[] b) {
+        double[] out = new double[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == 0) continue;
+            for (int j = 0; j < b.length; j++) out[i + j] += a[i] * b[j];
+        }
+        return out;
+    }
+
+    private static int find(int[] parent, int v) {
+        while (parent[v] != v) v = parent[v] = parent[parent[v]];
+        return v;
+    }
+
+    private static void union(int[] parent, int a, int b) { parent[find(parent, a)] = find(parent, b); }
+
+    /** Soluciones por número de minas ({@code ways}) y, por celda, cuántas tienen mina en ella. */
+    private static final class ComponentResult {
+        final double[] ways;
+        final double[][] minesAt;
+
+        ComponentResult(double[] ways, double[][] minesAt) {
+            this.ways = ways;
+            this.minesAt = minesAt;
+        }
+    }
+
+    /** Firma de una componente: celdas de las restricciones, minas pendientes y celdas de las variables. */
+    private static final class ComponentKey {
+        private final int[] data;
+        private final int hash;
+
+        ComponentKey(int[] data) {
+            this.data = data;
+            this.hash = Arrays.hashCode(data);
+        }
+
+        @Override public boolean equals(Object o) { return o instanceof ComponentKey && Arrays.equals(data, ((ComponentKey) o).data); }
+        @Override public int hashCode() { return hash; }
+    }
+
+    private static final class Component {
+        final int[] cells;        // celda de cada variable local
+        final int[][] consVars;   // variables locales de cada restricción
+        final int[] consNeed;
+        final int[][] varCons;    // restricciones de cada variable
+        final ComponentKey key;
+
+        Component(List<int[]> cons, int[] varCell) {
+            // Variables locales en orden de aparición para que las restricciones se cierren pronto
+            Map<Integer, Integer> local = new HashMap<>();
+            List<Integer> order = new ArrayList<>();
+            consVars = new int[cons.size()][];
+            consNeed = new int[cons.size()];
+            List<int[]> sorted = new ArrayList<>(cons);
+            sorted.sort((a, b) -> Integer.compare(a[0], b[0]));
+            int keyLen = 0;
+            for (int j = 0; j < sorted.size(); j++) {
+                int[] con = sorted.get(j);
+                consNeed[j] = con[1];
+                consVars[j] = new int[con.length - 2];
+                for (int t = 2; t < con.length; t++) {
+                    Integer lv = local.get(con[t]);
+                    if (lv == null) {
+                        lv = order.size();
+                        local.put(con[t], lv);
+                        order.add(con[t]);
+                    }
+                    consVars[j][t - 2] = lv;
+                }
+                keyLen += con.length;
+            }
+            cells = new int[order.size()];
+            for (int v = 0; v < cells.length; v++) cells[v] = varCell[order.get(v)];
+            int[] counts = new int[cells.length];
+            for (int[] cv : consVars) for (int v : cv) counts[v]++;
+            varCons = new int[cells.length][];
+            for (int v = 0; v < cells.length; v++) varCons[v] = new int[counts[v]];
+            Arrays.fill(counts, 0);
+            for (int j = 0; j < consVars.length; j++) {
+                for (int v : consVars[j]) varCons[v][counts[v]++] = j;
+            }
+
+            int[] data = new int[keyLen + cells.length];
+            int p = 0;
+            for (int[] con : sorted) {
+                data[p++] = con[0];
+                data[p++] = con[1];
+                for (int t = 2; t < con.length; t++) data[p++] = varCell[con[t]];
+            }
+            for (int cell : cells) data[p++] = cell;
+            key = new ComponentKey(data);
+        }
+
+        ComponentResult enumerate(BooleanSupplier cancelled, long deadline) {
+            if (cancelled.getAsBoolean() || System.nanoTime() > deadline) throw new CancellationException("Presupuesto de tiempo agotado");
+            int[] all = new int[cells.length];
+            for (int v = 0; v < all.length; v++) all[v] = v;
+            ComponentResult res = new Enumeration(this, cancelled, deadline).count(all);
+            double sum = 0;
+            for (double w : res.ways) sum += w;
+            if (sum == 0) throw new IllegalStateException("Estado inconsistente");
+            return res;
+        }
+    }
+
+    /**
+     * Recuento de una componente por ramificación: tras fijar una variable, las restantes
+     * se separan en subcomponentes independientes que se cuentan por separado y se
+     * memorizan por su firma (restricciones activas con sus minas pendientes).
+     */
+    private static final class Enumeration {
+        final Component comp;
+        final BooleanSupplier cancelled;
+        final long deadline;
+        final int[] need;
+        final int[] open;
+        final boolean[] assigned;
+        final int[] localPos;
+        final int[] parent;
+        final int[] partSize;
+        final int[] consStamp;
+        int stamp;
+        long steps;
+        final Map<ComponentKey, ComponentResult> memo = new HashMap<>();
+
+        Enumeration(Component comp, BooleanSupplier cancelled, long deadline) {
+            this.comp = comp;
+            this.cancelled = cancelled;
+            this.deadline = deadline;
+            int nv = comp.cells.length, nc = comp.consNeed.length;
+            need = comp.consNeed.clone();
+            open = new int[nc];
+            for (int j = 0; j < nc; j++) open[j] = comp.consVars[j].length;
+            assigned = new boolean[nv];
+            localPos = new int[nv];
+            parent = new int[nv];
+            partSize = new int[nv];
+            consStamp = new int[nc];
+        }
+
+        // vars: variables sin asignar, en orden creciente, conexas por restricciones activas
+        ComponentResult count(int[] vars) {
+            if ((++steps & (CHECK_EVERY - 1)) == 0 && (cancelled.getAsBoolean() || System.nanoTime() > deadline)) {
+                throw new CancellationException("Presupuesto de tiempo agotado");
+            }
+            ComponentKey key = signature(vars);
+            ComponentResult cached = memo.get(key);
+            if (cached != null) return cached;
+
+            int n = vars.length;
+            double[] ways = new double[n + 1];
+            double[][] minesAt = new double[n][n + 1];
+            int v0 = vars[0];
+            int[] rest = Arrays.copyOfRange(vars, 1, n);
+            for (int bit = 0; bit <= 1; bit++) {
+                if (!assign(v0, bit)) {
+                    unassign(v0, bit);
+                    continue;
+                }
+                List<int[]> parts = split(rest);
+                ComponentResult[] sub = new ComponentResult[parts.size()];
+                for (int p = 0; p < sub.length; p++) sub[p] = count(parts.get(p));
+                int k = sub.length;
+                double[][] prefix = new double[k + 1][];
+                double[][] suffix = new double[k + 1][];
+                prefix[0] = new double[]{1};
+                suffix[k] = new double[]{1};
+                for (int p = 0; p < k; p++) prefix[p + 1] = convolve(prefix[p], sub[p].ways);
+                for (int p = k - 1; p >= 0; p--) suffix[p] = convolve(sub[p].ways, suffix[p + 1]);
+                double[] total = prefix[k];
+                for (int m = 0; m < total.length; m++) ways[m + bit] += total[m];
+                if (bit == 1) {
+                    for (int m = 0; m < total.length; m++) minesAt[0][m + 1] += total[m];
+                }
+                for (int p = 0; p < k; p++) {
+                    double[] others = convolve(prefix[p], suffix[p + 1]);
+                    int[] part = parts.get(p);
+                    for (int u = 0; u < part.length; u++) {
+                        double[] at = convolve(sub[p].minesAt[u], others);
+                        double[] dst = minesAt[Arrays.binarySearch(vars, part[u])];
+                        for (int m = 0; m < at.length; m++) dst[m + bit] += at[m];
+                    }
+                }
+                unassign(v0, bit);
+            }
+            ComponentResult res = new ComponentResult(ways, minesAt);
+            if (memo.size() < SUB_MEMO_LIMIT) memo.put(key, res);
+            return res;
+        }
+
+        // Fija la variable y devuelve si todas sus restricciones siguen siendo satisfacibles
+        private boolean assign(int v, int bit) {
+            assigned[v] = true;
+            boolean ok = true;
+            for (int j : comp.varCons[v]) {
+                need[j] -= bit;
+                open[j]--;
+                if (need[j] < 0 || need[j] > open[j]) ok = false;
+            }
+            return ok;
+        }
+
+        private void unassign(int v, int bit) {
+            assigned[v] = false;
+            for (int j : comp.varCons[v]) {
+                need[j] += bit;
+                open[j]++;
+            }
+        }
+
+        private List<int[]> split(int[] vars) {
+            List<int[]> parts = new ArrayList<>();
+            if (vars.length == 0) return parts;
+            for (int v : vars) parent[v] = v;
+            for (int v : vars) {
+                for (int j : comp.varCons[v]) {
+                    for (int u : comp.consVars[j]) {
+                        if (!assigned[u]) union(parent, v, u);
+                    }
+                }
+            }
+            for (int v : vars) partSize[find(parent, v)] = 0;
+            for (int v : vars) partSize[find(parent, v)]++;
+            Map<Integer, int[]> byRoot = new HashMap<>();
+            for (int v : vars) {
+                int root = find(parent, v);
+                int[] part = byRoot.get(root);
+                if (part == null) {
+                    part = new int[partSize[root]];
+                    partSize[root] = 0;
+                    byRoot.put(root, part);
+                    parts.add(part);
+                }
+                part[partSize[root]++] = v;
+            }
+            return parts;
+        }
+
+        private ComponentKey signature(int[] vars) {
+            for (int p = 0; p < vars.length; p++) localPos[vars[p]] = p;
+            stamp++;
+            int[] data = new int[16];
+            int len = 0;
+            data[len++] = vars.length;
+            for (int v : vars) {
+                for (int j : comp.varCons[v]) {
+                    if (consStamp[j] == stamp) continue;
+                    consStamp[j] = stamp;
+                    if (len + 2 + open[j] > data.length) data = Arrays.copyOf(data, Math.max(data.length * 2, len + 2 + open[j]));
+                    data[len++] = need[j];
+                    data[len++] = open[j];
+                    for (int u : comp.consVars[j]) {
+                        if (!assigned[u]) data[len++] = localPos[u];
+                    }
+                }
+            }
+            return new ComponentKey(Arrays.copyOf(data, len));
+        }
+    }
+}
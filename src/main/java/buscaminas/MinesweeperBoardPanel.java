@@ -1,30 +1,46 @@
 package buscaminas;
 
-import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Font;
-import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.awt.Polygon;
+import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
+import java.awt.event.InputEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.List;
+import java.awt.event.MouseWheelEvent;
+import java.util.Arrays;
 
 import javax.swing.JComponent;
+import javax.swing.JScrollPane;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 
 import com.formdev.flatlaf.FlatLaf;
 
-class MinesweeperBoardPanel extends JComponent {
+/**
+ * Board view. On its own it stretches the cells to its size; inside a {@link JScrollPane}
+ * it fills the viewport while the board fits and scrolls once it does not, so only the
+ * visible cells are painted. Ctrl+wheel zooms around the pointer and dragging with the
+ * middle button pans.
+ * <p>
+ * The view follows the game through its {@link GameChange} events: each action repaints
+ * only the cells it changed, and boards of up to {@link #TILE_CACHE_LIMIT} cells keep a
+ * byte per cell with the tile to draw, so painting does not query the model.
+ */
+class MinesweeperBoardPanel extends JComponent implements Scrollable {
     private static final long serialVersionUID = 1L;
-    interface Listener {
-        void onCellsOpened(List<? extends ICell> opened, boolean exploded, int clickedR, int clickedC);
-        void onFlagToggled();
-    }
+    static final int MIN_CELL_SIZE = 8;
+    static final int MAX_CELL_SIZE = 96;
+    private static final Metrics.Timer PAINT_TIMER = Metrics.timer("ui.paint");
+    static final int TILE_CACHE_LIMIT = 1 << 22;
+    private static final IOpenedCellsSink DISCARD = (cells, offset, length) -> {};
 
     private Color colorCellBg;
     private Color colorCellOpen;
@@ -33,29 +49,45 @@ class MinesweeperBoardPanel extends JComponent {
     private Color colorGrid;
 
     private Color[] numColors;
+    private CellTiles tiles;
 
     private final IMinesweeperGame game;
-    @SuppressWarnings("unused")
-    private final Listener listener;
+    private final IGameChangeListener listener;
+    private final IGameChangeListener changeListener = this::gameChanged;
+    // Tile de cada celda (CellTiles), mantenido con los GameChange; null en tableros enormes
+    private final byte[] tileCache;
+    // Recuadro de las celdas abiertas por los lotes OPENED de la acción en curso
+    private int dirtyR0 = Integer.MAX_VALUE, dirtyC0 = Integer.MAX_VALUE, dirtyR1 = -1, dirtyC1 = -1;
     // Base cell size used for text sizing; actual drawing scales to component size
     private int baseCellSize = 28;
     private boolean revealAll = false;
     private int explodedR = -1, explodedC = -1;
     private boolean locked = false;
+    private boolean zoomed = false;
+    private Point panOrigin;
     private Font numberFont;
 
-    MinesweeperBoardPanel(IMinesweeperGame game, Listener listener) {
+    /** {@code listener} receives the game's changes after the view has applied them. */
+    MinesweeperBoardPanel(IMinesweeperGame game, IGameChangeListener listener) {
         this.game = game;
         this.listener = listener;
+        long cells = (long) game.getRows() * game.getCols();
+        this.tileCache = cells <= TILE_CACHE_LIMIT ? new byte[(int) cells] : null;
+        loadTiles();
+        game.addChangeListener(changeListener);
         setOpaque(true);
-        refreshColors();
         Font base = getFont();
         if (base == null) base = UIManager.getFont("Label.font");
         if (base == null) base = new Font(Font.SANS_SERIF, Font.PLAIN, 12);
         numberFont = base.deriveFont(Font.BOLD, 14f);
+        refreshColors();
 
-        addMouseListener(new MouseAdapter() {
+        MouseAdapter mouse = new MouseAdapter() {
             @Override public void mousePressed(MouseEvent e) {
+                if (SwingUtilities.isMiddleMouseButton(e)) {
+                    panOrigin = e.getLocationOnScreen();
+                    return;
+                }
                 if (locked) return;
                 requestFocusInWindow();
                 int col = (int) Math.floor(e.getX() / cellWidthF());
@@ -65,42 +97,174 @@ class MinesweeperBoardPanel extends JComponent {
                 if (row < 0 || col < 0 || row >= game.getRows() || col >= game.getCols()) return;
 
                 if (SwingUtilities.isRightMouseButton(e)) {
-                    if (!game.isOpened(row, col)) {
-                        game.toggleFlag(row, col);
-                        if (listener != null) listener.onFlagToggled();
-                        repaintCell(row, col);
-                    }
+                    rightClick(row, col);
                 } else if (SwingUtilities.isLeftMouseButton(e)) {
-                    if (game.isFlagged(row, col)) return;
-                    IOpenResult res;
-                    if (game.isOpened(row, col)) {
-                        res = game.chordOpen(row, col);
-                    } else {
-                        res = game.openCell(row, col);
-                    }
-                    if (res.exploded()) {
-                        revealAllMines(row, col);
-                    }
-                    if (listener != null) listener.onCellsOpened(res.openedCells(), res.exploded(), row, col);
-                    repaint();
+                    leftClick(row, col);
+                }
+            }
+
+            @Override public void mouseDragged(MouseEvent e) {
+                JViewport vp = viewport();
+                if (panOrigin == null || vp == null) return;
+                Point now = e.getLocationOnScreen();
+                Point pos = vp.getViewPosition();
+                scrollTo(vp, pos.x - (now.x - panOrigin.x), pos.y - (now.y - panOrigin.y));
+                panOrigin = now;
+            }
+
+            @Override public void mouseReleased(MouseEvent e) {
+                if (SwingUtilities.isMiddleMouseButton(e)) panOrigin = null;
+            }
+
+            @Override public void mouseWheelMoved(MouseWheelEvent e) {
+                if ((e.getModifiersEx() & (InputEvent.CTRL_DOWN_MASK | InputEvent.META_DOWN_MASK)) != 0) {
+                    zoom(e.getPreciseWheelRotation() < 0 ? 1.25 : 0.8, e.getPoint());
+                    return;
                 }
+                // Sin modificador, la rueda desplaza: se reenvía al JScrollPane
+                JScrollPane sp = (JScrollPane) SwingUtilities.getAncestorOfClass(JScrollPane.class, MinesweeperBoardPanel.this);
+                if (sp != null) sp.dispatchEvent(SwingUtilities.convertMouseEvent(MinesweeperBoardPanel.this, e, sp));
             }
-        });
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
+    }
+
+    /** Opens the cell, or chords it if it is already open; flagged cells are ignored. */
+    void leftClick(int row, int col) {
+        if (game.isFlagged(row, col)) return;
+        if (game.isOpened(row, col)) chord(row, col); else open(row, col);
+    }
+
+    /** Toggles the flag of a covered cell. */
+    void rightClick(int row, int col) {
+        if (game.isOpened(row, col)) return;
+        game.toggleFlag(row, col);
+    }
+
+    void open(int row, int col) { game.openCell(row, col, DISCARD); }
+
+    void chord(int row, int col) { game.chordOpen(row, col, DISCARD); }
+
+    /** Stops following the game; call it when the panel is discarded. */
+    void detach() { game.removeChangeListener(changeListener); }
+
+    private void gameChanged(GameChange change) {
+        // Los juegos concurrentes avisan desde el hilo que jugó; el lote solo vale durante el aviso
+        if (!SwingUtilities.isEventDispatchThread()) {
+            GameChange detached = change.detached();
+            SwingUtilities.invokeLater(() -> gameChanged(detached));
+            return;
+        }
+        switch (change.kind) {
+            case OPENED:
+                cellsOpened(change);
+                return;
+            case OPEN:
+            case CHORD:
+                actionDone(change);
+                break;
+            case FLAG:
+                if (tileCache != null) tileCache[change.row * game.getCols() + change.col] = (byte) tileFor(change.row, change.col);
+                repaintCell(change.row, change.col);
+                break;
+            case RESET:
+                revealAll = false;
+                explodedR = explodedC = -1;
+                loadTiles();
+                repaint();
+                break;
+        }
+        if (listener != null) listener.gameChanged(change);
+    }
+
+    private void cellsOpened(GameChange change) {
+        int cols = game.getCols();
+        for (int k = 0; k < change.openedCount; k++) {
+            long cell = change.openedCell(k);
+            int r = (int) (cell / cols), c = (int) (cell % cols);
+            if (tileCache != null) tileCache[(int) cell] = (byte) tileFor(r, c);
+            if (r < dirtyR0) dirtyR0 = r;
+            if (r > dirtyR1) dirtyR1 = r;
+            if (c < dirtyC0) dirtyC0 = c;
+            if (c > dirtyC1) dirtyC1 = c;
+        }
+    }
+
+    private void actionDone(GameChange change) {
+        if (change.exploded) {
+            revealAllMines(change.row, change.col);
+        } else if (dirtyR1 >= 0) {
+            repaintCells(dirtyR0, dirtyC0, dirtyR1, dirtyC1);
+        }
+        dirtyR0 = dirtyC0 = Integer.MAX_VALUE;
+        dirtyR1 = dirtyC1 = -1;
+    }
+
+    // Tile que muestra la celda sin el modo "revelar minas"
+    private int tileFor(int r, int c) {
+        if (game.isOpened(r, c)) return CellTiles.OPEN + game.countAdjacentMines(r, c);
+        return game.isFlagged(r, c) ? CellTiles.FLAG : CellTiles.CLOSED;
+    }
+
+    // Carga completa desde los planos, al crear el panel (partida reanudada) o al reiniciar
+    private void loadTiles() {
+        if (tileCache == null) return;
+        Arrays.fill(tileCache, (byte) CellTiles.CLOSED);
+        int cols = game.getCols();
+        IBoardPlane opened = game.openedPlane(), flagged = game.flaggedPlane();
+        for (int i = opened.nextSetBit(0); i >= 0; i = opened.nextSetBit(i + 1)) {
+            tileCache[i] = (byte) (CellTiles.OPEN + game.countAdjacentMines(i / cols, i % cols));
+        }
+        for (int i = flagged.nextSetBit(0); i >= 0; i = flagged.nextSetBit(i + 1)) tileCache[i] = CellTiles.FLAG;
     }
 
     void setLocked(boolean locked) { this.locked = locked; }
 
     void setCellSize(int cellSize) {
-        // Keep for compatibility with existing Frame logic; affects number font size only
-        this.baseCellSize = Math.max(16, Math.min(64, cellSize));
-        Font base = getFont();
-        if (base == null) base = UIManager.getFont("Label.font");
-        if (base == null) base = new Font(Font.SANS_SERIF, Font.PLAIN, 12);
-        numberFont = base.deriveFont(Font.BOLD, Math.max(10f, this.baseCellSize * 0.5f));
+        // Only the preferred size depends on it; tiles are sized from the actual cell bounds
+        int size = Math.max(MIN_CELL_SIZE, Math.min(MAX_CELL_SIZE, cellSize));
+        if (size == baseCellSize) return;
+        this.baseCellSize = size;
         revalidate();
         repaint();
     }
 
+    int getCellSize() { return baseCellSize; }
+
+    /** Whether the user has zoomed; the frame then stops fitting the cell size to the window. */
+    boolean isZoomed() { return zoomed; }
+
+    /** Scales the cell size by {@code factor}, keeping the cell under {@code anchor} (panel coordinates) in place. */
+    void zoom(double factor, Point anchor) {
+        int from = (int) Math.round(cellWidthF());
+        int to = (int) Math.round(from * factor);
+        if (to == from) to = from + (factor > 1 ? 1 : -1);
+        to = Math.max(MIN_CELL_SIZE, Math.min(MAX_CELL_SIZE, to));
+        JViewport vp = viewport();
+        if (vp == null || to == from) return;
+        double u = anchor.x / cellWidthF(), v = anchor.y / cellHeightF();
+        Point pos = vp.getViewPosition();
+        int dx = anchor.x - pos.x, dy = anchor.y - pos.y;
+        zoomed = true;
+        baseCellSize = to;
+        vp.doLayout();
+        scrollTo(vp, (int) Math.round(u * cellWidthF()) - dx, (int) Math.round(v * cellHeightF()) - dy);
+        repaint();
+    }
+
+    private JViewport viewport() {
+        return getParent() instanceof JViewport ? (JViewport) getParent() : null;
+    }
+
+    private void scrollTo(JViewport vp, int x, int y) {
+        Dimension view = vp.getViewSize(), extent = vp.getExtentSize();
+        x = Math.max(0, Math.min(x, view.width - extent.width));
+        y = Math.max(0, Math.min(y, view.height - extent.height));
+        vp.setViewPosition(new Point(x, y));
+    }
+
     void revealAllMines(int clickedR, int clickedC) {
         this.revealAll = true;
         this.explodedR = clickedR;
@@ -114,21 +278,62 @@ class MinesweeperBoardPanel extends JComponent {
         return new Dimension(game.getCols() * baseCellSize, game.getRows() * baseCellSize);
     }
 
+    @Override public Dimension getPreferredScrollableViewportSize() { return getPreferredSize(); }
+
+    @Override public int getScrollableUnitIncrement(Rectangle visible, int orientation, int direction) {
+        return Math.max(1, (int) Math.round(orientation == SwingConstants.VERTICAL ? cellHeightF() : cellWidthF()));
+    }
+
+    @Override public int getScrollableBlockIncrement(Rectangle visible, int orientation, int direction) {
+        int extent = orientation == SwingConstants.VERTICAL ? visible.height : visible.width;
+        return Math.max(1, extent - getScrollableUnitIncrement(visible, orientation, direction));
+    }
+
+    // Mientras el tablero cabe, se estira al viewport como antes; si no, se desplaza
+    @Override public boolean getScrollableTracksViewportWidth() {
+        return getParent() instanceof JViewport && getParent().getWidth() >= getPreferredSize().width;
+    }
+
+    @Override public boolean getScrollableTracksViewportHeight() {
+        return getParent() instanceof JViewport && getParent().getHeight() >= getPreferredSize().height;
+    }
+
     @Override protected void paintComponent(Graphics g) {
+        JfrEvents.Paint event = JfrEvents.PAINT.isEnabled() ? new JfrEvents.Paint() : null;
+        if (event != null) event.begin();
+        long t0 = System.nanoTime();
+        int painted = paintBoard(g);
+        PAINT_TIMER.record(System.nanoTime() - t0, painted);
+        if (event != null && event.shouldCommit()) {
+            event.cellsPainted = painted;
+            event.commit();
+        }
+    }
+
+    // Pinta la parte del tablero que toca el clip; devuelve cuántas celdas pintó
+    private int paintBoard(Graphics g) {
         super.paintComponent(g);
         Graphics2D g2 = (Graphics2D) g.create();
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
         int rows = game.getRows();
         int cols = game.getCols();
+        Rectangle clip = g2.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
         g2.setColor(getBackground());
-        g2.fillRect(0, 0, getWidth(), getHeight());
+        g2.fillRect(clip.x, clip.y, clip.width, clip.height);
 
         double cw = cellWidthF();
         double ch = cellHeightF();
 
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
+        // Solo las filas/columnas que tocan el clip (una de margen por el redondeo)
+        int r0 = Math.max(0, (int) Math.floor(clip.y / ch) - 1);
+        int r1 = Math.min(rows - 1, (int) Math.floor((clip.y + clip.height) / ch) + 1);
+        int c0 = Math.max(0, (int) Math.floor(clip.x / cw) - 1);
+        int c1 = Math.min(cols - 1, (int) Math.floor((clip.x + clip.width) / cw) + 1);
+
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
                 int x0 = (int) Math.round(c * cw);
                 int y0 = (int) Math.round(r * ch);
                 int x1 = (int) Math.round((c + 1) * cw);
@@ -138,89 +343,39 @@ class MinesweeperBoardPanel extends JComponent {
         }
 
         g2.setColor(colorGrid);
-        for (int r = 0; r <= rows; r++) {
+        for (int r = r0; r <= r1 + 1; r++) {
             int y = (int) Math.round(r * ch);
-            g2.drawLine(0, y, getWidth(), y);
+            g2.drawLine(clip.x, y, clip.x + clip.width, y);
         }
-        for (int c = 0; c <= cols; c++) {
+        for (int c = c0; c <= c1 + 1; c++) {
             int x = (int) Math.round(c * cw);
-            g2.drawLine(x, 0, x, getHeight());
+            g2.drawLine(x, clip.y, x, clip.y + clip.height);
         }
         g2.dispose();
+        return Math.max(0, r1 - r0 + 1) * Math.max(0, c1 - c0 + 1);
     }
 
     private void paintCell(Graphics2D g2, int r, int c, int x, int y, int w, int h) {
+        int tile;
         if (revealAll && game.isMine(r, c)) {
-            g2.setColor((r == explodedR && c == explodedC) ? colorExploded : colorMineReveal);
-            g2.fillRect(x, y, w, h);
-            int size = Math.min(w, h);
-            int ix = x + (w - size) / 2;
-            int iy = y + (h - size) / 2;
-            paintBomb(g2, ix, iy, size);
-            return;
-        }
-
-        if (game.isOpened(r, c)) {
-            g2.setColor(colorCellOpen);
-            g2.fillRect(x, y, w, h);
-            int adj = game.countAdjacentMines(r, c);
-            if (adj > 0) {
-                float fontSize = Math.max(10f, (float) (Math.min(w, h) * 0.5f));
-                g2.setFont(numberFont.deriveFont(Font.BOLD, fontSize));
-                g2.setColor(colorForNumber(adj));
-                String s = Integer.toString(adj);
-                FontMetrics fm = g2.getFontMetrics();
-                int tx = x + (w - fm.stringWidth(s)) / 2;
-                int ty = y + (h + fm.getAscent() - fm.getDescent()) / 2;
-                g2.drawString(s, tx, ty);
-            }
+            tile = (r == explodedR && c == explodedC) ? CellTiles.EXPLODED : CellTiles.MINE;
         } else {
-            g2.setColor(colorCellBg);
-            g2.fillRect(x, y, w, h);
-            if (game.isFlagged(r, c)) {
-                int size = Math.min(w, h);
-                int ix = x + (w - size) / 2;
-                int iy = y + (h - size) / 2;
-                paintFlag(g2, ix, iy, size);
-            }
+            tile = tileCache != null ? tileCache[r * game.getCols() + c] : tileFor(r, c);
         }
+        tiles.draw(g2, tile, x, y, w, h);
     }
 
-    private void repaintCell(int r, int c) {
-        int x0 = (int) Math.round(c * cellWidthF());
-        int y0 = (int) Math.round(r * cellHeightF());
-        int x1 = (int) Math.round((c + 1) * cellWidthF());
-        int y1 = (int) Math.round((r + 1) * cellHeightF());
-        repaint(x0, y0, x1 - x0, y1 - y0);
-    }
+    private void repaintCell(int r, int c) { repaintCells(r, c, r, c); }
 
-    private Color colorForNumber(int n) { return numColors[Math.max(0, Math.min(8, n))]; }
-
-    private static void paintFlag(Graphics2D g2, int x, int y, int size) {
-        int poleX = x + size/5;
-        g2.setColor(new Color(80,80,80));
-        g2.fillRect(poleX, y + size/6, Math.max(2, size/12), size - size/6 - 2);
-        int flagW = (int)(size * 0.6);
-        int flagH = (int)(size * 0.4);
-        int fx = poleX + Math.max(2, size/12);
-        int fy = y + size/6;
-        Polygon p = new Polygon();
-        p.addPoint(fx, fy);
-        p.addPoint(fx + flagW, fy + flagH/2);
-        p.addPoint(fx, fy + flagH);
-        g2.setColor(new Color(200, 30, 30));
-        g2.fillPolygon(p);
+    // Repinta el rectángulo de celdas [r0..r1] x [c0..c1], con las líneas de rejilla de su borde
+    private void repaintCells(int r0, int c0, int r1, int c1) {
+        int x0 = (int) Math.round(c0 * cellWidthF());
+        int y0 = (int) Math.round(r0 * cellHeightF());
+        int x1 = (int) Math.round((c1 + 1) * cellWidthF());
+        int y1 = (int) Math.round((r1 + 1) * cellHeightF());
+        repaint(x0, y0, x1 - x0 + 1, y1 - y0 + 1);
     }
 
-    private static void paintBomb(Graphics2D g2, int x, int y, int size) {
-        int d = Math.min(size, size) - 6;
-        int cx = x + (size - d)/2;
-        int cy = y + (size - d)/2;
-        g2.setColor(Color.BLACK);
-        g2.fillOval(cx, cy, d, d);
-        g2.setStroke(new BasicStroke(Math.max(2f, d/12f)));
-        g2.drawLine(cx + d/2, cy, cx + d, cy - d/3);
-    }
     private double cellWidthF() { return getWidth() / (double) game.getCols(); }
     private double cellHeightF() { return getHeight() / (double) game.getRows(); }
 
@@ -268,6 +423,9 @@ class MinesweeperBoardPanel extends JComponent {
                     Color.GRAY
             };
         }
+        if (numberFont != null) {
+            tiles = new CellTiles(colorCellBg, colorCellOpen, colorExploded, colorMineReveal, numColors, numberFont);
+        }
         repaint();
     }
 }
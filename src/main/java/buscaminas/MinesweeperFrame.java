@@ -2,13 +2,18 @@ package buscaminas;
 
 import javax.swing.DefaultComboBoxModel;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JRootPane;
+import javax.swing.JScrollPane;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.border.EmptyBorder;
 import java.awt.BorderLayout;
 import java.awt.Component;
@@ -19,11 +24,19 @@ import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
-import java.util.List;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 
 public class MinesweeperFrame extends JFrame {
     private static final long serialVersionUID = 1L;
     private static final String TITLE = "Buscaminas";
+    // A partir de aquí los tableros personalizados usan ChunkedMinesweeperGame (memoria por trozos)
+    private static final int LARGE_BOARD_CELLS = 1 << 22;
+    private static final int MAX_CUSTOM_SIDE = 10_000;
     private static final boolean IS_MAC = System.getProperty("os.name", "").toLowerCase().contains("mac");
 
     private MinesweeperBoardPanel boardPanel;
@@ -32,10 +45,21 @@ public class MinesweeperFrame extends JFrame {
     private JLabel minesLeftLabel;
     private JComboBox<Difficulty> difficultyCombo;
     private JButton newGameButton;
+    private JCheckBox noGuessCheck;
+    private NoGuessBoardPool noGuessPool;
+    // Tablero sin adivinar que aún se está generando; se descarta si se empieza otra partida
+    private CompletableFuture<NoGuessBoardPool.Board> pendingNoGuess;
+    private int[] customBoard; // filas, columnas, minas; null si se juega una dificultad
+    private MoveLog replayLog;
+    // Partida en curso guardada tras cada jugada, para continuarla al volver a abrir
+    private final AutoSaver autoSaver = new AutoSaver(Path.of(System.getProperty("user.home"), ".buscaminas", "partida.bms"));
+    private ReplayPlayer replayPlayer;
 
     private IMinesweeperGame game;
     private int currentCellSize = 28;
     private boolean initialPacked = false;
+    // Agrupa los eventos de redimensionado: el tamaño de celda se recalcula al parar de arrastrar
+    private final Timer resizeTimer = new Timer(80, e -> recomputeCellSizeToFit());
 
     public MinesweeperFrame() {
         super(TITLE);
@@ -47,12 +71,18 @@ public class MinesweeperFrame extends JFrame {
         add(boardContainer, BorderLayout.CENTER);
         // Install resize listener once; avoids redundant checks later
         boardContainer.addComponentListener(new ComponentAdapter() {
-            @Override public void componentResized(ComponentEvent e) { recomputeCellSizeToFit(); }
+            @Override public void componentResized(ComponentEvent e) { resizeTimer.restart(); }
             @Override public void componentShown(ComponentEvent e) { recomputeCellSizeToFit(); }
         });
+        resizeTimer.setRepeats(false);
         // Configuración inicial: Principiante
-        Difficulty initial = Difficulty.BEGINNER;
-        startNewGame(initial.rows, initial.cols, initial.mines);
+        if (!resumeSavedGame()) {
+            Difficulty initial = Difficulty.BEGINNER;
+            startNewGame(initial.rows, initial.cols, initial.mines);
+        }
+        addWindowListener(new WindowAdapter() {
+            @Override public void windowClosing(WindowEvent e) { autoSaver.close(); }
+        });
         setLocationByPlatform(true);
     }
 
@@ -68,6 +98,7 @@ public class MinesweeperFrame extends JFrame {
         JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
         controls.add(new JLabel("Dificultad:"));
         difficultyCombo = new JComboBox<>(new DefaultComboBoxModel<>(Difficulty.values()));
+        difficultyCombo.addActionListener(e -> customBoard = null);
         controls.add(difficultyCombo);
 
         newGameButton = new JButton("Nueva partida");
@@ -76,6 +107,24 @@ public class MinesweeperFrame extends JFrame {
         newGameButton.addActionListener(e -> applySelectedDifficulty());
         controls.add(newGameButton);
 
+        JButton replayButton = new JButton("Repetir");
+        replayButton.setToolTipText("Reproduce la partida actual a velocidad real");
+        replayButton.putClientProperty("JButton.buttonType", "roundRect");
+        replayButton.addActionListener(e -> replayCurrentGame());
+        controls.add(replayButton);
+
+        JButton customButton = new JButton("Personalizado…");
+        customButton.putClientProperty("JButton.buttonType", "roundRect");
+        customButton.addActionListener(e -> askCustomBoard());
+        controls.add(customButton);
+
+        noGuessCheck = new JCheckBox("Sin adivinar");
+        noGuessCheck.setToolTipText("Tableros que se resuelven sin arriesgar desde la casilla inicial");
+        noGuessCheck.addActionListener(e -> {
+            if (noGuessCheck.isSelected()) noGuessPool().start();
+        });
+        controls.add(noGuessCheck);
+
         minesLeftLabel = new JLabel("Minas restantes: 0");
 
         GridBagConstraints gbcLeft = new GridBagConstraints();
@@ -132,34 +181,166 @@ public class MinesweeperFrame extends JFrame {
     }
 
     private void applySelectedDifficulty() {
+        if (customBoard != null) {
+            startNewGame(customBoard[0], customBoard[1], customBoard[2]);
+            return;
+        }
         int idx = difficultyCombo.getSelectedIndex();
         Difficulty d = (idx >= 0) ? difficultyCombo.getItemAt(idx) : Difficulty.BEGINNER;
-        startNewGame(d.rows, d.cols, d.mines);
+        if (noGuessCheck.isSelected()) {
+            // Si no hay tablero listo no se genera aquí: el hilo de eventos no debe esperar
+            CompletableFuture<NoGuessBoardPool.Board> next = noGuessPool().takeAsync(d);
+            NoGuessBoardPool.Board ready = next.getNow(null);
+            if (ready != null) {
+                startNoGuessGame(ready);
+                return;
+            }
+            cancelPendingNoGuess();
+            pendingNoGuess = next;
+            boardPanel.setLocked(true);
+            minesLeftLabel.setText("Generando tablero…");
+            next.thenAccept(b -> SwingUtilities.invokeLater(() -> {
+                if (pendingNoGuess != next) return;
+                pendingNoGuess = null;
+                startNoGuessGame(b);
+            }));
+        } else {
+            startNewGame(d.rows, d.cols, d.mines);
+        }
+    }
+
+    private void startNoGuessGame(NoGuessBoardPool.Board b) {
+        startNewGame(b.newUnopenedGame());
+        // La casilla inicial se abre a través del registro para poder reproducir la partida
+        boardPanel.open(b.startR(), b.startC());
+    }
+
+    private void cancelPendingNoGuess() {
+        if (pendingNoGuess == null) return;
+        pendingNoGuess.cancel(false);
+        pendingNoGuess = null;
+    }
+
+    private NoGuessBoardPool noGuessPool() {
+        if (noGuessPool == null) noGuessPool = new NoGuessBoardPool(4);
+        return noGuessPool;
+    }
+
+    private void askCustomBoard() {
+        int rows = customBoard != null ? customBoard[0] : game.getRows();
+        int cols = customBoard != null ? customBoard[1] : game.getCols();
+        int mines = customBoard != null ? customBoard[2] : game.getTotalMines();
+        JSpinner rowsSpin = new JSpinner(new SpinnerNumberModel(rows, 2, MAX_CUSTOM_SIDE, 1));
+        JSpinner colsSpin = new JSpinner(new SpinnerNumberModel(cols, 2, MAX_CUSTOM_SIDE, 1));
+        JSpinner minesSpin = new JSpinner(new SpinnerNumberModel(mines, 1, Integer.MAX_VALUE, 1));
+        JPanel form = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(2, 2, 2, 8);
+        gbc.anchor = GridBagConstraints.WEST;
+        Object[][] fields = {{"Filas:", rowsSpin}, {"Columnas:", colsSpin}, {"Minas:", minesSpin}};
+        for (int i = 0; i < fields.length; i++) {
+            gbc.gridy = i;
+            gbc.gridx = 0; form.add(new JLabel((String) fields[i][0]), gbc);
+            gbc.gridx = 1; form.add((Component) fields[i][1], gbc);
+        }
+        int choice = JOptionPane.showConfirmDialog(this, form, "Tablero personalizado",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (choice != JOptionPane.OK_OPTION) return;
+        rows = (Integer) rowsSpin.getValue();
+        cols = (Integer) colsSpin.getValue();
+        mines = (Integer) minesSpin.getValue();
+        if (mines > rows * cols - 1) {
+            JOptionPane.showMessageDialog(this, "Demasiadas minas para " + rows + "x" + cols + ".", TITLE,
+                    JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        customBoard = new int[]{rows, cols, mines};
+        startNewGame(rows, cols, mines);
     }
 
     private void startNewGame(int rows, int cols, int mines) {
-        this.game = new MinesweeperGame(rows, cols, mines);
+        if ((long) rows * cols > LARGE_BOARD_CELLS) {
+            startNewGame(new ChunkedMinesweeperGame(rows, cols, mines));
+        } else {
+            startNewGame(new MinesweeperGame(rows, cols, mines));
+        }
+    }
 
-        if (boardPanel != null) boardContainer.remove(boardPanel);
+    private boolean resumeSavedGame() {
+        Path file = autoSaver.file();
+        if (!Files.exists(file)) return false;
+        try {
+            SavedGame saved = SavedGame.load(file);
+            startRecordedGame(saved.log != null ? new RecordingGame(saved.game, saved.log) : new RecordingGame(saved.game));
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            return false;
+        }
+    }
 
-        boardPanel = new MinesweeperBoardPanel(game, new MinesweeperBoardPanel.Listener() {
-            @Override public void onCellsOpened(List<? extends ICell> opened, boolean exploded, int clickedR, int clickedC) {
-                updateMinesLeftLabel();
-                if (exploded) {
-                    revealAllMinesAndLose(clickedR, clickedC);
-                    return;
-                }
-                if (game.isWin()) handleWin();
-            }
+    private void startNewGame(IMinesweeperGame newGame) {
+        startRecordedGame(new RecordingGame(newGame));
+        autosave(false);
+    }
 
-            @Override public void onFlagToggled() { updateMinesLeftLabel(); }
+    // Solo MinesweeperGame se guarda; los tableros por trozos pueden no caber en un único volcado
+    private void autosave(boolean finished) {
+        if (!(game instanceof RecordingGame)) return;
+        RecordingGame rec = (RecordingGame) game;
+        if (finished || !(rec.unwrap() instanceof MinesweeperGame)) {
+            autoSaver.delete();
+        } else {
+            autoSaver.save((MinesweeperGame) rec.unwrap(), rec.log());
+        }
+    }
+
+    private void startRecordedGame(RecordingGame recorder) {
+        replayLog = null;
+        showBoard(recorder, change -> {
+            if (change.kind == GameChange.Kind.RESET) return;
+            updateMinesLeftLabel(change.flagsCount);
+            // El aviso llega desde dentro de la jugada: guardar y los diálogos esperan a que termine
+            // (RecordingGame fija la semilla del registro al volver)
+            SwingUtilities.invokeLater(() -> {
+                autosave(change.isGameOver());
+                if (change.exploded) {
+                    revealAllMinesAndLose(change.row, change.col);
+                } else if (change.win) {
+                    handleWin();
+                }
+            });
         });
-        JPanel wrap = new JPanel(new BorderLayout());
-        // Remove extra insets so the grid uses all available space
-        wrap.setBorder(new EmptyBorder(0, 0, 0, 0));
-        wrap.add(boardPanel, BorderLayout.CENTER);
+    }
+
+    private void replayCurrentGame() {
+        MoveLog log = game instanceof RecordingGame ? ((RecordingGame) game).log() : replayLog;
+        if (log == null || log.moveCount() == 0) return;
+        replayLog = log;
+        showBoard(MoveLogReplay.newGame(log), change -> updateMinesLeftLabel(change.flagsCount));
+        boardPanel.setLocked(true);
+        replayPlayer = new ReplayPlayer(log, boardPanel);
+        replayPlayer.start();
+    }
+
+    private void showBoard(IMinesweeperGame newGame, IGameChangeListener listener) {
+        cancelPendingNoGuess();
+        if (replayPlayer != null) replayPlayer.stop();
+        replayPlayer = null;
+        this.game = newGame;
+        int rows = game.getRows(), cols = game.getCols();
+
+        if (boardPanel != null) {
+            boardPanel.detach();
+            boardContainer.remove(boardPanel);
+        }
+
+        boardPanel = new MinesweeperBoardPanel(game, listener);
+        // Boards that do not fit at the minimum cell size scroll instead of shrinking further
+        JScrollPane scroll = new JScrollPane(boardPanel);
+        scroll.setBorder(new EmptyBorder(0, 0, 0, 0));
+        scroll.getViewport().setBackground(boardPanel.getBackground());
         boardContainer.removeAll();
-        boardContainer.add(wrap, BorderLayout.CENTER);
+        boardContainer.add(scroll, BorderLayout.CENTER);
         boardContainer.setOpaque(true);
         boardContainer.setBackground(boardPanel.getBackground());
         updateMinesLeftLabel();
@@ -188,7 +369,7 @@ public class MinesweeperFrame extends JFrame {
     }
 
     private void recomputeCellSizeToFit() {
-        if (boardPanel == null || game == null) return;
+        if (boardPanel == null || game == null || boardPanel.isZoomed()) return;
         int rows = game.getRows(), cols = game.getCols();
         Dimension size = boardContainer.getSize();
         if (size.width <= 0 || size.height <= 0) return;
@@ -200,12 +381,13 @@ public class MinesweeperFrame extends JFrame {
         if (cell != currentCellSize) {
             currentCellSize = cell;
             boardPanel.setCellSize(cell);
-            boardPanel.repaint();
         }
     }
 
-    private void updateMinesLeftLabel() {
-        int left = Math.max(0, game.getTotalMines() - game.getFlagsCount());
+    private void updateMinesLeftLabel() { updateMinesLeftLabel(game.getFlagsCount()); }
+
+    private void updateMinesLeftLabel(int flagsCount) {
+        int left = Math.max(0, game.getTotalMines() - flagsCount);
         minesLeftLabel.setText("Minas restantes: " + left);
     }
 
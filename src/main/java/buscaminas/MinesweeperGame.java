@@ -1,27 +1,65 @@
 package buscaminas;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.BitSet;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Random;
 
-public class MinesweeperGame implements IMinesweeperGame {
+public class MinesweeperGame implements ISeededGame {
     public record Cell(int r, int c) implements ICell {}
 
+    private static final int SINK_BATCH = 1024;
+    // A partir de este número de celdas la BFS deja paso al Bitboard
+    private static final int BITBOARD_THRESHOLD = 1 << 12;
+    // Con menos columnas una palabra por fila desperdicia casi todos sus bits: recuentos y BFS escalares
+    private static final int BITBOARD_MIN_COLS = 16;
+
+    private static final Metrics.Timer OPEN_TIMER = Metrics.timer("engine.open");
+    private static final Metrics.Timer CHORD_TIMER = Metrics.timer("engine.chord");
+    private static final Metrics.Timer PLACE_TIMER = Metrics.timer("engine.placeMines");
+
     private final int rows;
     private final int cols;
     private final int totalMines;
 
-    private final BitSet mines;   // posición de minas
-    private final BitSet opened;  // celdas abiertas
-    private final BitSet flagged; // celdas marcadas con bandera
+    private final BitPlane mines;   // posición de minas
+    private final BitPlane opened;  // celdas abiertas
+    private final BitPlane flagged; // celdas marcadas con bandera
+
+    // Minas vecinas por celda (fijo tras colocar minas). Si lo comparte una instantánea, la próxima
+    // colocación o reinicio usa un array nuevo en lugar de sobrescribirlo
+    private byte[] adjacentMines;
+    private boolean adjacentMinesShared;
+    // Banderas vecinas de cada celda, al día en cada toggleFlag; copia por páginas tras una instantánea
+    private final BytePlane adjacentFlags;
 
     private boolean minesPlaced = false;
     private int openedSafeCells = 0;
+    private int flagsCount = 0;
     private final Random random;
+    private final IMinePlacement placement;
+    private final int[] safeScratch = new int[9];
+    private long boardSeed;
+    private boolean boardSeedPinned = false;
+    private long placementState;
+
+    // Estado reutilizable de la última apertura (se reserva una sola vez por partida)
+    private int[] revealed;
+    private int revealedCount;
+    private boolean revealExploded;
+    // Destino de las variantes en streaming; se le entregan lotes de SINK_BATCH celdas
+    private IOpenedCellsSink sink;
+    private int flushedCount;
+    // Mayor longitud de la cola de la BFS en la acción en curso (métricas)
+    private int queuePeak;
+
+    private Bitboard bitboard;
+    // Recuentos cuyo tablero de minas tiene cargado 'bitboard'; distinto de adjacentMines tras restaurar
+    private byte[] bitboardCounts;
+    private final IOpenedCellsSink acceptOpened = this::acceptOpened;
+    private final GameChangeSupport changes = new GameChangeSupport();
 
     public static class OpenResult implements IOpenResult {
         public final boolean exploded;
@@ -38,16 +76,25 @@ public class MinesweeperGame implements IMinesweeperGame {
 
     public MinesweeperGame(int rows, int cols, int totalMines) { this(rows, cols, totalMines, new Random()); }
 
+    public MinesweeperGame(int rows, int cols, int totalMines, long seed) { this(rows, cols, totalMines, new Random(seed)); }
+
     public MinesweeperGame(int rows, int cols, int totalMines, Random random) {
+        this(rows, cols, totalMines, random, MinePlacement.SAFE_HALO);
+    }
+
+    public MinesweeperGame(int rows, int cols, int totalMines, Random random, IMinePlacement placement) {
         if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("Dimensiones inválidas");
         if (totalMines < 0 || totalMines >= rows * cols) throw new IllegalArgumentException("Número de minas inválido");
         this.rows = rows;
         this.cols = cols;
         this.totalMines = totalMines;
         this.random = Objects.requireNonNull(random);
-        this.mines = new BitSet(rows * cols);
-        this.opened = new BitSet(rows * cols);
-        this.flagged = new BitSet(rows * cols);
+        this.placement = Objects.requireNonNull(placement);
+        this.mines = new BitPlane(rows * cols);
+        this.opened = new BitPlane(rows * cols);
+        this.flagged = new BitPlane(rows * cols);
+        this.adjacentMines = new byte[rows * cols];
+        this.adjacentFlags = new BytePlane(rows * cols);
     }
 
     @Override
@@ -55,31 +102,204 @@ public class MinesweeperGame implements IMinesweeperGame {
         mines.clear();
         opened.clear();
         flagged.clear();
+        if (adjacentMinesShared) {
+            adjacentMines = new byte[rows * cols];
+            adjacentMinesShared = false;
+        } else {
+            Arrays.fill(adjacentMines, (byte) 0);
+        }
+        adjacentFlags.clear();
         minesPlaced = false;
+        boardSeedPinned = false;
         openedSafeCells = 0;
+        flagsCount = 0;
+        if (changes.isActive()) changes.fire(GameChange.reset());
+    }
+
+    /** Reinicia la partida y fija la semilla del próximo tablero para reproducirlo. */
+    @Override
+    public void reset(long boardSeed) {
+        reset();
+        this.boardSeed = boardSeed;
+        this.boardSeedPinned = true;
+    }
+
+    /** Semilla del tablero actual; solo es significativa cuando las minas ya están colocadas. */
+    @Override public long getBoardSeed() { return boardSeed; }
+    @Override public boolean areMinesPlaced() { return minesPlaced; }
+    IMinePlacement placement() { return placement; }
+
+    /** Full copy of the game state, as written by {@link SavedGame}. The plane arrays are not shared. */
+    record State(int rows, int cols, int totalMines, IMinePlacement placement, long boardSeed, boolean boardSeedPinned,
+                 boolean minesPlaced, int openedSafeCells, int flagsCount, long[] mines, long[] opened, long[] flagged) {}
+
+    State captureState() {
+        return new State(rows, cols, totalMines, placement, boardSeed, boardSeedPinned, minesPlaced,
+                openedSafeCells, flagsCount, mines.copyWords(), opened.copyWords(), flagged.copyWords());
+    }
+
+    /** Rebuilds a game from {@link #captureState()}; the mine counts are recomputed from the planes. */
+    static MinesweeperGame fromState(State s, Random random) {
+        MinesweeperGame g = new MinesweeperGame(s.rows(), s.cols(), s.totalMines(), random, s.placement());
+        g.mines.setWords(s.mines());
+        g.opened.setWords(s.opened());
+        g.flagged.setWords(s.flagged());
+        int mineCount = g.mines.cardinality();
+        if (s.minesPlaced() ? mineCount != s.totalMines() : mineCount != 0) throw new IllegalArgumentException("Número de minas incoherente");
+        if (g.flagged.cardinality() != s.flagsCount()) throw new IllegalArgumentException("Número de banderas incoherente");
+        g.boardSeed = s.boardSeed();
+        g.boardSeedPinned = s.boardSeedPinned();
+        g.minesPlaced = s.minesPlaced();
+        g.openedSafeCells = s.openedSafeCells();
+        g.flagsCount = s.flagsCount();
+        g.loadAdjacentMines();
+        for (int i = g.flagged.nextSetBit(0); i >= 0; i = g.flagged.nextSetBit(i + 1)) {
+            g.addToNeighbours(g.adjacentFlags, i / g.cols, i % g.cols, 1);
+        }
+        return g;
+    }
+
+    /**
+     * Game state at one moment, for {@link #restore(Snapshot)}: solvers branch on it and an
+     * undo keeps one per move. Taking it costs O(1) and shares the planes with the game;
+     * later moves copy only the pages of the planes they touch. A snapshot is immutable,
+     * so it can be read from another thread once handed over safely.
+     */
+    public static final class Snapshot {
+        private final MinesweeperGame game;
+        private final long[][] mines, opened, flagged;
+        private final byte[] adjacentMines;
+        private final byte[][] adjacentFlags;
+        private final long boardSeed;
+        private final boolean boardSeedPinned, minesPlaced;
+        private final int openedSafeCells, flagsCount;
+
+        private Snapshot(MinesweeperGame g) {
+            this.game = g;
+            this.mines = g.mines.snapshot();
+            this.opened = g.opened.snapshot();
+            this.flagged = g.flagged.snapshot();
+            this.adjacentMines = g.adjacentMines;
+            this.adjacentFlags = g.adjacentFlags.snapshot();
+            this.boardSeed = g.boardSeed;
+            this.boardSeedPinned = g.boardSeedPinned;
+            this.minesPlaced = g.minesPlaced;
+            this.openedSafeCells = g.openedSafeCells;
+            this.flagsCount = g.flagsCount;
+        }
+
+        /** Full copy of this state, like {@link #captureState()}; the copy is made on the calling thread. */
+        State toState() {
+            return new State(game.rows, game.cols, game.totalMines, game.placement, boardSeed, boardSeedPinned, minesPlaced,
+                    openedSafeCells, flagsCount, BitPlane.copyWords(mines), BitPlane.copyWords(opened), BitPlane.copyWords(flagged));
+        }
+    }
+
+    public Snapshot snapshot() {
+        adjacentMinesShared = true;
+        return new Snapshot(this);
+    }
+
+    /**
+     * Returns to a {@link #snapshot()} of this game in O(1); the snapshot stays valid and can
+     * be restored again. Listeners receive a {@link GameChange.Kind#RESET}.
+     */
+    public void restore(Snapshot s) {
+        if (s.game != this) throw new IllegalArgumentException("La instantánea es de otra partida");
+        mines.restore(s.mines);
+        opened.restore(s.opened);
+        flagged.restore(s.flagged);
+        adjacentMines = s.adjacentMines;
+        adjacentMinesShared = true;
+        adjacentFlags.restore(s.adjacentFlags);
+        boardSeed = s.boardSeed;
+        boardSeedPinned = s.boardSeedPinned;
+        minesPlaced = s.minesPlaced;
+        openedSafeCells = s.openedSafeCells;
+        flagsCount = s.flagsCount;
+        if (changes.isActive()) changes.fire(GameChange.reset());
     }
 
     private int idx(int r, int c) { return r * cols + c; }
     private boolean inBounds(int r, int c) { return r >= 0 && r < rows && c >= 0 && c < cols; }
-    private boolean inSafeHalo(int r, int c, int sr, int sc) { return Math.abs(r - sr) <= 1 && Math.abs(c - sc) <= 1; }
-
-    private void placeMinesAvoiding(int safeR, int safeC) {
-        int placed = 0;
-        int freeCellsExcludingHalo = rows * cols - 9;
-        boolean useHalo = totalMines <= freeCellsExcludingHalo;
-        while (placed < totalMines) {
-            int r = random.nextInt(rows);
-            int c = random.nextInt(cols);
-            int i = idx(r, c);
-            if (mines.get(i)) continue;
-            if (useHalo && inSafeHalo(r, c, safeR, safeC)) continue;
-            if (!useHalo && (r == safeR && c == safeC)) continue;
+
+    /**
+     * Coloca las minas en O(minas) con el algoritmo de Floyd (muestreo sin reemplazo)
+     * sobre las celdas que la estrategia no reserva como seguras. El tablero queda
+     * determinado por {@link #getBoardSeed()}.
+     */
+    void placeMinesAvoiding(int safeR, int safeC) {
+        JfrEvents.PlaceMines event = JfrEvents.PLACE_MINES.isEnabled() ? new JfrEvents.PlaceMines() : null;
+        if (event != null) event.begin();
+        long t0 = System.nanoTime();
+        placeMines(safeR, safeC);
+        PLACE_TIMER.record(System.nanoTime() - t0, totalMines);
+        if (event != null && event.shouldCommit()) {
+            event.rows = rows;
+            event.cols = cols;
+            event.mines = totalMines;
+            event.commit();
+        }
+    }
+
+    private void placeMines(int safeR, int safeC) {
+        if (!boardSeedPinned) boardSeed = random.nextLong();
+        boardSeedPinned = false;
+        int excluded = placement.safeCells(rows, cols, totalMines, safeR, safeC, safeScratch);
+        int free = rows * cols - excluded;
+        if (totalMines > free) throw new IllegalStateException("La estrategia reserva demasiadas celdas");
+
+        placementState = boardSeed;
+        for (int j = free - totalMines; j < free; j++) {
+            int i = freeCellAt(nextPlacementInt(j + 1), excluded);
+            if (mines.get(i)) i = freeCellAt(j, excluded);
             mines.set(i);
-            placed++;
         }
+        loadAdjacentMines();
         minesPlaced = true;
     }
 
+    // Recuentos de todas las celdas a la vez, 64 por palabra (ver Bitboard); parte de un array a cero
+    private void loadAdjacentMines() {
+        if (adjacentMinesShared) {
+            adjacentMines = new byte[rows * cols];
+            adjacentMinesShared = false;
+        }
+        if (cols < BITBOARD_MIN_COLS) {
+            for (int i = mines.nextSetBit(0); i >= 0; i = mines.nextSetBit(i + 1)) {
+                int r = i / cols, c = i % cols;
+                for (int nr = Math.max(0, r - 1); nr <= Math.min(rows - 1, r + 1); nr++) {
+                    for (int nc = Math.max(0, c - 1); nc <= Math.min(cols - 1, c + 1); nc++) {
+                        if (nr != r || nc != c) adjacentMines[nr * cols + nc]++;
+                    }
+                }
+            }
+            return;
+        }
+        if (bitboard == null) bitboard = new Bitboard(rows, cols);
+        bitboard.loadMines(mines, adjacentMines);
+        bitboardCounts = adjacentMines;
+    }
+
+    // Flujo SplitMix64 (el mezclador de SplittableRandom) guardado en un long para no crear objetos por tablero
+    private int nextPlacementInt(int bound) {
+        int bits, val;
+        do {
+            long z = (placementState += 0x9e3779b97f4a7c15L);
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            bits = (int) ((z ^ (z >>> 31)) >>> 33);
+            val = bits % bound;
+        } while (bits - val + (bound - 1) < 0);
+        return val;
+    }
+
+    // k-ésima celda no reservada; safeScratch está ordenado de forma ascendente
+    private int freeCellAt(int k, int excluded) {
+        for (int e = 0; e < excluded && safeScratch[e] <= k; e++) k++;
+        return k;
+    }
+
     @Override public int getRows() { return rows; }
     @Override public int getCols() { return cols; }
     @Override public int getTotalMines() { return totalMines; }
@@ -87,6 +307,10 @@ public class MinesweeperGame implements IMinesweeperGame {
     @Override public boolean isOpened(int r, int c) { return opened.get(idx(r, c)); }
     @Override public boolean isFlagged(int r, int c) { return flagged.get(idx(r, c)); }
 
+    @Override public IBoardPlane minesPlane() { return mines; }
+    @Override public IBoardPlane openedPlane() { return opened; }
+    @Override public IBoardPlane flaggedPlane() { return flagged; }
+
     @Override
     public boolean[][] getMines() {
         boolean[][] copy = new boolean[rows][cols];
@@ -104,118 +328,240 @@ public class MinesweeperGame implements IMinesweeperGame {
         return copy;
     }
 
-    @Override
-    public int countAdjacentMines(int r, int c) {
-        int count = 0;
-        for (int dr = -1; dr <= 1; dr++) {
-            for (int dc = -1; dc <= 1; dc++) {
-                if (dr == 0 && dc == 0) continue;
-                int nr = r + dr, nc = c + dc;
-                if (inBounds(nr, nc) && isMine(nr, nc)) count++;
-            }
-        }
-        return count;
-    }
+    @Override public int countAdjacentMines(int r, int c) { return adjacentMines[idx(r, c)]; }
 
-    @Override
-    public int countAdjacentFlags(int r, int c) {
-        int count = 0;
-        for (int dr = -1; dr <= 1; dr++) {
-            for (int dc = -1; dc <= 1; dc++) {
-                if (dr == 0 && dc == 0) continue;
-                int nr = r + dr, nc = c + dc;
-                if (inBounds(nr, nc) && isFlagged(nr, nc)) count++;
+    private void addToNeighbours(BytePlane plane, int r, int c, int delta) {
+        int r0 = Math.max(0, r - 1), r1 = Math.min(rows - 1, r + 1);
+        int c0 = Math.max(0, c - 1), c1 = Math.min(cols - 1, c + 1);
+        for (int nr = r0; nr <= r1; nr++) {
+            int base = nr * cols;
+            for (int nc = c0; nc <= c1; nc++) {
+                if (nr == r && nc == c) continue;
+                plane.add(base + nc, delta);
             }
         }
-        return count;
     }
 
-    @Override public int getFlagsCount() { return flagged.cardinality(); }
+    @Override public int countAdjacentFlags(int r, int c) { return adjacentFlags.get(idx(r, c)); }
+
+    @Override public int getFlagsCount() { return flagsCount; }
 
     @Override
     public void toggleFlag(int r, int c) {
         if (!inBounds(r, c)) return;
         int i = idx(r, c);
         if (opened.get(i)) return;
-        if (flagged.get(i)) flagged.clear(i); else flagged.set(i);
+        if (flagged.get(i)) {
+            flagged.clear(i);
+            flagsCount--;
+            addToNeighbours(adjacentFlags, r, c, -1);
+        } else {
+            flagged.set(i);
+            flagsCount++;
+            addToNeighbours(adjacentFlags, r, c, 1);
+        }
+        if (changes.isActive()) changes.fire(GameChange.flag(r, c, flagged.get(i), flagsCount));
     }
 
+    @Override public void addChangeListener(IGameChangeListener listener) { changes.add(listener); }
+    @Override public void removeChangeListener(IGameChangeListener listener) { changes.remove(listener); }
+
     @Override
     public OpenResult openCell(int r, int c) {
-        if (!inBounds(r, c)) return new OpenResult(false, Collections.emptyList());
-        if (isFlagged(r, c)) return new OpenResult(false, Collections.emptyList());
+        revealCell(r, c);
+        return lastRevealResult();
+    }
 
-        if (!minesPlaced) placeMinesAvoiding(r, c);
+    @Override
+    public OpenResult chordOpen(int r, int c) {
+        revealChord(r, c);
+        return lastRevealResult();
+    }
 
-        if (isMine(r, c)) {
-            int i = idx(r, c);
-            if (!opened.get(i)) opened.set(i);
-            return new OpenResult(true, List.of(new Cell(r, c)));
+    @Override
+    public boolean openCell(int r, int c, IOpenedCellsSink sink) {
+        this.sink = Objects.requireNonNull(sink);
+        try {
+            revealCell(r, c);
+            flushToSink();
+        } finally {
+            this.sink = null;
         }
+        return revealExploded;
+    }
 
-        List<Cell> result = new ArrayList<>();
-        ArrayDeque<Cell> q = new ArrayDeque<>();
-        BitSet visited = new BitSet(rows * cols);
+    @Override
+    public boolean chordOpen(int r, int c, IOpenedCellsSink sink) {
+        this.sink = Objects.requireNonNull(sink);
+        try {
+            revealChord(r, c);
+            flushToSink();
+        } finally {
+            this.sink = null;
+        }
+        return revealExploded;
+    }
 
-        q.add(new Cell(r, c));
-        visited.set(idx(r, c));
+    /**
+     * Abre la celda y expande las regiones sin minas vecinas sin reservar memoria:
+     * los índices revelados quedan en el búfer reutilizable {@code revealed}.
+     * Devuelve cuántas celdas se revelaron.
+     */
+    int revealCell(int r, int c) { return timedReveal(false, r, c); }
 
-        while (!q.isEmpty()) {
-            Cell cur = q.removeFirst();
-            int cr = cur.r, cc = cur.c;
-            int ci = idx(cr, cc);
-            if (opened.get(ci)) continue;
-            opened.set(ci);
-            openedSafeCells++;
-            result.add(cur);
-
-            int adj = countAdjacentMines(cr, cc);
-            if (adj == 0) {
-                for (int dr = -1; dr <= 1; dr++) {
-                    for (int dc = -1; dc <= 1; dc++) {
-                        if (dr == 0 && dc == 0) continue;
-                        int nr = cr + dr, nc = cc + dc;
-                        if (!inBounds(nr, nc)) continue;
-                        int ni = idx(nr, nc);
-                        if (!visited.get(ni) && !isMine(nr, nc) && !opened.get(ni) && !flagged.get(ni)) {
-                            visited.set(ni);
-                            q.addLast(new Cell(nr, nc));
-                        }
-                    }
-                }
-            }
+    /** Variante sin reservas de {@link #chordOpen(int, int)}; mismo contrato que {@link #revealCell(int, int)}. */
+    int revealChord(int r, int c) { return timedReveal(true, r, c); }
+
+    // Mide la acción para Metrics y, si hay una grabación que lo pide, para JFR
+    private int timedReveal(boolean chord, int r, int c) {
+        JfrEvents.Reveal event = JfrEvents.REVEAL.isEnabled() ? new JfrEvents.Reveal() : null;
+        if (event != null) event.begin();
+        long t0 = System.nanoTime();
+        queuePeak = 0;
+        int n = chord ? chordCells(r, c) : openCells(r, c);
+        (chord ? CHORD_TIMER : OPEN_TIMER).record(System.nanoTime() - t0, n);
+        if (event != null && event.shouldCommit()) {
+            event.chord = chord;
+            event.cellsRevealed = n;
+            event.queuePeak = queuePeak;
+            event.exploded = revealExploded;
+            event.commit();
         }
+        if (changes.isActive()) fireReveal(chord, r, c);
+        return n;
+    }
 
-        return new OpenResult(false, result);
+    // Aparte de timedReveal para que este siga siendo pequeño
+    private void fireReveal(boolean chord, int r, int c) {
+        changes.fireOpened(revealed, 0, revealedCount, SINK_BATCH, flagsCount);
+        changes.fire(GameChange.action(chord, r, c, revealedCount, flagsCount, revealExploded, isWin()));
     }
 
-    @Override
-    public OpenResult chordOpen(int r, int c) {
-        if (!inBounds(r, c) || !isOpened(r, c)) return new OpenResult(false, Collections.emptyList());
-        int adjMines = countAdjacentMines(r, c);
-        int adjFlags = countAdjacentFlags(r, c);
-        if (adjMines == 0 || adjFlags < adjMines) return new OpenResult(false, Collections.emptyList());
-
-        List<Cell> openedNow = new ArrayList<>();
-        boolean exploded = false;
-        for (int dr = -1; dr <= 1; dr++) {
-            for (int dc = -1; dc <= 1; dc++) {
-                if (dr == 0 && dc == 0) continue;
-                int nr = r + dr, nc = c + dc;
-                if (!inBounds(nr, nc) || isFlagged(nr, nc) || isOpened(nr, nc)) continue;
-                if (isMine(nr, nc)) {
-                    int ni = idx(nr, nc);
+    private int openCells(int r, int c) {
+        revealedCount = 0;
+        flushedCount = 0;
+        revealExploded = false;
+        if (!inBounds(r, c)) return 0;
+        int i = idx(r, c);
+        if (flagged.get(i)) return 0;
+
+        if (!minesPlaced) placeMinesAvoiding(r, c);
+        ensureRevealBuffer();
+
+        if (mines.get(i)) {
+            opened.set(i);
+            append(i);
+            revealExploded = true;
+            return revealedCount;
+        }
+        flood(i);
+        return revealedCount;
+    }
+
+    private int chordCells(int r, int c) {
+        revealedCount = 0;
+        flushedCount = 0;
+        revealExploded = false;
+        if (!inBounds(r, c) || !isOpened(r, c)) return 0;
+        int i = idx(r, c);
+        int adjMines = adjacentMines[i];
+        if (adjMines == 0 || adjacentFlags.get(i) < adjMines) return 0;
+
+        ensureRevealBuffer();
+        int r0 = Math.max(0, r - 1), r1 = Math.min(rows - 1, r + 1);
+        int c0 = Math.max(0, c - 1), c1 = Math.min(cols - 1, c + 1);
+        for (int nr = r0; nr <= r1; nr++) {
+            for (int nc = c0; nc <= c1; nc++) {
+                int ni = idx(nr, nc);
+                if (ni == i || flagged.get(ni) || opened.get(ni)) continue;
+                if (mines.get(ni)) {
                     opened.set(ni);
-                    exploded = true;
-                    openedNow.add(new Cell(nr, nc));
+                    append(ni);
+                    revealExploded = true;
                 } else {
-                    OpenResult res = openCell(nr, nc);
-                    openedNow.addAll(res.openedCells);
-                    exploded = exploded || res.exploded;
+                    flood(ni);
                 }
             }
         }
-        return new OpenResult(exploded, openedNow);
+        return revealedCount;
+    }
+
+    // BFS sobre índices: el propio búfer de reveladas hace de cola y el bit 'opened' de visitado,
+    // porque cada celda se abre en el momento de encolarla.
+    private void flood(int start) {
+        if (opened.get(start)) return;
+        int head = revealedCount;
+        int first = head;
+        openSafe(start);
+        while (head < revealedCount) {
+            if (revealedCount - head > queuePeak) queuePeak = revealedCount - head;
+            if (revealedCount - first > BITBOARD_THRESHOLD && cols >= BITBOARD_MIN_COLS) {
+                floodBitboard(first);
+                return;
+            }
+            int ci = revealed[head++];
+            if (adjacentMines[ci] != 0) continue;
+            int cr = ci / cols, cc = ci % cols;
+            int r0 = Math.max(0, cr - 1), r1 = Math.min(rows - 1, cr + 1);
+            int c0 = Math.max(0, cc - 1), c1 = Math.min(cols - 1, cc + 1);
+            for (int nr = r0; nr <= r1; nr++) {
+                int base = nr * cols;
+                for (int nc = c0; nc <= c1; nc++) {
+                    int ni = base + nc;
+                    if (!opened.get(ni) && !flagged.get(ni) && !mines.get(ni)) openSafe(ni);
+                }
+            }
+        }
+    }
+
+    // Las celdas revealed[first..revealedCount) son las abiertas por esta expansión
+    private void floodBitboard(int first) {
+        if (bitboardCounts != adjacentMines) {
+            // Se restauró una instantánea de otro tablero; un array compartido ya no se reescribe,
+            // así que si coincide con bitboardCounts el bitboard sigue siendo válido
+            bitboard.loadMines(mines, null);
+            bitboardCounts = adjacentMines;
+        }
+        bitboard.reveal(revealed, first, revealedCount, opened, flagged, mines, acceptOpened);
+    }
+
+    private void acceptOpened(int[] cells, int offset, int length) {
+        for (int k = offset; k < offset + length; k++) {
+            openedSafeCells++;
+            append(cells[k]);
+        }
+    }
+
+    private void openSafe(int i) {
+        opened.set(i);
+        openedSafeCells++;
+        append(i);
+    }
+
+    private void append(int i) {
+        revealed[revealedCount++] = i;
+        if (sink != null && revealedCount - flushedCount >= SINK_BATCH) flushToSink();
+    }
+
+    private void flushToSink() {
+        // Las celdas entregadas siguen en el búfer: la BFS aún las usa como cola
+        if (revealedCount > flushedCount) sink.accept(revealed, flushedCount, revealedCount - flushedCount);
+        flushedCount = revealedCount;
+    }
+
+    private void ensureRevealBuffer() {
+        // Cada celda se revela como mucho una vez por acción, así que basta con una entrada por celda
+        if (revealed == null) revealed = new int[rows * cols];
+    }
+
+    private OpenResult lastRevealResult() {
+        if (revealedCount == 0) return new OpenResult(revealExploded, Collections.emptyList());
+        List<Cell> cells = new ArrayList<>(revealedCount);
+        for (int k = 0; k < revealedCount; k++) {
+            int i = revealed[k];
+            cells.add(new Cell(i / cols, i % cols));
+        }
+        return new OpenResult(revealExploded, cells);
     }
 
     @Override public boolean isWin() { return openedSafeCells >= (rows * cols - totalMines); }
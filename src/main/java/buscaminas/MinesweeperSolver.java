@@ -0,0 +1,247 @@
+package buscaminas;
+
+import java.util.Objects;
+
+/**
+ * Deterministic solver that plays only moves that are certain. It reads the public
+ * state of an {@link IMinesweeperGame} (opened cells and their numbers), opens cells
+ * proven safe and flags cells proven to be mines.
+ * <p>
+ * Rules: the single-cell rule (a number whose remaining mines equal its covered
+ * neighbours, or are zero) and the pairwise rule between numbers up to two cells
+ * apart, with neighbourhoods encoded as 7x7 bit masks. A work-list holds the numbers
+ * whose neighbourhood changed, so after each move only nearby cells are re-examined.
+ * The work-list is kept between calls to {@link #solve()}: the opened cells are read
+ * once after construction or {@link #reset()}, and from then on it is fed only by the
+ * cells reported to {@link #openedCells()}, so moves made outside the solver should be
+ * played through that sink. Buffers are allocated once per solver.
+ */
+public class MinesweeperSolver {
+    private static final int W = 7; // ventana 7x7 centrada en la celda examinada
+
+    private final IMinesweeperGame game;
+    private final int rows;
+    private final int cols;
+    private final BitPlane knownMines;
+    private final BitPlane queued;
+    private final int[] queue;
+    private int head, size;
+    // Hay que recorrer las celdas abiertas antes del próximo solve (estado desconocido)
+    private boolean needsScan = true;
+    private int knownMineCount;
+    private int actions;
+    private boolean exploded;
+    private boolean chording;
+
+    private final IOpenedCellsSink onOpened = (cells, offset, length) -> {
+        for (int k = offset; k < offset + length; k++) enqueueAround(cells[k]);
+    };
+
+    public MinesweeperSolver(IMinesweeperGame game) {
+        this.game = Objects.requireNonNull(game);
+        this.rows = game.getRows();
+        this.cols = game.getCols();
+        this.knownMines = new BitPlane(rows * cols);
+        this.queued = new BitPlane(rows * cols);
+        this.queue = new int[rows * cols];
+    }
+
+    /** Olvida las deducciones; llamar tras reiniciar la partida. */
+    public void reset() {
+        knownMines.clear();
+        knownMineCount = 0;
+        exploded = false;
+        head = size = 0;
+        queued.clear();
+        needsScan = true;
+    }
+
+    /**
+     * Sink to pass to {@link IMinesweeperGame#openCell(int, int, IOpenedCellsSink)} and
+     * {@link IMinesweeperGame#chordOpen(int, int, IOpenedCellsSink)} for moves played outside
+     * the solver, so that the next {@link #solve()} re-examines the numbers around them.
+     */
+    public IOpenedCellsSink openedCells() { return onOpened; }
+
+    /**
+     * When enabled, a number whose mines are all known and flagged is cleared with a single
+     * {@link IMinesweeperGame#chordOpen(int, int, IOpenedCellsSink)} instead of one open per
+     * cell, as a player would. Off by default.
+     */
+    public void setChording(boolean chording) { this.chording = chording; }
+
+    public boolean isMineKnown(int r, int c) { return knownMines.get(r * cols + c); }
+    public int getKnownMineCount() { return knownMineCount; }
+
+    /** Whether a move played by the solver hit a mine (only possible if the game state was inconsistent). */
+    public boolean hasExploded() { return exploded; }
+
+    /**
+     * Plays every certain move reachable from the current state.
+     * Returns the number of moves made (cells opened by the solver plus mines flagged).
+     */
+    public int solve() {
+        actions = 0;
+        if (needsScan) {
+            needsScan = false;
+            IBoardPlane opened = game.openedPlane();
+            for (int i = opened.nextSetBit(0); i >= 0; i = opened.nextSetBit(i + 1)) enqueue(i);
+        }
+
+        while (!exploded) {
+            while (size > 0 && !exploded) {
+                int i = queue[head];
+                head = head + 1 == queue.length ? 0 : head + 1;
+                size--;
+                queued.clear(i);
+                examine(i / cols, i % cols);
+            }
+            if (exploded || !applyGlobalCount()) break;
+        }
+        return actions;
+    }
+
+    private void enqueue(int i) {
+        if (queued.get(i) || !game.isOpened(i / cols, i % cols)) return;
+        int r = i / cols, c = i % cols;
+        if (game.isMine(r, c) || game.countAdjacentMines(r, c) == 0) return;
+        queued.set(i);
+        int tail = head + size;
+        queue[tail >= queue.length ? tail - queue.length : tail] = i;
+        size++;
+    }
+
+    private void enqueueAround(int i) {
+        int r = i / cols, c = i % cols;
+        int r0 = Math.max(0, r - 1), r1 = Math.min(rows - 1, r + 1);
+        int c0 = Math.max(0, c - 1), c1 = Math.min(cols - 1, c + 1);
+        for (int nr = r0; nr <= r1; nr++) {
+            for (int nc = c0; nc <= c1; nc++) enqueue(nr * cols + nc);
+        }
+    }
+
+    private static int bitIndex(int dr, int dc) { return (dr + 3) * W + (dc + 3); }
+
+    // Vecinos cubiertos y sin mina conocida de (r+dr, c+dc), en la ventana de (r, c)
+    private long unknownMask(int r, int c, int dr, int dc) {
+        int br = r + dr, bc = c + dc;
+        long m = 0;
+        for (int a = -1; a <= 1; a++) {
+            int nr = br + a;
+            if (nr < 0 || nr >= rows) continue;
+            for (int b = -1; b <= 1; b++) {
+                int nc = bc + b;
+                if ((a == 0 && b == 0) || nc < 0 || nc >= cols) continue;
+                if (!game.isOpened(nr, nc) && !knownMines.get(nr * cols + nc)) m |= 1L << bitIndex(dr + a, dc + b);
+            }
+        }
+        return m;
+    }
+
+    private int knownMinesAround(int r, int c) {
+        int n = 0;
+        int r0 = Math.max(0, r - 1), r1 = Math.min(rows - 1, r + 1);
+        int c0 = Math.max(0, c - 1), c1 = Math.min(cols - 1, c + 1);
+        for (int nr = r0; nr <= r1; nr++) {
+            for (int nc = c0; nc <= c1; nc++) {
+                if (knownMines.get(nr * cols + nc)) n++;
+            }
+        }
+        return n;
+    }
+
+    private void examine(int r, int c) {
+        long ua = unknownMask(r, c, 0, 0);
+        if (ua == 0) return;
+        int remA = game.countAdjacentMines(r, c) - knownMinesAround(r, c);
+        int na = Long.bitCount(ua);
+        if (remA == 0) {
+            if (chording && flagsAreKnownMines(r, c)) {
+                exploded |= game.chordOpen(r, c, onOpened);
+                actions++;
+            } else {
+                apply(r, c, ua, false);
+            }
+            return;
+        }
+        if (remA == na) { apply(r, c, ua, true); return; }
+
+        for (int dr = -2; dr <= 2; dr++) {
+            int br = r + dr;
+            if (br < 0 || br >= rows) continue;
+            for (int dc = -2; dc <= 2; dc++) {
+                int bc = c + dc;
+                if ((dr == 0 && dc == 0) || bc < 0 || bc >= cols) continue;
+                if (!game.isOpened(br, bc) || game.isMine(br, bc)) continue;
+                int adj = game.countAdjacentMines(br, bc);
+                if (adj == 0) continue;
+                long ub = unknownMask(r, c, dr, dc);
+                if ((ua & ub) == 0) continue;
+                int remB = adj - knownMinesAround(br, bc);
+                long onlyA = ua & ~ub, onlyB = ub & ~ua;
+                if (remA - remB == Long.bitCount(onlyA)) {
+                    if (apply(r, c, onlyA, true) | apply(r, c, onlyB, false)) return;
+                } else if (remB - remA == Long.bitCount(onlyB)) {
+                    if (apply(r, c, onlyB, true) | apply(r, c, onlyA, false)) return;
+                }
+            }
+        }
+    }
+
+    // El chord solo es seguro si las banderas alrededor son exactamente las minas deducidas
+    private boolean flagsAreKnownMines(int r, int c) {
+        int r0 = Math.max(0, r - 1), r1 = Math.min(rows - 1, r + 1);
+        int c0 = Math.max(0, c - 1), c1 = Math.min(cols - 1, c + 1);
+        for (int nr = r0; nr <= r1; nr++) {
+            for (int nc = c0; nc <= c1; nc++) {
+                if (game.isFlagged(nr, nc) != knownMines.get(nr * cols + nc)) return false;
+            }
+        }
+        return true;
+    }
+
+    // Aplica la deducción a las celdas de la máscara (ventana de (r, c)); devuelve si hubo cambios
+    private boolean apply(int r, int c, long mask, boolean mines) {
+        boolean changed = false;
+        while (mask != 0 && !exploded) {
+            int k = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            int nr = r + k / W - 3, nc = c + k % W - 3;
+            changed |= mines ? markMine(nr, nc) : openSafe(nr, nc);
+        }
+        return changed;
+    }
+
+    private boolean markMine(int r, int c) {
+        int i = r * cols + c;
+        if (knownMines.get(i) || game.isOpened(r, c)) return false;
+        knownMines.set(i);
+        knownMineCount++;
+        if (!game.isFlagged(r, c)) game.toggleFlag(r, c);
+        actions++;
+        enqueueAround(i);
+        return true;
+    }
+
+    private boolean openSafe(int r, int c) {
+        if (game.isOpened(r, c)) return false;
+        if (game.isFlagged(r, c)) game.toggleFlag(r, c);
+        exploded |= game.openCell(r, c, onOpened);
+        actions++;
+        return true;
+    }
+
+    // Regla global: con todas las minas localizadas, o tantas minas como celdas cubiertas, se resuelve el resto
+    private boolean applyGlobalCount() {
+        IBoardPlane opened = game.openedPlane();
+        int covered = rows * cols - opened.cardinality() - knownMineCount;
+        int remaining = game.getTotalMines() - knownMineCount;
+        if (covered == 0 || (remaining != 0 && remaining != covered)) return false;
+        boolean changed = false;
+        for (int i = 0; i < rows * cols && !exploded; i++) {
+            if (opened.get(i) || knownMines.get(i)) continue;
+            changed |= remaining == 0 ? openSafe(i / cols, i % cols) : markMine(i / cols, i % cols);
+        }
+        return changed;
+    }
+}
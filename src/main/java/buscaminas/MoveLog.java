@@ -0,0 +1,166 @@
+package buscaminas;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Append-only binary record of one game: the board parameters and seed, then every
+ * open, chord and flag action. Each move is two unsigned varints,
+ * {@code cell << 2 | action} and the microseconds since the previous move, so a
+ * typical move takes 3-4 bytes. Replaying the moves on a game created by
+ * {@link MoveLogReplay#newGame(MoveLog)} reproduces the game exactly.
+ */
+public final class MoveLog {
+    public static final int OPEN = 0;
+    public static final int CHORD = 1;
+    public static final int FLAG = 2;
+
+    private static final int MAGIC = 0x424D4C47; // "BMLG"
+    private static final int VERSION = 1;
+
+    /** Tipo de juego que hay que reconstruir al reproducir. */
+    enum Kind { DENSE, CHUNKED }
+
+    final Kind kind;
+    final MinePlacement placement;
+    public final int rows;
+    public final int cols;
+    public final int mines;
+    private long boardSeed;
+    private boolean seedKnown;
+
+    private byte[] buf = new byte[256];
+    private int size;
+    private int moveCount;
+
+    MoveLog(Kind kind, MinePlacement placement, int rows, int cols, int mines) {
+        this.kind = kind;
+        this.placement = placement;
+        this.rows = rows;
+        this.cols = cols;
+        this.mines = mines;
+    }
+
+    /** The seed of the mine layout; only meaningful once {@link #isSeedKnown()} (after the first open). */
+    public long getBoardSeed() { return boardSeed; }
+    public boolean isSeedKnown() { return seedKnown; }
+    public int moveCount() { return moveCount; }
+    /** Encoded size of the moves, in bytes. */
+    public int payloadSize() { return size; }
+
+    /** Independent copy; later moves appended to this log do not affect it. */
+    MoveLog copy() {
+        MoveLog c = new MoveLog(kind, placement, rows, cols, mines);
+        c.boardSeed = boardSeed;
+        c.seedKnown = seedKnown;
+        c.buf = Arrays.copyOf(buf, Math.max(size, 16));
+        c.size = size;
+        c.moveCount = moveCount;
+        return c;
+    }
+
+    void setBoardSeed(long seed) {
+        this.boardSeed = seed;
+        this.seedKnown = true;
+    }
+
+    void append(int action, long cell, long deltaMicros) {
+        if (size + 20 > buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+        writeVarint(cell << 2 | action);
+        writeVarint(Math.max(0, deltaMicros));
+        moveCount++;
+    }
+
+    private void writeVarint(long v) {
+        while ((v & ~0x7FL) != 0) {
+            buf[size++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[size++] = (byte) v;
+    }
+
+    /** Iterates over the moves in order. */
+    public Cursor cursor() { return new Cursor(); }
+
+    /** Forward-only reader; call {@link #next()} before reading the first move. */
+    public final class Cursor {
+        private int pos;
+        private int action;
+        private long cell;
+        private long deltaMicros;
+
+        private Cursor() {}
+
+        public boolean next() {
+            if (pos >= size) return false;
+            long v = readVarint();
+            action = (int) (v & 3);
+            cell = v >>> 2;
+            deltaMicros = readVarint();
+            return true;
+        }
+
+        public int action() { return action; }
+        public long cell() { return cell; }
+        public int row() { return (int) (cell / cols); }
+        public int col() { return (int) (cell % cols); }
+        public long deltaMicros() { return deltaMicros; }
+
+        private long readVarint() {
+            long v = 0;
+            for (int shift = 0; ; shift += 7) {
+                if (pos >= size || shift > 63) throw new IllegalStateException("Registro dañado");
+                byte b = buf[pos++];
+                v |= (long) (b & 0x7F) << shift;
+                if (b >= 0) return v;
+            }
+        }
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeByte(kind.ordinal());
+        data.writeUTF(placement.name());
+        data.writeInt(rows);
+        data.writeInt(cols);
+        data.writeInt(mines);
+        data.writeBoolean(seedKnown);
+        data.writeLong(boardSeed);
+        data.writeInt(moveCount);
+        data.writeInt(size);
+        data.write(buf, 0, size);
+        data.flush();
+    }
+
+    public static MoveLog readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) throw new IOException("No es un registro de partida");
+        int version = data.readUnsignedByte();
+        if (version != VERSION) throw new IOException("Versión de registro no soportada: " + version);
+        int kind = data.readUnsignedByte();
+        if (kind >= Kind.values().length) throw new IOException("Tipo de tablero desconocido: " + kind);
+        MinePlacement placement;
+        try {
+            placement = MinePlacement.valueOf(data.readUTF());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Colocación de minas desconocida", e);
+        }
+        MoveLog log = new MoveLog(Kind.values()[kind], placement, data.readInt(), data.readInt(), data.readInt());
+        boolean seedKnown = data.readBoolean();
+        long seed = data.readLong();
+        if (seedKnown) log.setBoardSeed(seed);
+        log.moveCount = data.readInt();
+        int size = data.readInt();
+        if (size < 0 || log.moveCount < 0 || log.rows <= 0 || log.cols <= 0) throw new IOException("Registro dañado");
+        log.buf = new byte[Math.max(size, 16)];
+        data.readFully(log.buf, 0, size);
+        log.size = size;
+        return log;
+    }
+}
@@ -0,0 +1,104 @@
+package buscaminas;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Headless replay of {@link MoveLog}s: rebuilds the board from the seed and applies the
+ * moves as fast as possible, ignoring their timing.
+ * <pre>
+ * java -cp ... buscaminas.MoveLogReplay [--repeat N] file.bml...
+ * </pre>
+ */
+public final class MoveLogReplay {
+    /** Final state of a replayed game. */
+    public static final class Result {
+        public final int moves;
+        public final boolean exploded;
+        public final boolean win;
+        public final int openedCells;
+        public final int flags;
+
+        Result(int moves, boolean exploded, boolean win, int openedCells, int flags) {
+            this.moves = moves;
+            this.exploded = exploded;
+            this.win = win;
+            this.openedCells = openedCells;
+            this.flags = flags;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "moves=%d opened=%d flags=%d %s",
+                    moves, openedCells, flags, win ? "win" : exploded ? "exploded" : "unfinished");
+        }
+    }
+
+    private static final IOpenedCellsSink DISCARD = (cells, offset, length) -> {};
+
+    private MoveLogReplay() {}
+
+    /** A fresh game with the log's board; its first open reproduces the recorded mine layout. */
+    public static IMinesweeperGame newGame(MoveLog log) {
+        if (log.kind == MoveLog.Kind.CHUNKED) {
+            ChunkedMinesweeperGame game = new ChunkedMinesweeperGame(log.rows, log.cols, log.mines, new Random(0));
+            if (log.isSeedKnown()) game.reset(log.getBoardSeed());
+            return game;
+        }
+        MinesweeperGame game = new MinesweeperGame(log.rows, log.cols, log.mines, new Random(0), log.placement);
+        if (log.isSeedKnown()) game.reset(log.getBoardSeed());
+        return game;
+    }
+
+    /** Applies one move of the log to {@code game}; returns whether it exploded. */
+    static boolean apply(IMinesweeperGame game, int action, int r, int c, IOpenedCellsSink sink) {
+        switch (action) {
+            case MoveLog.OPEN: return game.openCell(r, c, sink);
+            case MoveLog.CHORD: return game.chordOpen(r, c, sink);
+            case MoveLog.FLAG: game.toggleFlag(r, c); return false;
+            default: throw new IllegalStateException("Acción desconocida: " + action);
+        }
+    }
+
+    /** Replays every move of {@code log} on {@code game}, which must be fresh from {@link #newGame(MoveLog)}. */
+    public static Result replay(MoveLog log, IMinesweeperGame game) {
+        MoveLog.Cursor cur = log.cursor();
+        boolean exploded = false;
+        int moves = 0;
+        while (cur.next()) {
+            exploded |= apply(game, cur.action(), cur.row(), cur.col(), DISCARD);
+            moves++;
+        }
+        return new Result(moves, exploded, game.isWin(), game.openedPlane().cardinality(), game.getFlagsCount());
+    }
+
+    public static Result replay(MoveLog log) { return replay(log, newGame(log)); }
+
+    public static MoveLog read(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return MoveLog.readFrom(in);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int repeat = 1;
+        for (int i = 0; i < args.length; i++) {
+            if ("--repeat".equals(args[i]) && i + 1 < args.length) {
+                repeat = Integer.parseInt(args[++i]);
+                continue;
+            }
+            MoveLog log = read(Path.of(args[i]));
+            Result result = null;
+            long t0 = System.nanoTime();
+            for (int k = 0; k < repeat; k++) result = replay(log);
+            double seconds = (System.nanoTime() - t0) / 1e9;
+            System.out.printf(Locale.ROOT, "%s %dx%d/%d seed=%d %s moves/s=%.0f%n", args[i], log.rows, log.cols,
+                    log.mines, log.getBoardSeed(), result, (double) log.moveCount() * repeat / seconds);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package buscaminas;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Background generator of "no-guess" boards: layouts that {@link MinesweeperSolver}
+ * clears completely from a known start cell. Finding one takes many generate-and-test
+ * attempts, so worker threads on every core keep a bounded pool of ready boards per
+ * {@link Difficulty}. {@link #takeAsync(Difficulty)} hands out a ready board at once or
+ * completes later from a worker, so it is safe to call from the event dispatch thread.
+ */
+public final class NoGuessBoardPool implements AutoCloseable {
+    /** A no-guess board: the layout given by {@code boardSeed} once the start cell is opened. */
+    public record Board(int rows, int cols, int mines, long boardSeed, int startR, int startC) {
+        /** Creates the game with the start cell already opened. */
+        public MinesweeperGame newGame() {
+            MinesweeperGame game = newUnopenedGame();
+            game.openCell(startR, startC);
+            return game;
+        }
+
+        /** Creates the game with the seed pinned; opening the start cell gives the no-guess layout. */
+        public MinesweeperGame newUnopenedGame() {
+            MinesweeperGame game = new MinesweeperGame(rows, cols, mines);
+            game.reset(boardSeed);
+            return game;
+        }
+    }
+
+    private final int capacity;
+    private final int threads;
+    private final Map<Difficulty, ArrayDeque<Board>> ready = new EnumMap<>(Difficulty.class);
+    // Peticiones sin tablero listo; los workers las atienden antes de rellenar la reserva
+    private final Map<Difficulty, ArrayDeque<CompletableFuture<Board>>> waiting = new EnumMap<>(Difficulty.class);
+    private final SplittableRandom seeds;
+    private ExecutorService workers;
+    private volatile boolean closed;
+
+    public NoGuessBoardPool(int capacityPerDifficulty) {
+        this(capacityPerDifficulty, Runtime.getRuntime().availableProcessors(), new SplittableRandom());
+    }
+
+    public NoGuessBoardPool(int capacityPerDifficulty, int threads, SplittableRandom seeds) {
+        if (capacityPerDifficulty <= 0 || threads <= 0) throw new IllegalArgumentException("Parámetros inválidos");
+        this.capacity = capacityPerDifficulty;
+        this.threads = threads;
+        this.seeds = seeds;
+        for (Difficulty d : Difficulty.values()) {
+            ready.put(d, new ArrayDeque<>());
+            waiting.put(d, new ArrayDeque<>());
+        }
+    }
+
+    /** Starts the background workers; idempotent. */
+    public synchronized void start() {
+        if (workers != null || closed) return;
+        AtomicInteger n = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "no-guess-generator-" + n.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        for (int i = 0; i < threads; i++) workers.execute(this::workLoop);
+    }
+
+    /**
+     * Returns a future holding a pooled board; if none is ready it completes when a worker
+     * finds one (the workers are started if needed). Cancelling the future drops the request.
+     * After {@link #close()} pending futures are cancelled.
+     */
+    public CompletableFuture<Board> takeAsync(Difficulty d) {
+        CompletableFuture<Board> f;
+        synchronized (this) {
+            if (closed) {
+                f = new CompletableFuture<>();
+                f.cancel(false);
+                return f;
+            }
+            Board b = ready.get(d).pollFirst();
+            notifyAll();
+            if (b != null) return CompletableFuture.completedFuture(b);
+            f = new CompletableFuture<>();
+            waiting.get(d).addLast(f);
+        }
+        start();
+        return f;
+    }
+
+    /**
+     * Returns a pooled board, or generates one on the calling thread if none is ready, which
+     * can take a long time; interactive callers should use {@link #takeAsync(Difficulty)}.
+     */
+    public Board take(Difficulty d) {
+        Board b;
+        long seed;
+        synchronized (this) {
+            b = ready.get(d).pollFirst();
+            seed = seeds.nextLong();
+            notifyAll();
+        }
+        return b != null ? b : generate(d.rows, d.cols, d.mines, new SplittableRandom(seed));
+    }
+
+    public synchronized int readyCount(Difficulty d) { return ready.get(d).size(); }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (this) {
+            notifyAll();
+            if (workers != null) workers.shutdownNow();
+            for (ArrayDeque<CompletableFuture<Board>> q : waiting.values()) {
+                for (CompletableFuture<Board> f : q) f.cancel(false);
+                q.clear();
+            }
+        }
+    }
+
+    private void workLoop() {
+        Worker[] perDifficulty = new Worker[Difficulty.values().length];
+        while (!closed) {
+            Difficulty next;
+            SplittableRandom rnd;
+            synchronized (this) {
+                while (!closed && emptiest() == null) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) return;
+                next = emptiest();
+                rnd = seeds.split();
+            }
+            Worker w = perDifficulty[next.ordinal()];
+            if (w == null) w = perDifficulty[next.ordinal()] = new Worker(next.rows, next.cols, next.mines);
+            Board b = w.generate(rnd, () -> closed);
+            if (b == null) return;
+            deliver(next, b);
+        }
+    }
+
+    // Entrega el tablero a la primera petición aún viva o, si no hay, lo guarda en la reserva
+    private void deliver(Difficulty d, Board b) {
+        while (true) {
+            CompletableFuture<Board> f;
+            synchronized (this) {
+                f = waiting.get(d).pollFirst();
+                if (f == null) {
+                    ArrayDeque<Board> q = ready.get(d);
+                    if (q.size() < capacity) q.addLast(b);
+                    return;
+                }
+            }
+            if (f.complete(b)) return;
+        }
+    }
+
+    // Dificultad con peticiones pendientes o con menos tableros listos; null si todas están llenas
+    private Difficulty emptiest() {
+        Difficulty best = null;
+        for (Difficulty d : Difficulty.values()) {
+            if (!waiting.get(d).isEmpty()) return d;
+            int n = ready.get(d).size();
+            if (n < capacity && (best == null || n < ready.get(best).size())) best = d;
+        }
+        return best;
+    }
+
+    /** Generates a no-guess board on the calling thread. */
+    public static Board generate(int rows, int cols, int mines, SplittableRandom rnd) {
+        return new Worker(rows, cols, mines).generate(rnd, () -> false);
+    }
+
+    /** Juego y solver reutilizados entre intentos. */
+    private static final class Worker {
+        final MinesweeperGame game;
+        final MinesweeperSolver solver;
+        final int startR, startC;
+
+        Worker(int rows, int cols, int mines) {
+            this.game = new MinesweeperGame(rows, cols, mines, new Random(0));
+            this.solver = new MinesweeperSolver(game);
+            this.startR = rows / 2;
+            this.startC = cols / 2;
+        }
+
+        Board generate(SplittableRandom rnd, BooleanSupplier cancelled) {
+            while (!cancelled.getAsBoolean()) {
+                long seed = rnd.nextLong();
+                game.reset(seed);
+                solver.reset();
+                game.openCell(startR, startC, solver.openedCells());
+                solver.solve();
+                if (game.isWin()) return new Board(game.getRows(), game.getCols(), game.getTotalMines(), seed, startR, startC);
+            }
+            return null;
+        }
+    }
+}
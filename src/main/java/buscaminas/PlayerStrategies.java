@@ -0,0 +1,68 @@
+package buscaminas;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Built-in {@link IPlayerStrategy} factories.
+ */
+public final class PlayerStrategies {
+    private PlayerStrategies() {}
+
+    /** Looks a strategy up by name ({@code random} or {@code solver}). */
+    public static Supplier<IPlayerStrategy> byName(String name) {
+        switch (name.toLowerCase()) {
+            case "random": return PlayerStrategies::random;
+            case "solver": return PlayerStrategies::solver;
+            default: throw new IllegalArgumentException("Estrategia desconocida: " + name);
+        }
+    }
+
+    /** Opens random covered cells. */
+    public static IPlayerStrategy random() {
+        return (game, random) -> {
+            while (!game.isWin()) {
+                int i = randomCovered(game, random, null);
+                if (game.openCell(i / game.getCols(), i % game.getCols()).exploded()) return;
+            }
+        };
+    }
+
+    /**
+     * Plays every certain move with {@link MinesweeperSolver}, chording numbers whose mines are
+     * flagged, and guesses at random when stuck.
+     */
+    public static IPlayerStrategy solver() {
+        return new IPlayerStrategy() {
+            private MinesweeperSolver solver;
+            private IMinesweeperGame solverGame;
+
+            @Override
+            public void play(IMinesweeperGame game, Random random) {
+                if (solverGame != game) {
+                    solver = new MinesweeperSolver(game);
+                    solver.setChording(true);
+                    solverGame = game;
+                }
+                solver.reset();
+                while (!game.isWin()) {
+                    int i = randomCovered(game, random, solver);
+                    if (game.openCell(i / game.getCols(), i % game.getCols(), solver.openedCells())) return;
+                    solver.solve();
+                    if (solver.hasExploded()) return;
+                }
+            }
+        };
+    }
+
+    // Celda cubierta al azar (muestreo de reservorio), evitando las minas que el solver ya conoce
+    private static int randomCovered(IMinesweeperGame game, Random random, MinesweeperSolver solver) {
+        IBoardPlane opened = game.openedPlane();
+        int cols = game.getCols(), n = game.getRows() * cols, seen = 0, pick = -1;
+        for (int i = 0; i < n; i++) {
+            if (opened.get(i) || (solver != null && solver.isMineKnown(i / cols, i % cols))) continue;
+            if (random.nextInt(++seen) == 0) pick = i;
+        }
+        return pick;
+    }
+}
@@ -0,0 +1,120 @@
+package buscaminas;
+
+/**
+ * {@link IMinesweeperGame} decorator that appends every open, chord and flag action
+ * to a {@link MoveLog}. {@link #reset()} starts a new log; earlier logs stay valid.
+ */
+final class RecordingGame implements IMinesweeperGame {
+    private final IMinesweeperGame game;
+    private MoveLog log;
+    private long lastMoveNanos;
+
+    /** Wraps a {@link MinesweeperGame} (with a {@link MinePlacement}) or a {@link ChunkedMinesweeperGame}. */
+    RecordingGame(IMinesweeperGame game) {
+        this.game = game;
+        this.log = newLog();
+    }
+
+    /** Continues {@code log}, which must hold every move already played on {@code game} (a resumed game). */
+    RecordingGame(IMinesweeperGame game, MoveLog log) {
+        if (log.rows != game.getRows() || log.cols != game.getCols() || log.mines != game.getTotalMines()) {
+            throw new IllegalArgumentException("El registro no corresponde a la partida");
+        }
+        this.game = game;
+        this.log = log;
+        this.lastMoveNanos = System.nanoTime();
+    }
+
+    IMinesweeperGame unwrap() { return game; }
+
+    /** Log of the current game. */
+    MoveLog log() { return log; }
+
+    private MoveLog newLog() {
+        lastMoveNanos = System.nanoTime();
+        if (game instanceof MinesweeperGame) {
+            IMinePlacement p = ((MinesweeperGame) game).placement();
+            if (!(p instanceof MinePlacement)) throw new IllegalArgumentException("Colocación de minas no registrable: " + p);
+            return new MoveLog(MoveLog.Kind.DENSE, (MinePlacement) p, getRows(), getCols(), getTotalMines());
+        }
+        if (game instanceof ChunkedMinesweeperGame) {
+            return new MoveLog(MoveLog.Kind.CHUNKED, MinePlacement.SAFE_HALO, getRows(), getCols(), getTotalMines());
+        }
+        throw new IllegalArgumentException("Juego no registrable: " + game.getClass().getName());
+    }
+
+    private void record(int action, int r, int c) {
+        long now = System.nanoTime();
+        log.append(action, (long) r * getCols() + c, (now - lastMoveNanos) / 1000);
+        lastMoveNanos = now;
+    }
+
+    // La semilla se fija al colocar las minas, en la primera apertura; otros juegos no la registran
+    private void captureSeed() {
+        if (log.isSeedKnown() || !(game instanceof ISeededGame)) return;
+        ISeededGame g = (ISeededGame) game;
+        if (g.areMinesPlaced()) log.setBoardSeed(g.getBoardSeed());
+    }
+
+    @Override public int getRows() { return game.getRows(); }
+    @Override public int getCols() { return game.getCols(); }
+    @Override public int getTotalMines() { return game.getTotalMines(); }
+    @Override public boolean isMine(int r, int c) { return game.isMine(r, c); }
+    @Override public boolean isOpened(int r, int c) { return game.isOpened(r, c); }
+    @Override public boolean isFlagged(int r, int c) { return game.isFlagged(r, c); }
+    @Override public IBoardPlane minesPlane() { return game.minesPlane(); }
+    @Override public IBoardPlane openedPlane() { return game.openedPlane(); }
+    @Override public IBoardPlane flaggedPlane() { return game.flaggedPlane(); }
+    @Override public boolean[][] getMines() { return game.getMines(); }
+    @Override public boolean[][] getOpened() { return game.getOpened(); }
+    @Override public int countAdjacentMines(int r, int c) { return game.countAdjacentMines(r, c); }
+    @Override public int countAdjacentFlags(int r, int c) { return game.countAdjacentFlags(r, c); }
+    @Override public int getFlagsCount() { return game.getFlagsCount(); }
+    @Override public boolean isWin() { return game.isWin(); }
+    @Override public void addChangeListener(IGameChangeListener listener) { game.addChangeListener(listener); }
+    @Override public void removeChangeListener(IGameChangeListener listener) { game.removeChangeListener(listener); }
+
+    @Override
+    public void reset() {
+        game.reset();
+        log = newLog();
+    }
+
+    @Override
+    public void toggleFlag(int r, int c) {
+        record(MoveLog.FLAG, r, c);
+        game.toggleFlag(r, c);
+    }
+
+    @Override
+    public IOpenResult openCell(int r, int c) {
+        record(MoveLog.OPEN, r, c);
+        IOpenResult res = game.openCell(r, c);
+        captureSeed();
+        return res;
+    }
+
+    @Override
+    public IOpenResult chordOpen(int r, int c) {
+        record(MoveLog.CHORD, r, c);
+        IOpenResult res = game.chordOpen(r, c);
+        captureSeed();
+        return res;
+    }
+
+    @Override
+    public boolean openCell(int r, int c, IOpenedCellsSink sink) {
+        record(MoveLog.OPEN, r, c);
+        boolean exploded = game.openCell(r, c, sink);
+        captureSeed();
+        return exploded;
+    }
+
+    @Override
+    public boolean chordOpen(int r, int c, IOpenedCellsSink sink) {
+        record(MoveLog.CHORD, r, c);
+        boolean exploded = game.chordOpen(r, c, sink);
+        captureSeed();
+        return exploded;
+    }
+}
@@ -0,0 +1,54 @@
+package buscaminas;
+
+import javax.swing.Timer;
+
+/**
+ * Plays a {@link MoveLog} into a {@link MinesweeperBoardPanel} at the recorded pace,
+ * on the EDT. Pauses longer than two seconds are shortened to two seconds.
+ */
+final class ReplayPlayer {
+    private static final long MAX_GAP_MICROS = 2_000_000;
+
+    private final MoveLog.Cursor cursor;
+    private final MinesweeperBoardPanel panel;
+    private final Timer timer = new Timer(10, e -> tick());
+    private long startNanos;
+    private long dueMicros;
+    private boolean pending;
+
+    ReplayPlayer(MoveLog log, MinesweeperBoardPanel panel) {
+        this.cursor = log.cursor();
+        this.panel = panel;
+    }
+
+    void start() {
+        startNanos = System.nanoTime();
+        timer.start();
+    }
+
+    void stop() { timer.stop(); }
+
+    boolean isRunning() { return timer.isRunning(); }
+
+    private void tick() {
+        long elapsed = (System.nanoTime() - startNanos) / 1000;
+        while (true) {
+            if (!pending) {
+                if (!cursor.next()) {
+                    timer.stop();
+                    return;
+                }
+                dueMicros += Math.min(MAX_GAP_MICROS, cursor.deltaMicros());
+                pending = true;
+            }
+            if (dueMicros > elapsed) return;
+            pending = false;
+            int r = cursor.row(), c = cursor.col();
+            switch (cursor.action()) {
+                case MoveLog.OPEN: panel.open(r, c); break;
+                case MoveLog.CHORD: panel.chord(r, c); break;
+                default: panel.rightClick(r, c); break;
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package buscaminas;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+/**
+ * Binary save format for an in-progress {@link MinesweeperGame}, optionally with its
+ * {@link MoveLog}. Little-endian layout:
+ * <pre>
+ * int magic "BMSV", short version, short placement-name length, placement name (UTF-8)
+ * int rows, int cols, int mines, long boardSeed, byte flags (seed pinned, mines placed)
+ * int openedSafeCells, int flagsCount, int wordCount
+ * long[wordCount] mines, long[wordCount] opened, long[wordCount] flagged
+ * int moveLogLength (-1 if none), moveLog bytes
+ * int CRC32 of everything before it
+ * </pre>
+ * The planes are copied with bulk {@code LongBuffer} transfers, and writes go through a
+ * single buffer and channel, so saving is dominated by the I/O itself.
+ */
+public final class SavedGame {
+    private static final int MAGIC = 0x56534D42; // "BMSV" leído en little-endian
+    private static final short VERSION = 1;
+    private static final int FLAG_SEED_PINNED = 1;
+    private static final int FLAG_MINES_PLACED = 2;
+
+    public final MinesweeperGame game;
+    /** Moves played so far, or null if the game was saved without them. */
+    public final MoveLog log;
+
+    SavedGame(MinesweeperGame game, MoveLog log) {
+        this.game = game;
+        this.log = log;
+    }
+
+    public static void write(MinesweeperGame game, MoveLog log, WritableByteChannel out) throws IOException {
+        writeAll(encode(game.captureState(), log == null ? null : log.copy()), out);
+    }
+
+    public static SavedGame read(ReadableByteChannel in) throws IOException {
+        ByteBuffer head = readFully(in, 8);
+        if (head.getInt() != MAGIC) throw new IOException("No es una partida guardada");
+        short version = head.getShort();
+        if (version != VERSION) throw new IOException("Versión de partida no soportada: " + version);
+        int nameLength = head.getShort() & 0xFFFF;
+        ByteBuffer fixed = readFully(in, nameLength + 33);
+        byte[] name = new byte[nameLength];
+        fixed.get(name);
+        int rows = fixed.getInt(), cols = fixed.getInt(), mines = fixed.getInt();
+        long boardSeed = fixed.getLong();
+        int flags = fixed.get();
+        int openedSafe = fixed.getInt(), flagsCount = fixed.getInt(), wordCount = fixed.getInt();
+        if (rows <= 0 || cols <= 0 || (long) rows * cols > Integer.MAX_VALUE
+                || wordCount != (int) (((long) rows * cols + 63) >>> 6)) throw new IOException("Partida guardada dañada");
+
+        ByteBuffer planes = readFully(in, wordCount * 24L + 4);
+        long[] minesWords = new long[wordCount], openedWords = new long[wordCount], flaggedWords = new long[wordCount];
+        planes.asLongBuffer().get(minesWords).get(openedWords).get(flaggedWords);
+        planes.position(wordCount * 24);
+        int logLength = planes.getInt();
+        if (logLength < -1) throw new IOException("Partida guardada dañada");
+        ByteBuffer tail = readFully(in, Math.max(0, logLength) + 4L);
+        byte[] logBytes = logLength < 0 ? null : new byte[logLength];
+        if (logBytes != null) tail.get(logBytes);
+        int storedCrc = tail.getInt();
+
+        CRC32 crc = new CRC32();
+        crc.update(head.flip());
+        crc.update(fixed.flip());
+        crc.update(planes.flip());
+        crc.update(tail.flip().limit(tail.limit() - 4));
+        if ((int) crc.getValue() != storedCrc) throw new IOException("Partida guardada dañada (CRC)");
+
+        try {
+            MinePlacement placement = MinePlacement.valueOf(new String(name, StandardCharsets.UTF_8));
+            MinesweeperGame game = MinesweeperGame.fromState(new MinesweeperGame.State(rows, cols, mines, placement,
+                    boardSeed, (flags & FLAG_SEED_PINNED) != 0, (flags & FLAG_MINES_PLACED) != 0, openedSafe, flagsCount,
+                    minesWords, openedWords, flaggedWords), new Random());
+            MoveLog log = logBytes == null ? null : MoveLog.readFrom(new ByteArrayInputStream(logBytes));
+            return new SavedGame(game, log);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Partida guardada dañada", e);
+        }
+    }
+
+    /** Writes to a temporary file next to {@code file} and renames it, so a crash never leaves a torn save. */
+    public static void save(MinesweeperGame game, MoveLog log, Path file) throws IOException {
+        writeFile(encode(game.captureState(), log == null ? null : log.copy()), file);
+    }
+
+    public static SavedGame load(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(ch);
+        }
+    }
+
+    /** Serializes a captured state; safe to call off the EDT since it owns all its inputs. */
+    static ByteBuffer encode(MinesweeperGame.State s, MoveLog log) {
+        if (!(s.placement() instanceof MinePlacement)) throw new IllegalArgumentException("Colocación de minas no guardable");
+        byte[] name = ((MinePlacement) s.placement()).name().getBytes(StandardCharsets.UTF_8);
+        byte[] logBytes = null;
+        if (log != null) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(log.payloadSize() + 64);
+            try {
+                log.writeTo(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            logBytes = out.toByteArray();
+        }
+        int words = s.mines().length;
+        long size = 8L + name.length + 33 + words * 24L + 4 + (logBytes == null ? 0 : logBytes.length) + 4;
+        if (size > Integer.MAX_VALUE) throw new IllegalArgumentException("Partida demasiado grande");
+        ByteBuffer buf = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putShort(VERSION).putShort((short) name.length).put(name);
+        buf.putInt(s.rows()).putInt(s.cols()).putInt(s.totalMines()).putLong(s.boardSeed());
+        buf.put((byte) ((s.boardSeedPinned() ? FLAG_SEED_PINNED : 0) | (s.minesPlaced() ? FLAG_MINES_PLACED : 0)));
+        buf.putInt(s.openedSafeCells()).putInt(s.flagsCount()).putInt(words);
+        buf.asLongBuffer().put(s.mines()).put(s.opened()).put(s.flagged());
+        buf.position(buf.position() + words * 24);
+        if (logBytes == null) buf.putInt(-1); else buf.putInt(logBytes.length).put(logBytes);
+        CRC32 crc = new CRC32();
+        crc.update(buf.duplicate().flip());
+        buf.putInt((int) crc.getValue());
+        return buf.flip();
+    }
+
+    static void writeFile(ByteBuffer data, Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeAll(data, ch);
+            ch.force(false);
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void writeAll(ByteBuffer data, WritableByteChannel out) throws IOException {
+        while (data.hasRemaining()) out.write(data);
+    }
+
+    private static ByteBuffer readFully(ReadableByteChannel in, long length) throws IOException {
+        if (length > Integer.MAX_VALUE) throw new IOException("Partida guardada dañada");
+        ByteBuffer buf = ByteBuffer.allocate((int) length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buf.hasRemaining()) {
+            if (in.read(buf) < 0) throw new IOException("Partida guardada incompleta");
+        }
+        return buf.flip();
+    }
+}
@@ -0,0 +1,67 @@
+package buscaminas;
+
+/**
+ * {@link IMinesweeperGame} decorator that records the latency of every open and
+ * chord action into per-instance histograms.
+ */
+final class TimedGame implements IMinesweeperGame {
+    private final IMinesweeperGame game;
+    final LatencyHistogram openLatency = new LatencyHistogram();
+    final LatencyHistogram chordLatency = new LatencyHistogram();
+
+    TimedGame(IMinesweeperGame game) { this.game = game; }
+
+    IMinesweeperGame unwrap() { return game; }
+
+    @Override public int getRows() { return game.getRows(); }
+    @Override public int getCols() { return game.getCols(); }
+    @Override public int getTotalMines() { return game.getTotalMines(); }
+    @Override public boolean isMine(int r, int c) { return game.isMine(r, c); }
+    @Override public boolean isOpened(int r, int c) { return game.isOpened(r, c); }
+    @Override public boolean isFlagged(int r, int c) { return game.isFlagged(r, c); }
+    @Override public IBoardPlane minesPlane() { return game.minesPlane(); }
+    @Override public IBoardPlane openedPlane() { return game.openedPlane(); }
+    @Override public IBoardPlane flaggedPlane() { return game.flaggedPlane(); }
+    @Override public boolean[][] getMines() { return game.getMines(); }
+    @Override public boolean[][] getOpened() { return game.getOpened(); }
+    @Override public int countAdjacentMines(int r, int c) { return game.countAdjacentMines(r, c); }
+    @Override public int countAdjacentFlags(int r, int c) { return game.countAdjacentFlags(r, c); }
+    @Override public int getFlagsCount() { return game.getFlagsCount(); }
+    @Override public void toggleFlag(int r, int c) { game.toggleFlag(r, c); }
+    @Override public boolean isWin() { return game.isWin(); }
+    @Override public void addChangeListener(IGameChangeListener listener) { game.addChangeListener(listener); }
+    @Override public void removeChangeListener(IGameChangeListener listener) { game.removeChangeListener(listener); }
+    @Override public void reset() { game.reset(); }
+
+    @Override
+    public IOpenResult openCell(int r, int c) {
+        long t0 = System.nanoTime();
+        IOpenResult res = game.openCell(r, c);
+        openLatency.record(System.nanoTime() - t0);
+        return res;
+    }
+
+    @Override
+    public IOpenResult chordOpen(int r, int c) {
+        long t0 = System.nanoTime();
+        IOpenResult res = game.chordOpen(r, c);
+        chordLatency.record(System.nanoTime() - t0);
+        return res;
+    }
+
+    @Override
+    public boolean openCell(int r, int c, IOpenedCellsSink sink) {
+        long t0 = System.nanoTime();
+        boolean exploded = game.openCell(r, c, sink);
+        openLatency.record(System.nanoTime() - t0);
+        return exploded;
+    }
+
+    @Override
+    public boolean chordOpen(int r, int c, IOpenedCellsSink sink) {
+        long t0 = System.nanoTime();
+        boolean exploded = game.chordOpen(r, c, sink);
+        chordLatency.record(System.nanoTime() - t0);
+        return exploded;
+    }
+}
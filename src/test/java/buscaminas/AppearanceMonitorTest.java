@@ -0,0 +1,58 @@
+package buscaminas;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AppearanceMonitorTest {
+
+    @Test
+    void notifiesChangesOnTheEdtWithoutBlockingTheCaller() throws InterruptedException {
+        AtomicInteger queries = new AtomicInteger();
+        CountDownLatch slowQuery = new CountDownLatch(1);
+        // Oscuro en las consultas 2 y 3, claro en el resto; la primera tarda como un proceso externo
+        IAppearanceProvider provider = () -> {
+            int n = queries.incrementAndGet();
+            if (n == 1) {
+                try {
+                    slowQuery.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return n == 2 || n == 3;
+        };
+        List<Boolean> seen = new CopyOnWriteArrayList<>();
+        CountDownLatch twoChanges = new CountDownLatch(2);
+        try (AppearanceMonitor monitor = new AppearanceMonitor(provider, 5, null)) {
+            monitor.addListener(dark -> {
+                assertTrue(SwingUtilities.isEventDispatchThread());
+                seen.add(dark);
+                twoChanges.countDown();
+            });
+            long t0 = System.nanoTime();
+            monitor.start();
+            assertFalse(monitor.isDark());
+            assertTrue(System.nanoTime() - t0 < TimeUnit.MILLISECONDS.toNanos(500));
+            slowQuery.countDown();
+            assertTrue(twoChanges.await(5, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of(true, false), seen.subList(0, 2));
+    }
+
+    @Test
+    void fixedProviderIsNotPolled() {
+        AppearanceMonitor monitor = new AppearanceMonitor(AppearanceProviders.fixed(true), 5, null);
+        monitor.start();
+        assertTrue(monitor.isDark());
+        monitor.close();
+    }
+}
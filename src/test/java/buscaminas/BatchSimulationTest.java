@@ -0,0 +1,30 @@
+package buscaminas;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchSimulationTest {
+
+    @Test
+    void resultsDoNotDependOnThreadCount() {
+        BatchSimulation.Result one = BatchSimulation.run("b", 9, 9, 10, 500, 100, 1, PlayerStrategies.byName("solver"));
+        BatchSimulation.Result four = BatchSimulation.run("b", 9, 9, 10, 500, 100, 4, PlayerStrategies.byName("solver"));
+        assertEquals(500, one.games);
+        assertEquals(one.wins, four.wins);
+        assertTrue(one.winRate() > 0.5);
+        assertTrue(one.openLatency.count() >= 500);
+        assertTrue(one.openLatency.percentile(0.99) >= one.openLatency.percentile(0.5));
+        assertTrue(one.chordLatency.count() > 0);
+        assertEquals(one.chordLatency.count(), four.chordLatency.count());
+    }
+
+    @Test
+    void histogramPercentilesAreWithinBucketError() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) h.record(i * 100L);
+        assertEquals(500_000, h.percentile(0.5), 500_000 * 0.07);
+        assertEquals(990_000, h.percentile(0.99), 990_000 * 0.07);
+        assertEquals(1_000_000, h.max());
+    }
+}
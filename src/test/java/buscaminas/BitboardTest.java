@@ -0,0 +1,106 @@
+package buscaminas;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BitboardTest {
+
+    private static int naiveCount(IMinesweeperGame g, int r, int c) {
+        int n = 0;
+        for (int nr = r - 1; nr <= r + 1; nr++) {
+            for (int nc = c - 1; nc <= c + 1; nc++) {
+                if ((nr != r || nc != c) && nr >= 0 && nc >= 0 && nr < g.getRows() && nc < g.getCols() && g.isMine(nr, nc)) n++;
+            }
+        }
+        return n;
+    }
+
+    // BFS de referencia sobre copias del estado, con las mismas reglas que MinesweeperGame.flood
+    private static boolean[] referenceReveal(IMinesweeperGame g, int r, int c) {
+        int rows = g.getRows(), cols = g.getCols();
+        boolean[] opened = new boolean[rows * cols];
+        for (int i = 0; i < opened.length; i++) opened[i] = g.isOpened(i / cols, i % cols);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        opened[r * cols + c] = true;
+        queue.add(r * cols + c);
+        while (!queue.isEmpty()) {
+            int i = queue.poll(), cr = i / cols, cc = i % cols;
+            if (g.countAdjacentMines(cr, cc) != 0) continue;
+            for (int nr = Math.max(0, cr - 1); nr <= Math.min(rows - 1, cr + 1); nr++) {
+                for (int nc = Math.max(0, cc - 1); nc <= Math.min(cols - 1, cc + 1); nc++) {
+                    int ni = nr * cols + nc;
+                    if (!opened[ni] && !g.isFlagged(nr, nc) && !g.isMine(nr, nc)) {
+                        opened[ni] = true;
+                        queue.add(ni);
+                    }
+                }
+            }
+        }
+        return opened;
+    }
+
+    @Test
+    void bitSlicedCountsMatchNaiveCounts() {
+        int[][] sizes = {{1, 1}, {1, 70}, {70, 1}, {9, 9}, {16, 30}, {33, 63}, {20, 64}, {20, 65}, {17, 130}, {5, 200}};
+        Random rnd = new Random(1);
+        for (int[] size : sizes) {
+            for (double density : new double[]{0.0, 0.2, 0.8}) {
+                int rows = size[0], cols = size[1];
+                int mines = Math.min((int) (rows * cols * density), Math.max(0, rows * cols - 9));
+                MinesweeperGame g = new MinesweeperGame(rows, cols, mines, new Random(rnd.nextLong()));
+                g.placeMinesAvoiding(rows / 2, cols / 2);
+                for (int r = 0; r < rows; r++) {
+                    for (int c = 0; c < cols; c++) assertEquals(naiveCount(g, r, c), g.countAdjacentMines(r, c), rows + "x" + cols);
+                }
+            }
+        }
+    }
+
+    @Test
+    void dilationRevealMatchesBreadthFirstReveal() {
+        int[][] sizes = {{300, 300}, {200, 517}, {640, 64}, {128, 129}, {6000, 9}};
+        for (int[] size : sizes) {
+            for (long seed = 0; seed < 3; seed++) {
+                int rows = size[0], cols = size[1];
+                MinesweeperGame g = new MinesweeperGame(rows, cols, rows * cols / 150, new Random(seed));
+                g.placeMinesAvoiding(rows / 2, cols / 2);
+                // Banderas sueltas (algunas mal puestas) y una zona ya abierta que la expansión no debe atravesar
+                Random rnd = new Random(seed);
+                for (int k = 0; k < rows * cols / 200; k++) g.toggleFlag(rnd.nextInt(rows), rnd.nextInt(cols));
+                if (!g.isMine(0, 0) && !g.isFlagged(0, 0)) g.openCell(0, 0);
+                int r = rows / 2, c = cols / 2;
+                if (g.isFlagged(r, c)) g.toggleFlag(r, c);
+
+                boolean[] expected = referenceReveal(g, r, c);
+                int before = g.openedPlane().cardinality();
+                int reported = g.revealCell(r, c);
+                for (int i = 0; i < expected.length; i++) {
+                    assertEquals(expected[i], g.isOpened(i / cols, i % cols), rows + "x" + cols + " celda " + i);
+                }
+                assertEquals(g.openedPlane().cardinality() - before, reported);
+            }
+        }
+    }
+
+    @Test
+    void wholeBoardRevealThroughBitboardWins() {
+        MinesweeperGame g = new MinesweeperGame(300, 301, 0, new Random(0));
+        assertEquals(300 * 301, g.openCell(150, 150).openedCells.size());
+        assertTrue(g.isWin());
+    }
+
+    @Test
+    void narrowBoardUsesScalarCountsAndFlood() {
+        // Una columna por fila: el Bitboard gastaría una palabra por celda
+        MinesweeperGame g = new MinesweeperGame(1 << 16, 1, 0, new Random(0));
+        assertEquals(1 << 16, g.openCell(1 << 15, 0).openedCells.size());
+        assertTrue(g.isWin());
+        MinesweeperGame h = new MinesweeperGame(5000, 3, 500, new Random(2));
+        h.placeMinesAvoiding(0, 0);
+        for (int i = 0; i < 5000 * 3; i++) assertEquals(naiveCount(h, i / 3, i % 3), h.countAdjacentMines(i / 3, i % 3));
+    }
+}
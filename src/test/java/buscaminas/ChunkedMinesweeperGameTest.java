@@ -0,0 +1,105 @@
+package buscaminas;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkedMinesweeperGameTest {
+
+    @Test
+    void layoutHasExactMineCountAndSafeHalo() {
+        ChunkedMinesweeperGame g = new ChunkedMinesweeperGame(150,200,4000, new Random(8));
+        assertFalse(g.openCell(70,130).exploded);
+        int mines = 0;
+        for (int r=0;r<g.getRows();r++) for (int c=0;c<g.getCols();c++) if (g.isMine(r,c)) mines++;
+        assertEquals(4000, mines);
+        for (int r=69;r<=71;r++) for (int c=129;c<=131;c++) assertFalse(g.isMine(r,c));
+        assertEquals(0, g.countAdjacentMines(70,130));
+    }
+
+    @Test
+    void floodMatchesDenseGameRules() {
+        ChunkedMinesweeperGame g = new ChunkedMinesweeperGame(100,100,300, new Random(4));
+        MinesweeperGame.OpenResult res = g.openCell(50,50);
+        assertFalse(res.exploded);
+        for (MinesweeperGame.Cell cell : res.openedCells) {
+            assertTrue(g.isOpened(cell.r(), cell.c()));
+            assertFalse(g.isMine(cell.r(), cell.c()));
+            if (g.countAdjacentMines(cell.r(), cell.c()) == 0) {
+                for (int dr=-1;dr<=1;dr++) for (int dc=-1;dc<=1;dc++) {
+                    int nr=cell.r()+dr, nc=cell.c()+dc;
+                    if (nr>=0&&nr<100&&nc>=0&&nc<100) assertTrue(g.isOpened(nr,nc));
+                }
+            }
+        }
+        assertEquals(res.openedCells.size(), g.openedPlane().cardinality());
+    }
+
+    @Test
+    void hugeBoardOnlyAllocatesTouchedChunks() {
+        ChunkedMinesweeperGame g = new ChunkedMinesweeperGame(100_000,100_000,1_500_000_000, new Random(1));
+        assertEquals(10_000_000_000L, g.getTotalCells());
+        g.toggleFlag(99_999,99_999);
+        long[] opened = {0};
+        boolean exploded = g.openCell(50_000,50_000, new ILongOpenedCellsSink() {
+            @Override public void accept(int[] cells, int offset, int length) { fail("expected 64-bit indices"); }
+            @Override public void acceptLong(long[] cells, int offset, int length) {
+                for (int k=offset;k<offset+length;k++) assertTrue(cells[k] > Integer.MAX_VALUE);
+                opened[0] += length;
+            }
+        });
+        assertFalse(exploded);
+        assertTrue(opened[0] >= 9);
+        assertTrue(g.allocatedChunks() < 16, "chunks: " + g.allocatedChunks());
+        assertEquals(1, g.getFlagsCount());
+        assertThrows(UnsupportedOperationException.class, g::minesPlane);
+    }
+
+    @Test
+    void readsDoNotAllocateChunks() {
+        ChunkedMinesweeperGame g = new ChunkedMinesweeperGame(300,400,24000, new Random(5));
+        MinesweeperGame.OpenResult res = g.openCell(150,200);
+        assertFalse(res.exploded);
+        int touched = g.allocatedChunks();
+        boolean[][] mines = g.getMines();
+        int count = 0;
+        IBoardPlane plane = g.minesPlane();
+        for (int i = plane.nextSetBit(0); i >= 0; i = plane.nextSetBit(i + 1)) {
+            assertTrue(mines[i / 400][i % 400]);
+            count++;
+        }
+        assertEquals(24000, count);
+        for (int r=0;r<300;r++) for (int c=0;c<400;c++) g.countAdjacentMines(r,c);
+        IBoardPlane opened = g.openedPlane();
+        int openedCount = 0;
+        for (int i = opened.nextSetBit(0); i >= 0; i = opened.nextSetBit(i + 1)) openedCount++;
+        assertEquals(res.openedCells.size(), openedCount);
+        for (int w = 0; w < plane.wordCount(); w++) {
+            for (int k = 0; k < 64 && w * 64 + k < 300 * 400; k++) {
+                int i = w * 64 + k;
+                assertEquals(mines[i / 400][i % 400], (plane.word(w) >>> k & 1) != 0);
+            }
+        }
+        assertEquals(touched, g.allocatedChunks());
+
+        // Un chunk creado después de leer sus minas conserva el mismo trazado
+        int r = 299, c = 399;
+        while (g.isOpened(r, c)) c--;
+        boolean mine = g.isMine(r, c);
+        g.toggleFlag(r, c);
+        assertEquals(touched + 1, g.allocatedChunks());
+        assertEquals(mine, g.isMine(r, c));
+    }
+
+    @Test
+    void hugeBoardRejectsIntSinkBeforeOpeningAnything() {
+        ChunkedMinesweeperGame g = new ChunkedMinesweeperGame(100_000,100_000,1_500_000_000, new Random(1));
+        IOpenedCellsSink intOnly = (cells, offset, length) -> fail("expected no cells");
+        assertThrows(IllegalArgumentException.class, () -> g.openCell(50_000,50_000, intOnly));
+        assertFalse(g.isOpened(50_000,50_000));
+        assertEquals(0, g.allocatedChunks());
+        assertTrue(g.openCell(50_000,50_000).openedCells.size() >= 1);
+    }
+}
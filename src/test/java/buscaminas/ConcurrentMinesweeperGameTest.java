@@ -0,0 +1,118 @@
+package buscaminas;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentMinesweeperGameTest {
+
+    @Test
+    void sameBoardsAndRevealsAsSingleThreadedGame() {
+        for (long seed = 0; seed < 20; seed++) {
+            MinesweeperGame expected = new MinesweeperGame(16, 30, 99, new Random(seed));
+            ConcurrentMinesweeperGame game = new ConcurrentMinesweeperGame(16, 30, 99, new Random(seed));
+            MinesweeperGame.OpenResult a = expected.openCell(8, 15);
+            MinesweeperGame.OpenResult b = game.openCell(8, 15);
+            assertEquals(expected.getBoardSeed(), game.getBoardSeed());
+            assertEquals(a.openedCells.size(), b.openedCells.size());
+            for (int r = 0; r < 16; r++) {
+                for (int c = 0; c < 30; c++) {
+                    assertEquals(expected.isMine(r, c), game.isMine(r, c));
+                    assertEquals(expected.isOpened(r, c), game.isOpened(r, c));
+                    assertEquals(expected.countAdjacentMines(r, c), game.countAdjacentMines(r, c));
+                }
+            }
+        }
+    }
+
+    @Test
+    void chordAndFlagsFollowTheUsualRules() {
+        ConcurrentMinesweeperGame game = new ConcurrentMinesweeperGame(9, 9, 10, new Random(3));
+        game.openCell(4, 4);
+        game.toggleFlag(4, 4);
+        assertFalse(game.isFlagged(4, 4));
+        for (int i = game.openedPlane().nextSetBit(0); i >= 0; i = game.openedPlane().nextSetBit(i + 1)) {
+            int r = i / 9, c = i % 9;
+            if (game.countAdjacentMines(r, c) == 0) continue;
+            for (int nr = Math.max(0, r - 1); nr <= Math.min(8, r + 1); nr++) {
+                for (int nc = Math.max(0, c - 1); nc <= Math.min(8, c + 1); nc++) {
+                    if (game.isMine(nr, nc) && !game.isFlagged(nr, nc)) game.toggleFlag(nr, nc);
+                }
+            }
+            assertEquals(game.countAdjacentMines(r, c), game.countAdjacentFlags(r, c));
+            assertFalse(game.chordOpen(r, c).exploded());
+        }
+        assertEquals(game.flaggedPlane().cardinality(), game.getFlagsCount());
+    }
+
+    @Test
+    void concurrentPlayersOpenEachSafeCellExactlyOnce() throws Exception {
+        int rows = 300, cols = 300, threads = 8;
+        ConcurrentMinesweeperGame game = new ConcurrentMinesweeperGame(rows, cols, 9000, new Random(11));
+        game.openCell(0, 0);
+        int before = game.openedPlane().cardinality();
+        AtomicLong reported = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            futures.add(pool.submit(() -> {
+                go.await();
+                // Todos recorren el tablero entero en órdenes distintos para solaparse
+                Random rnd = new Random(seed);
+                int offset = rnd.nextInt(rows * cols);
+                for (int k = 0; k < rows * cols; k++) {
+                    int i = (offset + k) % (rows * cols);
+                    if (!game.isMine(i / cols, i % cols)) {
+                        game.openCell(i / cols, i % cols, (cells, off, len) -> reported.addAndGet(len));
+                    }
+                }
+                return null;
+            }));
+        }
+        go.countDown();
+        for (Future<?> f : futures) f.get();
+        pool.shutdown();
+
+        long safe = (long) rows * cols - 9000;
+        assertEquals(safe, game.getOpenedSafeCells());
+        assertEquals(safe, game.openedPlane().cardinality());
+        assertEquals(safe - before, reported.get());
+        assertTrue(game.isWin());
+    }
+
+    @Test
+    void racingFlagsAndOpensNeverLeaveAFlagOnAnOpenCell() throws Exception {
+        ConcurrentMinesweeperGame game = new ConcurrentMinesweeperGame(100, 100, 500, new Random(7));
+        game.openCell(0, 0);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            boolean flagger = t % 2 == 0;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 100 * 100; i++) {
+                    int r = i / 100, c = i % 100;
+                    if (game.isMine(r, c)) continue;
+                    if (flagger) game.toggleFlag(r, c); else game.openCell(r, c);
+                }
+            }));
+        }
+        for (Future<?> f : futures) f.get();
+        pool.shutdown();
+
+        IBoardPlane opened = game.openedPlane(), flagged = game.flaggedPlane();
+        for (int w = 0; w < opened.wordCount(); w++) assertEquals(0L, opened.word(w) & flagged.word(w));
+        assertEquals(flagged.cardinality(), game.getFlagsCount());
+        assertEquals(opened.cardinality(), game.getOpenedSafeCells());
+    }
+}
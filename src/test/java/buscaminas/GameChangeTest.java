@@ -0,0 +1,165 @@
+package buscaminas;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameChangeTest {
+
+    private static Set<Long> cellsOf(IOpenResult res, int cols) {
+        Set<Long> cells = new HashSet<>();
+        for (ICell cell : res.openedCells()) cells.add((long) cell.r() * cols + cell.c());
+        return cells;
+    }
+
+    // Guarda el resumen de cada acción y las celdas de los lotes OPENED que lo preceden
+    private static final class Recorder implements IGameChangeListener {
+        final List<GameChange> changes = new ArrayList<>();
+        final List<Set<Long>> opened = new ArrayList<>();
+        int largestBatch;
+        private Set<Long> pending = new HashSet<>();
+
+        @Override
+        public void gameChanged(GameChange change) {
+            if (change.kind == GameChange.Kind.OPENED) {
+                assertTrue(change.openedCount > 0);
+                largestBatch = Math.max(largestBatch, (int) change.openedCount);
+                for (int k = 0; k < change.openedCount; k++) assertTrue(pending.add(change.openedCell(k)));
+                return;
+            }
+            if (change.kind == GameChange.Kind.OPEN || change.kind == GameChange.Kind.CHORD) {
+                assertEquals(pending.size(), change.openedCount);
+            } else {
+                assertTrue(pending.isEmpty());
+            }
+            changes.add(change);
+            opened.add(pending);
+            pending = new HashSet<>();
+        }
+    }
+
+    private static void checkOneEventPerAction(IMinesweeperGame game) {
+        Recorder rec = new Recorder();
+        List<GameChange> changes = rec.changes;
+        game.addChangeListener(rec);
+
+        IOpenResult res = game.openCell(8, 15);
+        assertEquals(1, changes.size());
+        GameChange open = changes.get(0);
+        assertEquals(GameChange.Kind.OPEN, open.kind);
+        assertEquals(8, open.row);
+        assertEquals(15, open.col);
+        assertEquals(cellsOf(res, 30), rec.opened.get(0));
+        assertFalse(open.exploded);
+
+        int r = -1, c = -1;
+        for (int i = 0; i < 16 * 30 && r < 0; i++) {
+            if (!game.isOpened(i / 30, i % 30)) { r = i / 30; c = i % 30; }
+        }
+        game.toggleFlag(r, c);
+        game.toggleFlag(8, 15); // celda abierta: no cambia nada ni avisa
+        assertEquals(2, changes.size());
+        GameChange flag = changes.get(1);
+        assertEquals(GameChange.Kind.FLAG, flag.kind);
+        assertTrue(flag.flagged);
+        assertEquals(1, flag.flagsCount);
+        assertEquals(0, flag.openedCount);
+
+        game.reset();
+        assertEquals(GameChange.Kind.RESET, changes.get(2).kind);
+        game.removeChangeListener(rec);
+        game.openCell(8, 15);
+        assertEquals(3, changes.size());
+    }
+
+    @Test
+    void denseGamePublishesOneChangePerAction() {
+        checkOneEventPerAction(new MinesweeperGame(16, 30, 99, new Random(1)));
+    }
+
+    @Test
+    void chunkedGamePublishesOneChangePerAction() {
+        checkOneEventPerAction(new ChunkedMinesweeperGame(16, 30, 99, new Random(1)));
+    }
+
+    @Test
+    void concurrentGamePublishesOneChangePerAction() {
+        checkOneEventPerAction(new ConcurrentMinesweeperGame(16, 30, 99, new Random(1)));
+    }
+
+    @Test
+    void decoratorsForwardListeners() {
+        checkOneEventPerAction(new RecordingGame(new MinesweeperGame(16, 30, 99, new Random(1))));
+        checkOneEventPerAction(new TimedGame(new MinesweeperGame(16, 30, 99, new Random(1))));
+    }
+
+    @Test
+    void explosionAndWinAreReported() {
+        MinesweeperGame game = new MinesweeperGame(9, 9, 10, new Random(4));
+        Recorder rec = new Recorder();
+        List<GameChange> changes = rec.changes;
+        game.addChangeListener(rec);
+        game.openCell(4, 4);
+        int mine = game.minesPlane().nextSetBit(0);
+        game.openCell(mine / 9, mine % 9);
+        GameChange boom = changes.get(changes.size() - 1);
+        assertTrue(boom.exploded);
+        assertTrue(boom.isGameOver());
+        assertEquals(Set.of((long) mine), rec.opened.get(rec.opened.size() - 1));
+
+        game.reset(7);
+        game.openCell(4, 4);
+        for (int i = 0; i < 81; i++) {
+            if (!game.isMine(i / 9, i % 9) && !game.isOpened(i / 9, i % 9)) game.openCell(i / 9, i % 9);
+        }
+        assertTrue(changes.get(changes.size() - 1).win);
+    }
+
+    @Test
+    void streamingAndListenerSeeTheSameCells() {
+        for (IMinesweeperGame game : List.of(new MinesweeperGame(200, 200, 300, new Random(5)),
+                new ChunkedMinesweeperGame(200, 200, 300, new Random(5)))) {
+            Recorder rec = new Recorder();
+            game.addChangeListener(rec);
+            Set<Long> streamed = new HashSet<>();
+            game.openCell(100, 100, (cells, offset, length) -> {
+                for (int k = offset; k < offset + length; k++) streamed.add((long) cells[k]);
+            });
+            assertEquals(streamed, rec.opened.get(0));
+        }
+    }
+
+    @Test
+    void largeRevealsArriveInBoundedBatches() {
+        for (IMinesweeperGame game : List.of(new MinesweeperGame(200, 200, 300, new Random(6)),
+                new ChunkedMinesweeperGame(200, 200, 300, new Random(6)),
+                new ConcurrentMinesweeperGame(200, 200, 300, new Random(6)))) {
+            Recorder rec = new Recorder();
+            game.addChangeListener(rec);
+            IOpenResult res = game.openCell(100, 100);
+            assertTrue(res.openedCells().size() > 1024);
+            assertEquals(1, rec.changes.size());
+            assertEquals(res.openedCells().size(), rec.changes.get(0).openedCount);
+            assertEquals(cellsOf(res, 200), rec.opened.get(0));
+            assertEquals(1024, rec.largestBatch);
+        }
+    }
+
+    @Test
+    void detachedBatchOutlivesTheBuffer() {
+        int[] buffer = {3, 5, 8, 13};
+        GameChange batch = GameChange.opened(buffer, 1, 2, 0);
+        GameChange kept = batch.detached();
+        buffer[1] = buffer[2] = -1;
+        assertEquals(2, kept.openedCount);
+        assertEquals(5, kept.openedCell(0));
+        assertEquals(8, kept.openedCell(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> kept.openedCell(2));
+    }
+}
@@ -0,0 +1,141 @@
+package buscaminas;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameServerTest {
+
+    private GameServer server;
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void start() throws IOException {
+        server = new GameServer(0, 60_000, 4);
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.close();
+    }
+
+    private HttpResponse<String> send(String method, String path) throws IOException, InterruptedException {
+        URI uri = URI.create("http://127.0.0.1:" + server.port() + path);
+        return http.send(HttpRequest.newBuilder(uri).method(method, HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void seededGameMatchesLocalGame() throws Exception {
+        HttpResponse<String> created = send("POST", "/games?rows=16&cols=30&mines=99&seed=42");
+        assertEquals(201, created.statusCode());
+        String id = GameServerLoad.field(created.body(), "id");
+
+        MinesweeperGame local = new MinesweeperGame(16, 30, 99, new Random(42));
+        local.openCell(8, 15);
+        HttpResponse<String> opened = send("POST", "/games/" + id + "/open?r=8&c=15");
+        assertEquals(200, opened.statusCode());
+        boolean[] cells = new boolean[16 * 30];
+        GameServerLoad.markOpened(opened.body(), cells);
+        for (int r = 0; r < 16; r++) {
+            for (int c = 0; c < 30; c++) assertEquals(local.isOpened(r, c), cells[r * 30 + c]);
+        }
+
+        HttpResponse<String> flagged = send("POST", "/games/" + id + "/flag?r=0&c=0");
+        assertTrue(flagged.body().contains("\"flags\":" + (local.isOpened(0, 0) ? 0 : 1)));
+
+        String board = send("GET", "/games/" + id).body();
+        assertTrue(board.contains("\"exploded\":false"));
+        assertEquals(200, send("DELETE", "/games/" + id).statusCode());
+        assertEquals(0, server.sessionCount());
+    }
+
+    @Test
+    void rejectsBadRequests() throws Exception {
+        assertEquals(404, send("POST", "/games/nope/open?r=0&c=0").statusCode());
+        assertEquals(400, send("POST", "/games?rows=9&cols=9").statusCode());
+        assertEquals(400, send("POST", "/games?rows=9&cols=9&mines=81").statusCode());
+        assertEquals(405, send("GET", "/games").statusCode());
+        String id = GameServerLoad.field(send("POST", "/games?rows=9&cols=9&mines=10").body(), "id");
+        assertEquals(400, send("POST", "/games/" + id + "/open?r=9&c=0").statusCode());
+        assertEquals(404, send("POST", "/games/" + id + "/jump?r=0&c=0").statusCode());
+    }
+
+    @Test
+    void capsSessionsAndEvictsIdleOnes() throws Exception {
+        server.close();
+        server = new GameServer(0, 500, 2);
+        server.start();
+        assertEquals(201, send("POST", "/games?rows=9&cols=9&mines=10").statusCode());
+        assertEquals(201, send("POST", "/games?rows=9&cols=9&mines=10").statusCode());
+        assertEquals(503, send("POST", "/games?rows=9&cols=9&mines=10").statusCode());
+        Thread.sleep(600);
+        server.evictIdle();
+        assertEquals(0, server.sessionCount());
+    }
+
+    @Test
+    void evictionAndDeleteReleaseASessionOnce() throws Exception {
+        server.close();
+        server = new GameServer(0, 200, 20);
+        server.start();
+        List<String> ids = new ArrayList<>();
+        for (int k = 0; k < 20; k++) ids.add(GameServerLoad.field(send("POST", "/games?rows=9&cols=9&mines=10").body(), "id"));
+        Thread.sleep(300);
+        Thread evictor = new Thread(server::evictIdle);
+        evictor.start();
+        for (String id : ids) {
+            int status = send("DELETE", "/games/" + id).statusCode();
+            assertTrue(status == 200 || status == 404); // 404 si la expiración llegó antes
+        }
+        evictor.join();
+        assertEquals(0, server.sessionCount());
+        assertEquals(0, server.cellCount());
+        // Una jugada sobre una sesión expirada no se ejecuta
+        assertEquals(404, send("POST", "/games/" + ids.get(0) + "/open?r=0&c=0").statusCode());
+    }
+
+    @Test
+    void capsTotalCellsAndReleasesThemOnDelete() throws Exception {
+        server.close();
+        server = new GameServer(0, 60_000, 10, 1000);
+        server.start();
+        String big = GameServerLoad.field(send("POST", "/games?rows=30&cols=30&mines=10").body(), "id");
+        assertEquals(201, send("POST", "/games?rows=9&cols=9&mines=10").statusCode());
+        assertEquals(503, send("POST", "/games?rows=9&cols=9&mines=10").statusCode());
+        // Una petición inválida no deja reservada su plaza
+        assertEquals(400, send("POST", "/games?rows=3&cols=3&mines=9").statusCode());
+        assertEquals(2, server.sessionCount());
+        assertEquals(981, server.cellCount());
+        assertEquals(200, send("DELETE", "/games/" + big).statusCode());
+        assertEquals(81, server.cellCount());
+        assertEquals(201, send("POST", "/games?rows=9&cols=9&mines=10").statusCode());
+        assertEquals(162, server.cellCount());
+    }
+
+    @Test
+    void concurrentClientsPlayWholeGames() {
+        server.close();
+        assertDoesNotThrow(() -> {
+            server = new GameServer(0, 60_000, 1000);
+            server.start();
+        });
+        URI base = URI.create("http://127.0.0.1:" + server.port());
+        GameServerLoad.Result result = GameServerLoad.run(base, 8, 500, Difficulty.BEGINNER, 7);
+        assertTrue(result.moves > 0);
+        assertTrue(result.games > 0);
+        assertEquals(result.moves, result.latency.count());
+    }
+}
@@ -0,0 +1,231 @@
+package buscaminas;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameSnapshotTest {
+
+    private static void assertSameState(MinesweeperGame.State a, MinesweeperGame.State b) {
+        assertEquals(a.boardSeed(), b.boardSeed());
+        assertEquals(a.boardSeedPinned(), b.boardSeedPinned());
+        assertEquals(a.minesPlaced(), b.minesPlaced());
+        assertEquals(a.openedSafeCells(), b.openedSafeCells());
+        assertEquals(a.flagsCount(), b.flagsCount());
+        assertArrayEquals(a.mines(), b.mines());
+        assertArrayEquals(a.opened(), b.opened());
+        assertArrayEquals(a.flagged(), b.flagged());
+    }
+
+    private static void assertSameCounts(MinesweeperGame a, MinesweeperGame b) {
+        for (int r = 0; r < a.getRows(); r++) {
+            for (int c = 0; c < a.getCols(); c++) {
+                assertEquals(a.countAdjacentMines(r, c), b.countAdjacentMines(r, c));
+                assertEquals(a.countAdjacentFlags(r, c), b.countAdjacentFlags(r, c));
+            }
+        }
+    }
+
+    @Test
+    void restoreUndoesMovesAndCanBeRepeated() {
+        MinesweeperGame g = new MinesweeperGame(16, 30, 99, new Random(4));
+        MinesweeperGame.Snapshot fresh = g.snapshot();
+        MinesweeperGame.State freshState = g.captureState();
+        g.openCell(8, 15);
+        MinesweeperGame.Snapshot started = g.snapshot();
+        MinesweeperGame.State startedState = g.captureState();
+
+        for (int r = 0; r < 16; r++) {
+            for (int c = 0; c < 30; c++) {
+                if (g.isMine(r, c)) g.toggleFlag(r, c); else g.openCell(r, c);
+            }
+        }
+        assertTrue(g.isWin());
+
+        g.restore(started);
+        assertSameState(startedState, g.captureState());
+        assertFalse(g.isWin());
+        g.openCell(0, 0);
+        g.restore(started);
+        assertSameState(startedState, g.captureState());
+
+        g.restore(fresh);
+        assertSameState(freshState, g.captureState());
+        assertEquals(0, g.countAdjacentMines(8, 15) + g.minesPlane().cardinality());
+    }
+
+    @Test
+    void restoredGameMatchesGameThatPlayedTheSameMoves() {
+        MinesweeperGame g = new MinesweeperGame(30, 40, 150, new Random(8));
+        MinesweeperGame reference = new MinesweeperGame(30, 40, 150, new Random(8));
+        g.openCell(15, 20);
+        reference.openCell(15, 20);
+        g.toggleFlag(0, 0);
+        reference.toggleFlag(0, 0);
+        MinesweeperGame.Snapshot s = g.snapshot();
+
+        // Otro tablero completo entre medias: reiniciar no debe tocar los recuentos de la instantánea
+        g.reset();
+        g.openCell(2, 2);
+        g.toggleFlag(29, 39);
+        g.restore(s);
+        assertSameState(reference.captureState(), g.captureState());
+        assertSameCounts(reference, g);
+
+        for (int r = 0; r < 30; r++) {
+            for (int c = 0; c < 40; c++) {
+                assertEquals(reference.openCell(r, c).exploded, g.openCell(r, c).exploded);
+                assertEquals(reference.chordOpen(r, c).openedCells.size(), g.chordOpen(r, c).openedCells.size());
+            }
+        }
+        assertSameState(reference.captureState(), g.captureState());
+    }
+
+    @Test
+    void largeRevealAfterRestoreUsesTheRestoredLayout() {
+        // Las expansiones de este tamaño pasan por el Bitboard, que guarda su propia máscara sacada de las minas
+        MinesweeperGame g = new MinesweeperGame(300, 300, 900, new Random(12));
+        MinesweeperGame reference = new MinesweeperGame(300, 300, 900, new Random(12));
+        for (MinesweeperGame game : List.of(g, reference)) {
+            for (int r = 0; r < 300; r++) game.toggleFlag(r, 10);
+            game.openCell(0, 0);
+        }
+        MinesweeperGame.Snapshot s = g.snapshot();
+
+        g.reset();
+        g.openCell(150, 150);
+        g.restore(s);
+        assertSameState(reference.captureState(), g.captureState());
+
+        int zero = -1;
+        for (int i = 11; zero < 0 && i < 300 * 300; i++) {
+            if (i % 300 > 10 && !reference.isMine(i / 300, i % 300) && reference.countAdjacentMines(i / 300, i % 300) == 0) zero = i;
+        }
+        for (MinesweeperGame game : List.of(g, reference)) {
+            for (int r = 0; r < 300; r++) game.toggleFlag(r, 10);
+        }
+        int opened = reference.openCell(zero / 300, zero % 300).openedCells.size();
+        assertTrue(opened > 1 << 12);
+        assertEquals(opened, g.openCell(zero / 300, zero % 300).openedCells.size());
+        assertSameState(reference.captureState(), g.captureState());
+        assertSameCounts(reference, g);
+    }
+
+    @Test
+    void depthFirstSearchBranchesFromSnapshots() {
+        MinesweeperGame g = new MinesweeperGame(9, 9, 10, new Random(21));
+        g.openCell(4, 4);
+        MinesweeperGame.State root = g.captureState();
+        MinesweeperGame.Snapshot start = g.snapshot();
+
+        // Cada rama abre una celda cerrada distinta y vuelve atrás
+        List<Integer> branches = new ArrayList<>();
+        for (int i = 0; i < 81; i++) {
+            int r = i / 9, c = i % 9;
+            if (g.isOpened(r, c)) continue;
+            MinesweeperGame.Snapshot before = g.snapshot();
+            int opened = g.openCell(r, c).openedCells.size();
+            if (!g.isMine(r, c)) {
+                MinesweeperGame.Snapshot deeper = g.snapshot();
+                g.toggleFlag((r + 1) % 9, c);
+                g.restore(deeper);
+                assertEquals(opened, g.openedPlane().cardinality() - root.openedSafeCells());
+            }
+            branches.add(opened);
+            g.restore(before);
+            assertSameState(root, g.captureState());
+        }
+        assertFalse(branches.isEmpty());
+        g.restore(start);
+        assertSameState(root, g.captureState());
+    }
+
+    @Test
+    void flagCountsAreCopiedOnWriteAndRestored() {
+        MinesweeperGame g = new MinesweeperGame(9, 9, 10, new Random(3));
+        g.openCell(4, 4);
+        g.toggleFlag(0, 0);
+        MinesweeperGame.Snapshot s = g.snapshot();
+        g.toggleFlag(0, 1);
+        g.toggleFlag(0, 0);
+        assertEquals(1, g.countAdjacentFlags(1, 1));
+        g.restore(s);
+        assertEquals(1, g.countAdjacentFlags(1, 1));
+        assertEquals(1, g.countAdjacentFlags(0, 1));
+        assertEquals(0, g.countAdjacentFlags(0, 0));
+        MinesweeperGame rebuilt = MinesweeperGame.fromState(g.captureState(), new Random(0));
+        assertSameCounts(g, rebuilt);
+    }
+
+    @Test
+    void flagToggleAfterSnapshotCopiesOnlyTheNeighbouringPages() {
+        // Los vecinos de una celda junto al borde de página caen en dos páginas
+        BytePlane counts = new BytePlane(BytePlane.PAGE_BYTES * 4);
+        counts.add(5, 1);
+        byte[][] frozen = counts.snapshot();
+        counts.add(BytePlane.PAGE_BYTES * 2 - 1, 1);
+        counts.add(BytePlane.PAGE_BYTES * 2, 1);
+        byte[][] after = counts.snapshot();
+
+        assertSame(frozen[0], after[0]);
+        assertNotSame(frozen[1], after[1]);
+        assertNotSame(frozen[2], after[2]);
+        assertSame(frozen[3], after[3]);
+        assertEquals(0, frozen[1][BytePlane.PAGE_BYTES - 1]);
+
+        counts.restore(frozen);
+        assertEquals(1, counts.get(5));
+        assertEquals(0, counts.get(BytePlane.PAGE_BYTES * 2));
+        counts.clear();
+        assertEquals(0, counts.get(5));
+        assertEquals(1, frozen[0][5]);
+    }
+
+    @Test
+    void snapshotOfAnotherGameIsRejected() {
+        MinesweeperGame a = new MinesweeperGame(9, 9, 10, new Random(1));
+        MinesweeperGame b = new MinesweeperGame(9, 9, 10, new Random(1));
+        assertThrows(IllegalArgumentException.class, () -> b.restore(a.snapshot()));
+    }
+
+    @Test
+    void restoreNotifiesListenersWithReset() {
+        MinesweeperGame g = new MinesweeperGame(9, 9, 10, new Random(2));
+        MinesweeperGame.Snapshot s = g.snapshot();
+        g.openCell(4, 4);
+        List<GameChange> changes = new ArrayList<>();
+        g.addChangeListener(changes::add);
+        g.restore(s);
+        assertEquals(1, changes.size());
+        assertEquals(GameChange.Kind.RESET, changes.get(0).kind);
+    }
+
+    @Test
+    void planeWriteAfterSnapshotCopiesOnlyTheTouchedPage() {
+        BitPlane plane = new BitPlane(BitPlane.PAGE_WORDS * 64 * 3 + 5);
+        plane.set(1);
+        long[][] frozen = plane.snapshot();
+        plane.set(BitPlane.PAGE_WORDS * 64 + 7);
+        long[][] after = plane.snapshot();
+
+        assertNotSame(frozen, after);
+        assertSame(frozen[0], after[0]);
+        assertNotSame(frozen[1], after[1]);
+        assertSame(frozen[2], after[2]);
+        assertSame(frozen[3], after[3]);
+        assertEquals(0L, frozen[1][0]);
+
+        plane.clear();
+        assertEquals(0, plane.cardinality());
+        plane.restore(frozen);
+        assertEquals(1, plane.cardinality());
+        assertTrue(plane.get(1));
+        plane.restore(after);
+        assertEquals(2, plane.cardinality());
+        assertEquals(BitPlane.PAGE_WORDS * 64 + 7, plane.nextSetBit(2));
+    }
+}
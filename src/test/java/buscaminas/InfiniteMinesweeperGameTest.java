@@ -0,0 +1,54 @@
+package buscaminas;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InfiniteMinesweeperGameTest {
+
+    @Test
+    void layoutIsDeterministicAndFirstClickIsSafe() {
+        InfiniteMinesweeperGame a = new InfiniteMinesweeperGame(42L, 0.2);
+        InfiniteMinesweeperGame b = new InfiniteMinesweeperGame(42L, 0.2, 4, 1000);
+        for (long r = -1_000_000; r < -1_000_000 + 200; r++) {
+            for (long c = 5_000_000_000L; c < 5_000_000_000L + 100; c++) assertEquals(a.isMine(r,c), b.isMine(r,c));
+        }
+        assertFalse(a.openCell(-3, 7, (r, c) -> {}));
+        assertEquals(0, a.countAdjacentMines(-3, 7));
+    }
+
+    @Test
+    void scrollingKeepsMineCacheBounded() {
+        InfiniteMinesweeperGame g = new InfiniteMinesweeperGame(7L, 0.15, 32, 1000);
+        int mines = 0;
+        for (long k = 0; k < 20_000; k++) if (g.isMine(k * 64, -k * 64)) mines++;
+        assertTrue(mines > 0);
+        assertTrue(g.cachedMineChunks() <= 32);
+        assertEquals(0, g.playerChunks());
+    }
+
+    @Test
+    void revealCapResumesOnChord() {
+        InfiniteMinesweeperGame g = new InfiniteMinesweeperGame(3L, 0.05, 64, 50);
+        long[] opened = {0};
+        g.openCell(0, 0, (r, c) -> opened[0]++);
+        assertTrue(opened[0] >= 50 && opened[0] <= 59); // the cell being expanded finishes its neighbours
+        assertEquals(opened[0], g.getOpenedCount());
+
+        // Chording an opened zero cell on the edge of the capped region keeps expanding
+        long before = g.getOpenedCount();
+        outer:
+        for (long r = -60; r <= 60; r++) {
+            for (long c = -60; c <= 60; c++) {
+                if (!g.isOpened(r, c) || g.countAdjacentMines(r, c) != 0) continue;
+                for (long nr = r - 1; nr <= r + 1; nr++) for (long nc = c - 1; nc <= c + 1; nc++) {
+                    if (!g.isOpened(nr, nc)) {
+                        g.chordOpen(r, c, (x, y) -> {});
+                        break outer;
+                    }
+                }
+            }
+        }
+        assertTrue(g.getOpenedCount() > before);
+    }
+}
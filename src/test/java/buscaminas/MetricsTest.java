@@ -0,0 +1,93 @@
+package buscaminas;
+
+import java.awt.event.InvocationEvent;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsTest {
+
+    @BeforeEach
+    void clear() { Metrics.reset(); }
+
+    @Test
+    void engineActionsFeedTimers() {
+        MinesweeperGame g = new MinesweeperGame(16, 30, 99, new Random(1));
+        int revealed = g.openCell(8, 15).openedCells.size();
+        g.chordOpen(8, 15);
+        assertEquals(1, Metrics.timer("engine.open").count());
+        assertEquals(revealed, Metrics.timer("engine.open").items());
+        assertEquals(1, Metrics.timer("engine.chord").count());
+        assertEquals(1, Metrics.timer("engine.placeMines").count());
+        assertEquals(99, Metrics.timer("engine.placeMines").items());
+
+        Metrics.counter("test.counter").add(3);
+        String json = Metrics.snapshot();
+        assertTrue(json.startsWith("{\"timers\":{"), json);
+        assertTrue(json.contains("\"engine.open\":{\"count\":1,\"items\":" + revealed + ","), json);
+        assertTrue(json.contains("\"test.counter\":3"), json);
+    }
+
+    @Test
+    void sharedTimerCountsEverySampleFromConcurrentThreads() throws Exception {
+        Metrics.Timer timer = Metrics.timer("test.concurrent");
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) timer.record(i, 2);
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) t.join();
+        assertEquals(40_000, timer.count());
+        assertEquals(80_000, timer.items());
+        assertEquals(9_999, timer.histogram().max());
+    }
+
+    @Test
+    void revealEventsAreRecordedByFlightRecorder(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("rec.jfr");
+        int revealed;
+        try (Recording recording = new Recording()) {
+            recording.enable("buscaminas.Reveal");
+            recording.enable("buscaminas.PlaceMines");
+            recording.start();
+            MinesweeperGame g = new MinesweeperGame(100, 100, 200, new Random(2));
+            revealed = g.revealCell(50, 50);
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        RecordedEvent reveal = events.stream()
+                .filter(e -> e.getEventType().getName().equals("buscaminas.Reveal")).findFirst().orElseThrow();
+        assertEquals(revealed, reveal.getInt("cellsRevealed"));
+        assertTrue(reveal.getInt("queuePeak") > 0);
+        assertFalse(reveal.getBoolean("chord"));
+        assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("buscaminas.PlaceMines")));
+    }
+
+    @Test
+    void slowDispatchCountsAsStall() {
+        EdtStallDetector queue = new EdtStallDetector(10);
+        queue.dispatchEvent(new InvocationEvent(this, () -> {}));
+        queue.dispatchEvent(new InvocationEvent(this, () -> {
+            try {
+                Thread.sleep(30);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertEquals(2, Metrics.timer("ui.edtDispatch").count());
+        assertEquals(1, Metrics.counter("ui.edtStalls").sum());
+    }
+}
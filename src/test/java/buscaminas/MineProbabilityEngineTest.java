@@ -0,0 +1,116 @@
+package buscaminas;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MineProbabilityEngineTest {
+
+    @Test
+    void matchesBruteForceOnSmallBoards() {
+        MineProbabilityEngine engine = new MineProbabilityEngine();
+        for (long seed = 0; seed < 30; seed++) {
+            MinesweeperGame g = new MinesweeperGame(5,5,6, seed);
+            g.openCell(0,0);
+            double[] expected = bruteForce(g);
+            double[] actual = engine.compute(g, Long.MAX_VALUE / 2);
+            for (int i=0;i<25;i++) assertEquals(expected[i], actual[i], 1e-9, "seed " + seed + " cell " + i);
+        }
+    }
+
+    @Test
+    void expertFrontierIsConsistentAndCancellable() {
+        MinesweeperGame g = new MinesweeperGame(16,30,99, 12L);
+        g.openCell(8,15);
+        new MinesweeperSolver(g).solve();
+        MineProbabilityEngine engine = new MineProbabilityEngine();
+        double[] p = engine.compute(g, 5_000_000_000L);
+        double expectedMines = 0;
+        for (int i=0;i<p.length;i++) {
+            if (!g.openedPlane().get(i)) expectedMines += p[i];
+            assertTrue(p[i] >= 0 && p[i] <= 1 + 1e-12);
+        }
+        assertEquals(99, expectedMines, 1e-6);
+
+        MinesweeperGame fresh = new MinesweeperGame(16,30,99, 13L);
+        fresh.openCell(2,2);
+        assertThrows(CancellationException.class, () -> new MineProbabilityEngine().compute(fresh, 0));
+    }
+
+    @Test
+    void cancellationTokenOnlyStopsItsOwnCall() {
+        MinesweeperGame g = new MinesweeperGame(16,30,99, 12L);
+        g.openCell(8,15);
+        MineProbabilityEngine engine = new MineProbabilityEngine();
+        assertThrows(CancellationException.class, () -> engine.compute(g, Long.MAX_VALUE / 2, () -> true));
+        // Una cancelación anterior no se pierde ni afecta a la siguiente llamada
+        engine.cancel();
+        assertEquals(30 * 16, engine.compute(g, Long.MAX_VALUE / 2).length);
+        assertEquals(30 * 16, engine.compute(g, Long.MAX_VALUE / 2, () -> false).length);
+    }
+
+    @Test
+    void wideChainIsCountedThroughSubComponents() {
+        // Fila central abierta entre dos filas cubiertas: 2^cols soluciones, inabarcable sin dividir la componente
+        MinesweeperGame small = chain(8);
+        double[] expected = bruteForce(small);
+        double[] actual = new MineProbabilityEngine().compute(small, Long.MAX_VALUE / 2);
+        for (int i=0;i<expected.length;i++) assertEquals(expected[i], actual[i], 1e-9, "cell " + i);
+
+        int cols = 60;
+        MinesweeperGame wide = chain(cols);
+        double[] p = new MineProbabilityEngine().compute(wide, 10_000_000_000L);
+        double expectedMines = 0;
+        for (int c=0;c<cols;c++) {
+            assertEquals(p[c], p[2 * cols + c], 1e-9, "col " + c);
+            expectedMines += p[c] + p[2 * cols + c];
+        }
+        assertEquals(cols, expectedMines, 1e-6);
+    }
+
+    // Minas alternas arriba y abajo: cada columna tiene exactamente una
+    private static MinesweeperGame chain(int cols) {
+        long[] mines = new long[(3 * cols + 63) >>> 6], opened = new long[mines.length];
+        for (int c=0;c<cols;c++) {
+            int mine = c % 2 == 0 ? c : 2 * cols + c;
+            mines[mine >>> 6] |= 1L << mine;
+            opened[(cols + c) >>> 6] |= 1L << (cols + c);
+        }
+        MinesweeperGame.State base = new MinesweeperGame(3, cols, cols, new Random(0)).captureState();
+        return MinesweeperGame.fromState(new MinesweeperGame.State(3, cols, cols, base.placement(), 0, false,
+                true, cols, 0, mines, opened, new long[mines.length]), new Random(0));
+    }
+
+    // Enumerates every layout of the remaining mines consistent with the opened numbers
+    private static double[] bruteForce(MinesweeperGame g) {
+        int rows = g.getRows(), cols = g.getCols(), n = rows * cols;
+        int[] coveredCells = new int[n];
+        int covered = 0;
+        for (int i=0;i<n;i++) if (!g.openedPlane().get(i)) coveredCells[covered++] = i;
+        double[] count = new double[n];
+        double total = 0;
+        for (int mask = 0; mask < (1 << covered); mask++) {
+            if (Integer.bitCount(mask) != g.getTotalMines()) continue;
+            boolean[] mine = new boolean[n];
+            for (int k=0;k<covered;k++) if ((mask & (1 << k)) != 0) mine[coveredCells[k]] = true;
+            boolean ok = true;
+            for (int i=0;i<n && ok;i++) {
+                if (!g.openedPlane().get(i)) continue;
+                int r=i/cols, c=i%cols, m=0;
+                for (int dr=-1;dr<=1;dr++) for (int dc=-1;dc<=1;dc++) {
+                    int nr=r+dr, nc=c+dc;
+                    if ((dr!=0||dc!=0) && nr>=0&&nr<rows&&nc>=0&&nc<cols && mine[nr*cols+nc]) m++;
+                }
+                ok = m == g.countAdjacentMines(r,c);
+            }
+            if (!ok) continue;
+            total++;
+            for (int i=0;i<n;i++) if (mine[i]) count[i]++;
+        }
+        for (int i=0;i<n;i++) count[i] /= total;
+        return count;
+    }
+}
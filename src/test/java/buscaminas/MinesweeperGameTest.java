@@ -2,9 +2,11 @@ package buscaminas;
 
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class MinesweeperGameTest {
 
@@ -66,4 +68,134 @@ public class MinesweeperGameTest {
         }
         assertTrue(found);
     }
+
+    @Test
+    void adjacencyCountsMatchNeighbourhood() {
+        MinesweeperGame g = new MinesweeperGame(16,30,99, new Random(7));
+        g.openCell(8,15);
+        g.toggleFlag(0,0);
+        g.toggleFlag(0,1);
+        g.toggleFlag(1,1);
+        g.toggleFlag(0,1);
+        assertEquals(2, g.getFlagsCount());
+        for (int r=0;r<g.getRows();r++) {
+            for (int c=0;c<g.getCols();c++) {
+                int mines = 0, flags = 0;
+                for (int dr=-1; dr<=1; dr++)
+                    for (int dc=-1; dc<=1; dc++) {
+                        int nr=r+dr,nc=c+dc;
+                        if ((dr==0 && dc==0) || nr<0 || nr>=g.getRows() || nc<0 || nc>=g.getCols()) continue;
+                        if (g.isMine(nr,nc)) mines++;
+                        if (g.isFlagged(nr,nc)) flags++;
+                    }
+                assertEquals(mines, g.countAdjacentMines(r,c));
+                assertEquals(flags, g.countAdjacentFlags(r,c));
+            }
+        }
+        g.reset();
+        assertEquals(0, g.getFlagsCount());
+        assertEquals(0, g.countAdjacentFlags(0,0));
+    }
+
+    @Test
+    void revealPathAllocatesNothingInSteadyState() {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(mx.isThreadAllocatedMemorySupported());
+        mx.setThreadAllocatedMemoryEnabled(true);
+        long tid = Thread.currentThread().getId();
+
+        MinesweeperGame g = new MinesweeperGame(200,200,400, new Random(3));
+        for (int i=0;i<2000;i++) { g.reset(); g.revealCell(100,100); for (int r=0;r<g.getRows();r++) g.revealChord(r, r); }
+
+        long baseline = mx.getThreadAllocatedBytes(tid);
+        baseline = mx.getThreadAllocatedBytes(tid) - baseline;
+        long before = mx.getThreadAllocatedBytes(tid);
+        int revealed = 0;
+        for (int i=0;i<20;i++) {
+            g.reset();
+            revealed += g.revealCell(100,100);
+            for (int r=0;r<g.getRows();r++) g.revealChord(r, r);
+        }
+        long allocated = mx.getThreadAllocatedBytes(tid) - before;
+        assertTrue(revealed > 0);
+        assertTrue(allocated <= baseline, "allocated " + allocated + " bytes");
+    }
+
+    @Test
+    void streamingOpenMatchesListResult() {
+        MinesweeperGame listed = new MinesweeperGame(120,120,300, new Random(11));
+        MinesweeperGame streamed = new MinesweeperGame(120,120,300, new Random(11));
+        MinesweeperGame.OpenResult res = listed.openCell(60,60);
+
+        java.util.List<Integer> cells = new java.util.ArrayList<>();
+        int[] batches = {0};
+        boolean exploded = streamed.openCell(60,60, (buf, off, len) -> {
+            assertTrue(len <= 1024);
+            batches[0]++;
+            for (int k=off;k<off+len;k++) cells.add(buf[k]);
+        });
+        assertEquals(res.exploded, exploded);
+        assertEquals(res.openedCells.size(), cells.size());
+        assertTrue(res.openedCells.size() <= 1024 || batches[0] > 1);
+        for (int k=0;k<cells.size();k++) {
+            MinesweeperGame.Cell cell = res.openedCells.get(k);
+            assertEquals(cell.r() * 120 + cell.c(), (int) cells.get(k));
+        }
+    }
+
+    @Test
+    void planesAreLiveViewsOfBoardState() {
+        MinesweeperGame g = new MinesweeperGame(16,30,99, new Random(5));
+        IBoardPlane mines = g.minesPlane();
+        IBoardPlane opened = g.openedPlane();
+        g.openCell(0,0);
+        g.toggleFlag(15,29);
+        boolean[][] mineCopy = g.getMines();
+        boolean[][] openedCopy = g.getOpened();
+        int openedCount = 0;
+        for (int r=0;r<16;r++) {
+            for (int c=0;c<30;c++) {
+                int i = r*30 + c;
+                assertEquals(mineCopy[r][c], mines.get(i));
+                assertEquals(mineCopy[r][c], ((mines.word(i >>> 6) >>> i) & 1L) != 0);
+                assertEquals(openedCopy[r][c], opened.get(i));
+                if (openedCopy[r][c]) openedCount++;
+            }
+        }
+        assertEquals(99, mines.cardinality());
+        assertEquals(openedCount, opened.cardinality());
+        assertEquals(15*30 + 29, g.flaggedPlane().nextSetBit(0));
+    }
+
+    @Test
+    void boardSeedReproducesLayout() {
+        MinesweeperGame g = new MinesweeperGame(16,30,99, 99L);
+        g.openCell(3,7);
+        long seed = g.getBoardSeed();
+        boolean[][] first = g.getMines();
+        g.reset();
+        g.openCell(3,7);
+        assertFalse(java.util.Arrays.deepEquals(first, g.getMines()));
+        g.reset(seed);
+        g.openCell(3,7);
+        assertEquals(seed, g.getBoardSeed());
+        assertArrayEquals(first, g.getMines());
+    }
+
+    @Test
+    void placementStrategiesHonourSafeCellsAtMaximumDensity() {
+        MinesweeperGame halo = new MinesweeperGame(30,30,891, new Random(2));
+        halo.openCell(10,10);
+        assertEquals(891, halo.minesPlane().cardinality());
+        for (int r=9;r<=11;r++) for (int c=9;c<=11;c++) assertFalse(halo.isMine(r,c));
+        assertTrue(halo.isWin());
+
+        MinesweeperGame dense = new MinesweeperGame(30,30,899, new Random(2));
+        assertFalse(dense.openCell(0,0).exploded);
+        assertEquals(899, dense.minesPlane().cardinality());
+
+        MinesweeperGame uniform = new MinesweeperGame(30,30,899, new Random(2), MinePlacement.UNIFORM);
+        uniform.openCell(0,0);
+        assertEquals(899, uniform.minesPlane().cardinality());
+    }
 }
@@ -0,0 +1,95 @@
+package buscaminas;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MinesweeperSolverTest {
+
+    @Test
+    void onlyPlaysCertainMoves() {
+        for (Difficulty d : Difficulty.values()) {
+            int wins = 0;
+            for (long seed = 0; seed < 200; seed++) {
+                MinesweeperGame g = new MinesweeperGame(d.rows, d.cols, d.mines, seed);
+                g.openCell(d.rows / 2, d.cols / 2);
+                MinesweeperSolver solver = new MinesweeperSolver(g);
+                solver.solve();
+                assertFalse(solver.hasExploded(), d + " seed " + seed);
+                for (int r=0;r<d.rows;r++) {
+                    for (int c=0;c<d.cols;c++) {
+                        if (solver.isMineKnown(r,c)) assertTrue(g.isMine(r,c));
+                        if (g.isOpened(r,c)) assertFalse(g.isMine(r,c));
+                    }
+                }
+                if (g.isWin()) wins++;
+            }
+            // Well above what single-cell rules alone reach; each board needs zero guesses to count
+            assertTrue(wins > (d == Difficulty.EXPERT ? 10 : 60), d + " wins " + wins);
+        }
+    }
+
+    @Test
+    void resumesAfterExternalMoves() {
+        MinesweeperGame g = new MinesweeperGame(16,16,40, 5L);
+        g.openCell(8,8);
+        MinesweeperSolver solver = new MinesweeperSolver(g);
+        int first = solver.solve();
+        assertEquals(0, solver.solve());
+        if (!g.isWin()) {
+            // Guess a safe cell the way a bot would, then continue
+            outer:
+            for (int r=0;r<16;r++) for (int c=0;c<16;c++) {
+                if (!g.isOpened(r,c) && !g.isMine(r,c)) { g.openCell(r,c, solver.openedCells()); break outer; }
+            }
+            solver.solve();
+            assertFalse(solver.hasExploded());
+        }
+        assertTrue(first > 0);
+    }
+
+    @Test
+    void keepsWorkListBetweenCalls() {
+        // Un solver alimentado por el sink llega al mismo estado que uno que relee el tablero entero
+        for (long seed = 0; seed < 30; seed++) {
+            MinesweeperGame g = new MinesweeperGame(16,30,99, seed);
+            MinesweeperGame reference = new MinesweeperGame(16,30,99, seed);
+            MinesweeperSolver solver = new MinesweeperSolver(g);
+            g.openCell(8,15, solver.openedCells());
+            reference.openCell(8,15);
+            for (int guess = 0; guess < 5 && !g.isWin(); guess++) {
+                solver.solve();
+                MinesweeperSolver fresh = new MinesweeperSolver(reference);
+                fresh.solve();
+                assertArrayEquals(reference.captureState().opened(), g.captureState().opened(), "seed " + seed);
+                int i = firstSafeCovered(g);
+                if (i < 0) break;
+                g.openCell(i / 30, i % 30, solver.openedCells());
+                reference.openCell(i / 30, i % 30);
+            }
+        }
+    }
+
+    @Test
+    void chordingReachesTheSameState() {
+        for (long seed = 0; seed < 50; seed++) {
+            MinesweeperGame g = new MinesweeperGame(16,30,99, seed);
+            MinesweeperGame reference = new MinesweeperGame(16,30,99, seed);
+            g.openCell(8,15);
+            reference.openCell(8,15);
+            MinesweeperSolver chording = new MinesweeperSolver(g);
+            chording.setChording(true);
+            chording.solve();
+            new MinesweeperSolver(reference).solve();
+            assertFalse(chording.hasExploded());
+            assertArrayEquals(reference.captureState().opened(), g.captureState().opened(), "seed " + seed);
+        }
+    }
+
+    private static int firstSafeCovered(MinesweeperGame g) {
+        for (int i = 0; i < g.getRows() * g.getCols(); i++) {
+            if (!g.isOpened(i / g.getCols(), i % g.getCols()) && !g.isMine(i / g.getCols(), i % g.getCols())) return i;
+        }
+        return -1;
+    }
+}
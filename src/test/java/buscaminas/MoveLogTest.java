@@ -0,0 +1,119 @@
+package buscaminas;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveLogTest {
+
+    // Partida con aperturas aleatorias, banderas y acordes hasta ganar o explotar
+    private static RecordingGame playRandomGame(IMinesweeperGame inner, long seed) {
+        RecordingGame game = new RecordingGame(inner);
+        Random rnd = new Random(seed);
+        int rows = game.getRows(), cols = game.getCols();
+        game.openCell(rows / 2, cols / 2);
+        for (int i = 0; i < 400 && !game.isWin(); i++) {
+            int r = rnd.nextInt(rows), c = rnd.nextInt(cols);
+            if (game.isOpened(r, c)) {
+                if (game.chordOpen(r, c).exploded()) break;
+            } else if (game.isMine(r, c) || rnd.nextInt(8) == 0) {
+                game.toggleFlag(r, c);
+            } else if (!game.isFlagged(r, c)) {
+                if (game.openCell(r, c).exploded()) break;
+            }
+        }
+        return game;
+    }
+
+    private static void assertSameState(IMinesweeperGame expected, IMinesweeperGame actual) {
+        for (int r = 0; r < expected.getRows(); r++) {
+            for (int c = 0; c < expected.getCols(); c++) {
+                assertEquals(expected.isMine(r, c), actual.isMine(r, c));
+                assertEquals(expected.isOpened(r, c), actual.isOpened(r, c));
+                assertEquals(expected.isFlagged(r, c), actual.isFlagged(r, c));
+            }
+        }
+        assertEquals(expected.isWin(), actual.isWin());
+    }
+
+    @Test
+    void replayReproducesTheGame() {
+        for (long seed = 0; seed < 30; seed++) {
+            RecordingGame game = playRandomGame(new MinesweeperGame(16, 30, 99, new Random(seed)), seed);
+            MoveLog log = game.log();
+            assertTrue(log.isSeedKnown());
+            IMinesweeperGame replayed = MoveLogReplay.newGame(log);
+            MoveLogReplay.Result result = MoveLogReplay.replay(log, replayed);
+            assertEquals(log.moveCount(), result.moves);
+            assertSameState(game, replayed);
+        }
+    }
+
+    @Test
+    void replayReproducesChunkedAndUniformGames() {
+        RecordingGame chunked = playRandomGame(new ChunkedMinesweeperGame(100, 120, 1500, 3L), 3);
+        IMinesweeperGame replayed = MoveLogReplay.newGame(chunked.log());
+        MoveLogReplay.replay(chunked.log(), replayed);
+        assertSameState(chunked, replayed);
+
+        RecordingGame uniform = playRandomGame(new MinesweeperGame(9, 9, 10, new Random(4), MinePlacement.UNIFORM), 4);
+        replayed = MoveLogReplay.newGame(uniform.log());
+        MoveLogReplay.replay(uniform.log(), replayed);
+        assertSameState(uniform, replayed);
+    }
+
+    @Test
+    void streamRoundTripKeepsMoves() throws IOException {
+        MoveLog log = playRandomGame(new MinesweeperGame(16, 16, 40, new Random(9)), 9).log();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        log.writeTo(out);
+        MoveLog read = MoveLog.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(log.getBoardSeed(), read.getBoardSeed());
+        assertEquals(log.moveCount(), read.moveCount());
+        MoveLog.Cursor a = log.cursor(), b = read.cursor();
+        while (a.next()) {
+            assertTrue(b.next());
+            assertEquals(a.action(), b.action());
+            assertEquals(a.cell(), b.cell());
+            assertEquals(a.deltaMicros(), b.deltaMicros());
+        }
+        assertFalse(b.next());
+        // Cada movimiento ocupa pocos bytes: índice de celda y tiempo en varint
+        assertTrue(log.payloadSize() <= log.moveCount() * 8, "bytes " + log.payloadSize());
+    }
+
+    @Test
+    void resetStartsANewLog() {
+        RecordingGame game = new RecordingGame(new MinesweeperGame(9, 9, 10, new Random(1)));
+        game.openCell(4, 4);
+        MoveLog first = game.log();
+        game.reset();
+        assertNotSame(first, game.log());
+        assertEquals(1, first.moveCount());
+        assertEquals(0, game.log().moveCount());
+        assertThrows(IOException.class, () -> MoveLog.readFrom(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5})));
+    }
+
+    @Test
+    void seedIsCapturedFromEverySeededGame() {
+        // Partida reanudada sobre un juego concurrente: el constructor con registro no comprueba el tipo
+        ConcurrentMinesweeperGame concurrent = new ConcurrentMinesweeperGame(9, 9, 10, new Random(2));
+        RecordingGame resumed = new RecordingGame(concurrent, new MoveLog(MoveLog.Kind.DENSE, MinePlacement.SAFE_HALO, 9, 9, 10));
+        resumed.openCell(4, 4);
+        assertTrue(resumed.log().isSeedKnown());
+        assertEquals(concurrent.getBoardSeed(), resumed.log().getBoardSeed());
+
+        // Más de 2^31 celdas: sin recorrer el plano de abiertas
+        ChunkedMinesweeperGame huge = new ChunkedMinesweeperGame(100_000, 100_000, 1_500_000_000, 5L);
+        RecordingGame chunked = new RecordingGame(huge);
+        chunked.toggleFlag(0, 0);
+        assertFalse(chunked.log().isSeedKnown());
+        chunked.openCell(50_000, 50_000);
+        assertEquals(huge.getBoardSeed(), chunked.log().getBoardSeed());
+    }
+}
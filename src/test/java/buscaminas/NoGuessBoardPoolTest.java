@@ -0,0 +1,55 @@
+package buscaminas;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NoGuessBoardPoolTest {
+
+    @Test
+    void generatedBoardsAreSolvableFromTheStartCell() {
+        SplittableRandom rnd = new SplittableRandom(1);
+        for (int i = 0; i < 20; i++) {
+            NoGuessBoardPool.Board b = NoGuessBoardPool.generate(16, 16, 40, rnd);
+            MinesweeperGame g = b.newGame();
+            assertTrue(g.isOpened(b.startR(), b.startC()));
+            new MinesweeperSolver(g).solve();
+            assertTrue(g.isWin());
+        }
+    }
+
+    @Test
+    void workersFillThePoolInTheBackground() throws InterruptedException {
+        try (NoGuessBoardPool pool = new NoGuessBoardPool(2, 2, new SplittableRandom(2))) {
+            pool.start();
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (pool.readyCount(Difficulty.BEGINNER) < 2 && System.currentTimeMillis() < deadline) Thread.sleep(10);
+            assertEquals(2, pool.readyCount(Difficulty.BEGINNER));
+            NoGuessBoardPool.Board b = pool.take(Difficulty.BEGINNER);
+            assertEquals(Difficulty.BEGINNER.mines, b.mines());
+            MinesweeperGame g = b.newGame();
+            assertEquals(b.mines(), g.minesPlane().cardinality());
+            assertTrue(g.isOpened(b.startR(), b.startC()));
+        }
+    }
+
+    @Test
+    void takeAsyncCompletesFromTheWorkersWhenNothingIsReady() throws Exception {
+        CompletableFuture<NoGuessBoardPool.Board> pending;
+        try (NoGuessBoardPool pool = new NoGuessBoardPool(1, 1, new SplittableRandom(3))) {
+            CompletableFuture<NoGuessBoardPool.Board> f = pool.takeAsync(Difficulty.INTERMEDIATE);
+            NoGuessBoardPool.Board b = f.get(30, TimeUnit.SECONDS);
+            assertEquals(Difficulty.INTERMEDIATE.mines, b.mines());
+            MinesweeperGame g = b.newGame();
+            new MinesweeperSolver(g).solve();
+            assertTrue(g.isWin());
+            pending = pool.takeAsync(Difficulty.EXPERT);
+        }
+        // Al cerrar, las peticiones sin atender se cancelan en vez de quedarse esperando
+        assertTrue(pending.isDone());
+    }
+}
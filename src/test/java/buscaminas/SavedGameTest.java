@@ -0,0 +1,132 @@
+package buscaminas;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SavedGameTest {
+
+    private static RecordingGame startedGame(long seed) {
+        RecordingGame game = new RecordingGame(new MinesweeperGame(16, 30, 99, new Random(seed)));
+        game.openCell(8, 15);
+        Random rnd = new Random(seed);
+        for (int i = 0; i < 20; i++) {
+            int r = rnd.nextInt(16), c = rnd.nextInt(30);
+            if (game.isMine(r, c)) game.toggleFlag(r, c);
+        }
+        return game;
+    }
+
+    private static byte[] toBytes(MinesweeperGame game, MoveLog log) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SavedGame.write(game, log, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    private static void assertSameBoard(IMinesweeperGame a, IMinesweeperGame b) {
+        assertEquals(a.getFlagsCount(), b.getFlagsCount());
+        for (int r = 0; r < a.getRows(); r++) {
+            for (int c = 0; c < a.getCols(); c++) {
+                assertEquals(a.isMine(r, c), b.isMine(r, c));
+                assertEquals(a.isOpened(r, c), b.isOpened(r, c));
+                assertEquals(a.isFlagged(r, c), b.isFlagged(r, c));
+                assertEquals(a.countAdjacentMines(r, c), b.countAdjacentMines(r, c));
+                assertEquals(a.countAdjacentFlags(r, c), b.countAdjacentFlags(r, c));
+            }
+        }
+    }
+
+    @Test
+    void restoredGameContinuesIdentically() throws IOException {
+        RecordingGame original = startedGame(11);
+        MinesweeperGame inner = (MinesweeperGame) original.unwrap();
+        SavedGame saved = SavedGame.read(Channels.newChannel(new ByteArrayInputStream(toBytes(inner, original.log()))));
+        assertSameBoard(inner, saved.game);
+        assertEquals(inner.getBoardSeed(), saved.game.getBoardSeed());
+        assertEquals(original.log().moveCount(), saved.log.moveCount());
+
+        // Las mismas jugadas en las dos partidas acaban igual, y el registro continúa
+        RecordingGame resumed = new RecordingGame(saved.game, saved.log);
+        for (int r = 0; r < 16; r++) {
+            for (int c = 0; c < 30; c++) {
+                if (!inner.isMine(r, c)) {
+                    original.openCell(r, c);
+                    resumed.openCell(r, c);
+                }
+            }
+        }
+        assertTrue(resumed.isWin());
+        assertSameBoard(inner, saved.game);
+        IMinesweeperGame replayed = MoveLogReplay.newGame(resumed.log());
+        MoveLogReplay.replay(resumed.log(), replayed);
+        assertSameBoard(inner, replayed);
+    }
+
+    @Test
+    void unstartedGameKeepsPinnedSeed() throws IOException {
+        MinesweeperGame game = new MinesweeperGame(9, 9, 10, new Random(1));
+        game.reset(42L);
+        SavedGame saved = SavedGame.read(Channels.newChannel(new ByteArrayInputStream(toBytes(game, null))));
+        assertNull(saved.log);
+        saved.game.openCell(4, 4);
+        game.openCell(4, 4);
+        assertSameBoard(game, saved.game);
+    }
+
+    @Test
+    void corruptionIsDetected() throws IOException {
+        RecordingGame game = startedGame(3);
+        byte[] bytes = toBytes((MinesweeperGame) game.unwrap(), game.log());
+        bytes[bytes.length / 2] ^= 1;
+        assertThrows(IOException.class, () -> SavedGame.read(Channels.newChannel(new ByteArrayInputStream(bytes))));
+        byte[] truncated = Arrays.copyOf(toBytes((MinesweeperGame) game.unwrap(), null), 40);
+        assertThrows(IOException.class, () -> SavedGame.read(Channels.newChannel(new ByteArrayInputStream(truncated))));
+    }
+
+    @Test
+    void autoSaverWritesLatestStateAndDeletes(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("sub").resolve("partida.bms");
+        RecordingGame game = startedGame(5);
+        MinesweeperGame inner = (MinesweeperGame) game.unwrap();
+        try (AutoSaver saver = new AutoSaver(file)) {
+            for (int i = 0; i < 50; i++) saver.save(inner, game.log());
+            game.toggleFlag(0, 0);
+            saver.save(inner, game.log());
+        }
+        assertSameBoard(inner, SavedGame.load(file).game);
+        assertFalse(Files.exists(file.resolveSibling("partida.bms.tmp")));
+
+        AutoSaver saver = new AutoSaver(file);
+        saver.delete();
+        saver.close();
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void autoSaverWritesTheStateOfTheSaveCall(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("partida.bms");
+        RecordingGame game = startedGame(6);
+        MinesweeperGame inner = (MinesweeperGame) game.unwrap();
+        MinesweeperGame expected = MinesweeperGame.fromState(inner.captureState(), new Random(0));
+        try (AutoSaver saver = new AutoSaver(file)) {
+            saver.save(inner, game.log());
+            // Jugadas posteriores sin guardar: la copia de los planos en el hilo del guardado no debe verlas
+            for (int r = 0; r < inner.getRows(); r++) {
+                for (int c = 0; c < inner.getCols(); c++) {
+                    if (!inner.isOpened(r, c)) inner.toggleFlag(r, c);
+                }
+            }
+        }
+        assertSameBoard(expected, SavedGame.load(file).game);
+    }
+}